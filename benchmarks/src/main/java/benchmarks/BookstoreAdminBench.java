@@ -0,0 +1,55 @@
+package benchmarks;
+
+import AdicionarCategoria.PaginaBookstoreAdmin;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The PaginaBookstoreAdmin.adicionarCategoria* input strategies on the local admin fixture (click "Add new
+ * category", type into the focused field, Enter, wait for the notification).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class BookstoreAdminBench {
+
+    @Param({"actions", "javaScript", "sendKeys", "robusta", "final"})
+    public String strategy;
+
+    private PaginaBookstoreAdmin admin;
+    private int n;
+
+    @Setup(Level.Invocation)
+    public void freshPage(WarmBrowser browser) {
+        browser.selenide.open(browser.url("/bookstore-admin"));
+        admin = new PaginaBookstoreAdmin(browser.selenide);
+    }
+
+    @Benchmark
+    public void adicionarCategoria() {
+        String name = "Bench " + (n++);
+        switch (strategy) {
+            case "actions" -> admin.adicionarCategoria(name);
+            case "javaScript" -> admin.adicionarCategoriaJavaScript(name);
+            case "sendKeys" -> admin.adicionarCategoriaSendKeys(name);
+            case "robusta" -> admin.adicionarCategoriaRobusta(name);
+            case "final" -> admin.adicionarCategoriaFinal(name);
+            default -> throw new IllegalArgumentException(strategy);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import support.Clicks;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Clicks} on testpage.html: a button free to click and one under the cookie banner (native click intercepted,
+ * JavaScript fallback).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ClickBench {
+
+    private static final By FREE = By.cssSelector("[data-test='suggestion-action']");
+    private static final By UNDER_BANNER = By.cssSelector("[data-test='site-header-search-action']");
+
+    private WarmBrowser browser;
+    private Clicks clicks;
+
+    @Setup(Level.Trial)
+    public void open(WarmBrowser browser) {
+        this.browser = browser;
+        browser.driver.get(browser.url("/testpage"));
+        clicks = Clicks.of(browser.driver, Duration.ofSeconds(5));
+    }
+
+    @Benchmark
+    public void clickElementFree() {
+        clicks.click(browser.driver.findElement(FREE));
+    }
+
+    @Benchmark
+    public void clickElementIntercepted() {
+        clicks.click(browser.driver.findElement(UNDER_BANNER));
+    }
+
+    @Benchmark
+    public void safeClickFree() {
+        clicks.safeClick(FREE, () -> { });
+    }
+
+    @Benchmark
+    public void safeClickIntercepted() {
+        clicks.safeClick(UNDER_BANNER, () -> { });
+    }
+}
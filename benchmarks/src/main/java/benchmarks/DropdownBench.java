@@ -0,0 +1,66 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.support.ui.Select;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dropdown handling as in InteractionTests ({@link Select} by visible text / value) against a single script,
+ * on the local copy of /dropdown.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class DropdownBench {
+
+    private WarmBrowser browser;
+    private int flip;
+
+    @Setup(Level.Trial)
+    public void open(WarmBrowser browser) {
+        this.browser = browser;
+        browser.driver.get(browser.url("/dropdown"));
+    }
+
+    // alternate between the options so every call really changes the selection
+    private String next() {
+        return (flip++ & 1) == 0 ? "1" : "2";
+    }
+
+    @Benchmark
+    public String selectByVisibleText() {
+        Select select = new Select(browser.driver.findElement(By.id("dropdown")));
+        select.selectByVisibleText("Option " + next());
+        return select.getFirstSelectedOption().getText();
+    }
+
+    @Benchmark
+    public String selectByValue() {
+        Select select = new Select(browser.driver.findElement(By.id("dropdown")));
+        select.selectByValue(next());
+        return select.getFirstSelectedOption().getText();
+    }
+
+    @Benchmark
+    public Object script() {
+        return ((JavascriptExecutor) browser.driver).executeScript(
+                "var s = document.getElementById('dropdown'); s.value = arguments[0];" +
+                "s.dispatchEvent(new Event('change', {bubbles: true})); return s.options[s.selectedIndex].text;", next());
+    }
+}
@@ -0,0 +1,69 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pages.FormPage;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FormPage on the local signup form: per-field setters (getShadowInput / getShadowCheckboxInput for every field)
+ * against the batched {@link FormPage#fill} modes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class FormPageBench {
+
+    private static final Map<FormPage.Field, String> VALUES = new EnumMap<>(FormPage.Field.class);
+
+    static {
+        VALUES.put(FormPage.Field.FIRST_NAME, "João");
+        VALUES.put(FormPage.Field.LAST_NAME, "Silva");
+        VALUES.put(FormPage.Field.USER_HANDLE, "joaosilva");
+        VALUES.put(FormPage.Field.WANTED_PASSWORD, "SenhaFort3!");
+        VALUES.put(FormPage.Field.PASSWORD_AGAIN, "SenhaFort3!");
+    }
+
+    private FormPage form;
+
+    @Setup(Level.Invocation)
+    public void freshForm(WarmBrowser browser) {
+        form = new FormPage(browser.selenide);
+        form.openUrl(browser.url("/signup"));
+    }
+
+    @Benchmark
+    public void perFieldSetters() {
+        form.setFirstName(VALUES.get(FormPage.Field.FIRST_NAME));
+        form.setLastName(VALUES.get(FormPage.Field.LAST_NAME));
+        form.setUserHandle(VALUES.get(FormPage.Field.USER_HANDLE));
+        form.setWantedPassword(VALUES.get(FormPage.Field.WANTED_PASSWORD));
+        form.setPasswordAgain(VALUES.get(FormPage.Field.PASSWORD_AGAIN));
+        form.setAllowMarketing(true);
+    }
+
+    @Benchmark
+    public void fillScript() {
+        form.fill(VALUES, true, FormPage.FillMode.SCRIPT);
+    }
+
+    @Benchmark
+    public void fillPerKey() {
+        form.fill(VALUES, true, FormPage.FillMode.PER_KEY);
+    }
+}
@@ -0,0 +1,72 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import support.LocatorProbe;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-candidate lookup on testpage.html where only the last candidate exists: one wait per candidate in turn
+ * (what MainPageTest.tryFindFirstVisible used to do) against {@link LocatorProbe}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class LocatorBench {
+
+    private static final List<By> CANDIDATES = List.of(
+            By.cssSelector("[data-test='search-button']"),
+            By.cssSelector("[data-test='search-toggle']"),
+            By.cssSelector("[data-test='header-search']"),
+            By.cssSelector("[data-test='suggestion-action']"));
+
+    // per-candidate wait of the sequential strategy
+    @Param({"100", "500"})
+    public long timeoutMs;
+
+    private WarmBrowser browser;
+
+    @Setup(Level.Trial)
+    public void open(WarmBrowser browser) {
+        this.browser = browser;
+        browser.driver.get(browser.url("/testpage"));
+    }
+
+    @Benchmark
+    public WebElement sequentialWaits() {
+        for (By by : CANDIDATES) {
+            try {
+                return new WebDriverWait(browser.driver, Duration.ofMillis(timeoutMs))
+                        .until(ExpectedConditions.visibilityOfElementLocated(by));
+            } catch (Exception e) {
+                // try next
+            }
+        }
+        throw new IllegalStateException("fixture changed: no candidate matched");
+    }
+
+    @Benchmark
+    public WebElement locatorProbe() {
+        return LocatorProbe.of(browser.driver).findVisible("bench.findYourTools", Duration.ofMillis(timeoutMs), CANDIDATES);
+    }
+}
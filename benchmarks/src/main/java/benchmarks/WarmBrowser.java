@@ -0,0 +1,48 @@
+package benchmarks;
+
+import com.codeborne.selenide.SelenideDriver;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openqa.selenium.WebDriver;
+import support.BrowserConfig;
+import support.BrowserFactory;
+import support.stub.StandInServer;
+
+import java.util.Map;
+
+/**
+ * One warm headless Chrome per benchmark (launched once per fork, outside the measurement) and a local server with
+ * the fixture pages from the test-jar, so nothing depends on the public demo sites.
+ */
+@State(Scope.Benchmark)
+public class WarmBrowser {
+
+    public WebDriver driver;
+    public SelenideDriver selenide;
+    private StandInServer server;
+
+    @Setup(Level.Trial)
+    public void launch() {
+        server = new StandInServer(0, 0)
+                .page("/testpage", "/testpage.html")
+                .page("/signup", "/fixtures/signup-form.html", Map.of("ENDPOINT", ""))
+                .page("/bookstore-admin", "/fixtures/bookstore-admin.html")
+                .page("/dropdown", "/the-internet/dropdown.html")
+                .start();
+        driver = BrowserFactory.launch(BrowserFactory.Profile.FAST_HEADLESS);
+        selenide = new SelenideDriver(BrowserConfig.defaults().toSelenideConfig(), driver, null);
+    }
+
+    public String url(String path) {
+        return server.baseUrl() + path;
+    }
+
+    @TearDown(Level.Trial)
+    public void quit() {
+        try { driver.quit(); } catch (Exception ignored) {}
+        server.stop();
+    }
+}
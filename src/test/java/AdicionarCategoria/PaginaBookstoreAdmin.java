@@ -1,20 +1,53 @@
 package AdicionarCategoria;
 
-import com.codeborne.selenide.Configuration;
+import com.codeborne.selenide.SelenideDriver;
 import com.codeborne.selenide.SelenideElement;
 import org.openqa.selenium.Keys;
 import org.openqa.selenium.support.FindBy;
+import support.BrowserSession;
+import support.PageReadiness;
+import support.PageWaits;
+import support.SessionSnapshots;
 
 import java.time.Duration;
+import java.util.List;
 
 import static com.codeborne.selenide.Condition.visible;
 import static com.codeborne.selenide.Condition.*;
-import static com.codeborne.selenide.Selenide.*;
 
-public class PaginaBookstoreAdmin {
+// final: o construtor liga os @FindBy com browser.page(this), nenhuma subclasse pode ver os campos por inicializar
+public final class PaginaBookstoreAdmin {
 
+    // Driver deste worker; os campos @FindBy ficam ligados a ele (e não ao browser global do Selenide)
+    private final SelenideDriver browser;
+    private final String url;
 
+    public PaginaBookstoreAdmin() {
+        this(BrowserSession.current().selenide());
+    }
+
+    // URL da demo, ou outra com -Dpiloto.bookstore.baseUrl
+    public PaginaBookstoreAdmin(SelenideDriver browser) {
+        this(browser, System.getProperty("piloto.bookstore.baseUrl", URL_DEMO));
+    }
+
+    // Ex.: support.stub.Bookstore.baseUrl() para o stand-in local com dados semeados por HTTP (BookstoreSeeder)
+    public PaginaBookstoreAdmin(SelenideDriver browser, String url) {
+        this.browser = browser;
+        this.url = url;
+        browser.page(this);
+    }
+
+    // Esperas por eventos na página (foco, notificação, ...) em vez de sleeps fixos
+    private static final Duration FOCO_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration NOTIFICACAO_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration SESSAO_TIMEOUT = Duration.ofSeconds(10);
+
+    private static final String URL_DEMO = "https://vaadin-bookstore-example.demo.vaadin.com/";
 
+    private PageWaits waits() {
+        return PageWaits.of(browser.getWebDriver());
+    }
 
     // ----------------------------
     // LOGIN
@@ -29,7 +62,7 @@ public class PaginaBookstoreAdmin {
     private SelenideElement botaoLogin;
 
     //Notificaçao
-    private SelenideElement notificationCard()   { return $("vaadin-notification-card"); }
+    private SelenideElement notificationCard()   { return browser.$("vaadin-notification-card"); }
 
     public void loginComoAdmin() {
         campoUsername.shouldBe(visible).setValue("admin");
@@ -69,21 +102,21 @@ public class PaginaBookstoreAdmin {
         // 1. Clica no botão
         clicarBotaoAddCategoria();
 
-        // 2. Pequena pausa para garantir que o foco está no campo
-        sleep(500);
+        // 2. Espera até o foco estar no campo
+        waits().insteadOf(500).untilFocusedEditable(FOCO_TIMEOUT);
 
         // 3. Digita a categoria e pressiona Enter - SIMPLES ASSIM!
         digitarCategoriaEConfirmar(nomeCategoria);
 
-        // 4. Verifica resultado
-        sleep(2000);
+        // 4. Verifica resultado (assim que a notificação aparecer)
+        waits().insteadOf(2000).untilNotification(NOTIFICACAO_TIMEOUT);
 
         System.out.println("Resultado: " + notificationCard().getText());
     }
 
     private void clicarBotaoAddCategoria() {
         System.out.println("Clicando em 'Add new category'...");
-        $x("//*[contains(translate(text(), 'ABCDEFGHIJKLMNOPQRSTUVWXYZ', 'abcdefghijklmnopqrstuvwxyz'), 'add new category')]")
+        browser.$x("//*[contains(translate(text(), 'ABCDEFGHIJKLMNOPQRSTUVWXYZ', 'abcdefghijklmnopqrstuvwxyz'), 'add new category')]")
                 .shouldBe(visible, enabled)
                 .click();
         System.out.println("Botão clicado! O foco deve ir automaticamente para o campo.");
@@ -94,9 +127,12 @@ public class PaginaBookstoreAdmin {
         System.out.println("Digitando categoria: " + nomeCategoria);
 
         // ESTRATÉGIA 1: Usa Actions API - a mais direta
-        actions()
+        browser.driver().actions()
                 .sendKeys(nomeCategoria)
-                .pause(500)
+                .perform();
+        // Enter só depois de o texto estar no campo
+        waits().insteadOf(500).untilFocusedValue(nomeCategoria, FOCO_TIMEOUT);
+        browser.driver().actions()
                 .sendKeys(Keys.ENTER)
                 .perform();
 
@@ -110,11 +146,11 @@ public class PaginaBookstoreAdmin {
         // 1. Clica no botão
         clicarBotaoAddCategoria();
 
-        // 2. Aguarda 500ms
-        sleep(5000);
+        // 2. Aguarda o foco no campo
+        waits().insteadOf(5000).untilFocusedEditable(FOCO_TIMEOUT);
 
         // 3. JavaScript direto - digita no elemento ativo
-        executeJavaScript(
+        browser.executeJavaScript(
                 "// Digita no elemento que está em foco\n" +
                         "var elementoAtivo = document.activeElement;\n" +
                         "console.log('Elemento ativo:', elementoAtivo.tagName, elementoAtivo.type || 'sem type');\n" +
@@ -160,10 +196,10 @@ public class PaginaBookstoreAdmin {
         clicarBotaoAddCategoria();
 
         // 2. Aguarda foco
-        sleep(3000);
+        waits().insteadOf(3000).untilFocusedEditable(FOCO_TIMEOUT);
 
         // 3. Digita diretamente (o foco já está no campo correto)
-        $("body").sendKeys(nomeCategoria + Keys.ENTER);
+        browser.$("body").sendKeys(nomeCategoria + Keys.ENTER);
 
         System.out.println("SendKeys executado!");
     }
@@ -173,7 +209,7 @@ public class PaginaBookstoreAdmin {
         System.out.println("=== ADICIONANDO CATEGORIA (ROBUSTA) ===");
 
         clicarBotaoAddCategoria();
-        sleep(500);
+        waits().insteadOf(500).untilFocusedEditable(FOCO_TIMEOUT);
 
         // Tenta várias estratégias
         boolean sucesso = false;
@@ -181,7 +217,9 @@ public class PaginaBookstoreAdmin {
         // Estratégia 1: Actions API
         try {
             System.out.println("Tentando Actions API...");
-            actions().sendKeys(nomeCategoria).pause(200).sendKeys(Keys.ENTER).perform();
+            browser.driver().actions().sendKeys(nomeCategoria).perform();
+            waits().insteadOf(200).untilFocusedValue(nomeCategoria, FOCO_TIMEOUT);
+            browser.driver().actions().sendKeys(Keys.ENTER).perform();
             sucesso = true;
             System.out.println("Sucesso com Actions API!");
         } catch (Exception e) {
@@ -192,7 +230,7 @@ public class PaginaBookstoreAdmin {
         if (!sucesso) {
             try {
                 System.out.println("Tentando JavaScript...");
-                executeJavaScript(
+                browser.executeJavaScript(
                         "document.activeElement.value = arguments[0];" +
                                 "var e = new Event('input', { bubbles: true });" +
                                 "document.activeElement.dispatchEvent(e);" +
@@ -211,7 +249,7 @@ public class PaginaBookstoreAdmin {
         if (!sucesso) {
             try {
                 System.out.println("Tentando sendKeys no body...");
-                $("body").sendKeys(nomeCategoria + Keys.ENTER);
+                browser.$("body").sendKeys(nomeCategoria + Keys.ENTER);
                 System.out.println("Sucesso com sendKeys no body!");
             } catch (Exception e) {
                 System.out.println("Tudo falhou: " + e.getMessage());
@@ -226,15 +264,15 @@ public class PaginaBookstoreAdmin {
 
         clicarBotaoAddCategoria();
 
-        System.out.println("Aguardando 1 segundo...");
-        sleep(1000);
+        System.out.println("Aguardando foco no campo...");
+        waits().insteadOf(1000).untilFocusedEditable(FOCO_TIMEOUT);
 
         System.out.println("Digitando: " + nomeCategoria);
 
         // APENAS ISSO:
-        actions().sendKeys(nomeCategoria).perform();
-        sleep(300);
-        actions().sendKeys(Keys.ENTER).perform();
+        browser.driver().actions().sendKeys(nomeCategoria).perform();
+        waits().insteadOf(300).untilFocusedValue(nomeCategoria, FOCO_TIMEOUT);
+        browser.driver().actions().sendKeys(Keys.ENTER).perform();
 
         System.out.println("Concluído!");
     }
@@ -247,9 +285,29 @@ public class PaginaBookstoreAdmin {
     // ----------------------------
     // ABRIR URL
     // ----------------------------
+    // Pronta quando a rede fica em silêncio (bootstrap + primeiro pedido UIDL); 1 pedido aberto tolera o push do Vaadin
     public void abrirPagina() {
+        PageReadiness.of(browser.getWebDriver()).withQuiet(Duration.ofMillis(300)).withMaxInflight(1)
+                .open(url, PageReadiness.Milestone.NETWORK_QUIET);
+    }
+
+    // Abre já autenticado: repõe a sessão guardada (cookies + storage) e só faz login se ela for rejeitada/expirar
+    public void abrirPaginaAutenticado() {
+        SessionSnapshots.shared().open("bookstore-admin", browser.getWebDriver(), url,
+                this::loginComoAdmin, driver -> estaAutenticado());
+    }
+
+    // Categorias já gravadas na vista Admin do stand-in (campos só de leitura), pela ordem em que aparecem
+    public List<String> listarCategorias() {
+        return browser.executeJavaScript(
+                "return Array.from(document.querySelectorAll('#categories input.category'))" +
+                        ".filter(function (i) { return i.readOnly; }).map(function (i) { return i.value; });");
+    }
 
-        open("https://vaadin-bookstore-example.demo.vaadin.com/");
+    // Autenticado = menu da aplicação visível e formulário de login ausente
+    private boolean estaAutenticado() {
+        return waits().untilVisible("vaadin-drawer-toggle.menu-toggle", SESSAO_TIMEOUT)
+                && !browser.$("input[name='username']").isDisplayed();
     }
 
 
@@ -1,27 +1,57 @@
 package informacaofilmes;
 
+import com.codeborne.selenide.SelenideDriver;
 import com.codeborne.selenide.SelenideElement;
 import com.codeborne.selenide.ElementsCollection;
+import org.openqa.selenium.WebElement;
+import support.BrowserSession;
+import support.GridReader;
+import support.GridRow;
+import support.PageReadiness;
+import support.TextLocator;
+import support.VisualCheckpoint;
 
 import java.time.Duration;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-import static com.codeborne.selenide.Selenide.*;
 import static com.codeborne.selenide.Condition.*;
 
 // page_url = https://vaadin-database-example.demo.vaadin.com/
 public class VaadinDatabaseInformacaoFilmes {
     private final String URL = "https://vaadin-database-example.demo.vaadin.com/";
 
+    private static final String GRID = "vaadin-grid, table";
+    private static final String CELLS = "vaadin-grid-cell-content, td, tr, li";
+
+    // Driver deste worker (cada thread tem o seu browser e a sua configuração)
+    private final SelenideDriver browser;
+
+    public VaadinDatabaseInformacaoFilmes() {
+        this(BrowserSession.current().selenide());
+    }
+
+    public VaadinDatabaseInformacaoFilmes(SelenideDriver browser) {
+        this.browser = browser;
+    }
+
+    // Pesquisa de texto feita dentro da página (um só script), em vez de trazer todos os elementos para o Java
+    private TextLocator texts() {
+        return TextLocator.of(browser.getWebDriver());
+    }
+
     // Abre a página da aplicação de exemplo Vaadin
+    // Pronta quando a rede fica em silêncio (bootstrap + primeiro pedido UIDL); 1 pedido aberto tolera o push do Vaadin
     public void openPage() {
-        open(URL);
+        PageReadiness.of(browser.getWebDriver()).withQuiet(Duration.ofMillis(300)).withMaxInflight(1)
+                .open(URL, PageReadiness.Milestone.NETWORK_QUIET);
     }
 
     // Retorna o elemento de grelha Vaadin (tentativa com alguns seletores de fallback)
     public SelenideElement vaadinGrid() {
-        SelenideElement el = $("vaadin-grid");
+        SelenideElement el = browser.$("vaadin-grid");
         if (!el.exists()) {
-            el = $("div[role='grid']");
+            el = browser.$("div[role='grid']");
         }
         return el;
     }
@@ -36,20 +66,25 @@ public class VaadinDatabaseInformacaoFilmes {
         }
     }
 
+    // Screenshot só da grelha, comparado com o baseline fora da thread do teste (ver VisualCheckpoint)
+    public VisualCheckpoint checkpointGrid() {
+        return VisualCheckpoint.capture(vaadinGrid().shouldBe(visible), "vaadin-database.grid");
+    }
+
     // Tenta localizar linhas na grelha (vários seletores de fallback)
     public ElementsCollection rows() {
-        ElementsCollection rows = $$("vaadin-grid vaadin-grid-row");
-        if (rows.isEmpty()) rows = $$("vaadin-grid table tr");
-        if (rows.isEmpty()) rows = $$("tr");
+        ElementsCollection rows = browser.$$("vaadin-grid vaadin-grid-row");
+        if (rows.isEmpty()) rows = browser.$$("vaadin-grid table tr");
+        if (rows.isEmpty()) rows = browser.$$("tr");
         return rows;
     }
 
     // Filtra por texto usando um input disponível na página (tenta vários seletores)
     public void filterBy(String text) {
-        SelenideElement input = $("input[placeholder*='Filter']");
-        if (!input.exists()) input = $("input[aria-label*='filter']");
-        if (!input.exists()) input = $("input[type='search']");
-        if (!input.exists()) input = $("input");
+        SelenideElement input = browser.$("input[placeholder*='Filter']");
+        if (!input.exists()) input = browser.$("input[aria-label*='filter']");
+        if (!input.exists()) input = browser.$("input[type='search']");
+        if (!input.exists()) input = browser.$("input");
 
         if (input.exists()) {
             input.clear();
@@ -57,55 +92,31 @@ public class VaadinDatabaseInformacaoFilmes {
             input.setValue(text).pressEnter();
 
             // após definir o filtro, aguardar até que apareça algum conteúdo correspondente
-            try {
-                // tenta encontrar células com conteúdo dentro do grid que contenham o texto
-                ElementsCollection candidates = $$("vaadin-grid-cell-content");
-                if (!candidates.isEmpty()) {
-                    // aguarda até que exista pelo menos uma célula contendo o texto
-                    candidates.findBy(text(text)).shouldBe(visible, Duration.ofSeconds(7));
-                    return;
-                }
-
-                // fallback: aguardar por qualquer <td> que contenha o texto
-                ElementsCollection tds = $$("td");
-                if (!tds.isEmpty()) {
-                    tds.findBy(text(text)).shouldBe(visible, Duration.ofSeconds(7));
-                    return;
-                }
-
-                // fallback geral: aguardar por qualquer elemento que contenha o texto
-                $$("*").findBy(text(text)).shouldBe(visible, Duration.ofSeconds(7));
-            } catch (Exception ignore) {
-                // ignora, o teste que usa firstRowText fará a verificação final
-            }
+            // (uma pesquisa de texto no browser por tentativa; a verificação final fica para o teste)
+            TextLocator search = browser.$(GRID).exists() ? texts().within(GRID) : texts();
+            search.await(text, Duration.ofSeconds(7));
         }
     }
 
+    // Linhas da grelha lidas diretamente dos items / dataProvider, por páginas (sem scroll nem elemento a elemento)
+    public Stream<GridRow> gridRows() {
+        return GridReader.of(browser.getWebDriver()).rows();
+    }
+
     // Retorna o texto da primeira linha encontrada (ou string vazia)
     public String firstRowText() {
-        // aguarda por células ou linhas visíveis
+        // primeira linha de dados da grelha; depois a primeira célula/linha visível com texto
+        try {
+            Optional<String> row = gridRows().map(GridRow::text).filter(t -> !t.isEmpty()).findFirst();
+            if (row.isPresent()) return row.get();
+        } catch (Exception ignore) {
+            // sem vaadin-grid na página: procura no texto renderizado
+        }
         try {
-            ElementsCollection visibleCells = $$("vaadin-grid-cell-content").filter(visible);
-            if (!visibleCells.isEmpty()) {
-                for (SelenideElement el : visibleCells) {
-                    String t = el.getText();
-                    if (!t.trim().isEmpty()) return t.trim();
-                }
-            }
-
-            // fallback: aguardar por linhas/tables comuns
-            ElementsCollection trs = $$("vaadin-grid table tr, tr, td, li, p, span, div").filter(visible);
-            for (SelenideElement el : trs) {
-                String t = el.getText();
-                if (!t.trim().isEmpty()) return t.trim();
-            }
-
-            // fallback final: procurar por qualquer elemento visível com texto
-            SelenideElement any = $$("*").filter(visible).findBy(not(empty));
-            if (any.exists()) {
-                String t = any.getText();
-                return t.trim();
-            }
+            Optional<WebElement> cell = texts().within(GRID).closest(CELLS).first(null);
+            if (cell.isEmpty()) cell = texts().closest(CELLS).first(null);
+            if (cell.isEmpty()) cell = texts().first(null);
+            if (cell.isPresent()) return cell.get().getText().trim();
         } catch (Exception ignore) {
         }
 
@@ -1,34 +1,34 @@
 package informacaofilmes;
 
-import com.codeborne.selenide.Configuration;
-import com.codeborne.selenide.SelenideElement;
-import org.junit.jupiter.api.AfterEach;
+import com.codeborne.selenide.SelenideDriver;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.openqa.selenium.WebElement;
+import support.DriverPoolExtension;
+import support.GridReader;
+import support.GridRow;
+import support.SelenideSettings;
+import support.TextLocator;
+import support.VisualCheckpoint;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
 
-import static com.codeborne.selenide.Selenide.closeWebDriver;
-import static com.codeborne.selenide.Selenide.$$;
-import static com.codeborne.selenide.Condition.text;
-import static com.codeborne.selenide.Condition.visible;
 import static org.junit.jupiter.api.Assertions.*;
 
+// Use Selenide default browser (Chrome) and reasonable timeout
+@ExtendWith(DriverPoolExtension.class)
+@SelenideSettings(browserSize = "1920x1080", timeout = 10000)
 public class VaadinDatabaseInformacaoFilmesTest {
+    private SelenideDriver browser;
     private VaadinDatabaseInformacaoFilmes page;
 
     @BeforeEach
-    public void setUp() {
-        // Use Selenide default browser (Chrome) and reasonable timeout
-        Configuration.browserSize = "1920x1080";
-        Configuration.timeout = 10000;
-
-        page = new VaadinDatabaseInformacaoFilmes();
-    }
-
-    @AfterEach
-    public void tearDown() {
-        closeWebDriver();
+    public void setUp(SelenideDriver browser) {
+        this.browser = browser;
+        page = new VaadinDatabaseInformacaoFilmes(browser);
     }
 
     @Test
@@ -36,6 +36,9 @@ public class VaadinDatabaseInformacaoFilmesTest {
         page.openPage();
         boolean visible = page.isGridVisible();
         assertTrue(visible, "Vaadin grid should be visible on the page");
+        // a comparação corre em segundo plano; só se espera por ela no fim
+        page.checkpointGrid();
+        VisualCheckpoint.assertAllMatch();
     }
 
     @Test
@@ -45,34 +48,33 @@ public class VaadinDatabaseInformacaoFilmesTest {
         String filter = "The";
         page.filterBy(filter);
 
-        String first = "";
-
-        try {
-            // primary selector: Vaadin grid cells
-            SelenideElement match = $$("vaadin-grid-cell-content").findBy(text(filter));
-            match.shouldBe(visible, Duration.ofSeconds(10));
-            first = match.getText();
-        } catch (Exception e1) {
-            try {
-                // fallback: table cells
-                SelenideElement match = $$("td").findBy(text(filter));
-                match.shouldBe(visible, Duration.ofSeconds(10));
-                first = match.getText();
-            } catch (Exception e2) {
-                // last fallback: any visible element containing text
-                try {
-                    SelenideElement match = $$("*").findBy(text(filter));
-                    match.shouldBe(visible, Duration.ofSeconds(10));
-                    first = match.getText();
-                } catch (Exception ignored) {
-                }
-            }
+        // uma pesquisa de texto no browser por tentativa: células da grelha primeiro, depois qualquer elemento visível
+        Optional<WebElement> match = TextLocator.of(browser.getWebDriver())
+                .closest("vaadin-grid-cell-content, td")
+                .await(filter, Duration.ofSeconds(10));
+        if (match.isEmpty()) {
+            match = TextLocator.of(browser.getWebDriver()).first(filter);
         }
+        String first = match.map(WebElement::getText).orElse("");
 
         assertNotNull(first);
         assertFalse(first.isEmpty(), "After filtering the grid should contain at least one row");
         // Basic sanity: the row should contain some alphabetic characters
         assertTrue(first.matches(".*[A-Za-z].*"), "Row text should include letters");
     }
-}
 
+    @Test
+    public void readsAllMovieRowsWithoutScrolling() {
+        page.openPage();
+        assertTrue(page.isGridVisible(), "Vaadin grid should be visible on the page");
+
+        GridReader reader = GridReader.of(browser.getWebDriver());
+        List<GridRow> rows = reader.rows().toList();
+
+        assertFalse(rows.isEmpty(), "The grid should have movie rows");
+        for (int i = 0; i < rows.size(); i++) {
+            assertEquals(i, rows.get(i).index(), "Rows should come in order and without gaps");
+            assertTrue(rows.get(i).text().matches(".*[A-Za-z].*"), "Row " + i + " should have text: " + rows.get(i));
+        }
+    }
+}
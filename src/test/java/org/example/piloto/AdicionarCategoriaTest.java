@@ -1,32 +1,30 @@
 package org.example.piloto;
 
 import AdicionarCategoria.PaginaBookstoreAdmin;
-import com.codeborne.selenide.Configuration;
-import com.codeborne.selenide.SelenideElement;
+import com.codeborne.selenide.SelenideDriver;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import support.BookstoreSeeder;
+import support.DriverPoolExtension;
+import support.SelenideSettings;
+import support.stub.Bookstore;
 
-import java.time.Duration;
+import java.util.List;
 
-import static com.codeborne.selenide.Condition.appear;
-import static com.codeborne.selenide.Selenide.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+// Timeout maior para Vaadin
+@ExtendWith(DriverPoolExtension.class)
+@SelenideSettings(browser = "chrome", browserSize = "100%x100%", browserPosition = "0x0", timeout = 10000)
 public class AdicionarCategoriaTest {
 
-    @BeforeEach
-    public void setUp() {
-        Configuration.browser = "chrome";
-        Configuration.browserSize = "100%x100%";
-        Configuration.browserPosition = "0x0";
-        Configuration.timeout = 10000; // Timeout maior para Vaadin
-    }
-
     @Test
-    public void adicionarCategoriaComSucesso() {
-        PaginaBookstoreAdmin pagina = page(PaginaBookstoreAdmin.class);
+    public void adicionarCategoriaComSucesso(SelenideDriver browser) {
+        PaginaBookstoreAdmin pagina = new PaginaBookstoreAdmin(browser);
 
-        pagina.abrirPagina();
-        pagina.loginComoAdmin();
+        // login uma vez por execução; os testes seguintes começam já com a sessão reposta
+        pagina.abrirPaginaAutenticado();
         pagina.abrirAdmin();
 
         String categoria = "CategoriaDeTeste";
@@ -35,9 +33,23 @@ public class AdicionarCategoriaTest {
 
     }
 
+    @Test
+    public void adicionarCategoriaJuntoAsSemeadas(SelenideDriver browser) {
+        // Pré-condição por HTTP, num só pedido: o browser só faz o passo em teste (stand-in local, sem login)
+        BookstoreSeeder seeder = BookstoreSeeder.shared();
+        List<String> semeadas = seeder.categories("Romance", "Poesia", "Ficção científica").stream()
+                .map(BookstoreSeeder.Category::name).toList();
+        PaginaBookstoreAdmin pagina = new PaginaBookstoreAdmin(browser, Bookstore.baseUrl());
+        pagina.abrirPagina();
+        assertTrue(pagina.listarCategorias().containsAll(semeadas), "Categorias semeadas: " + pagina.listarCategorias());
+
+        String categoria = "CategoriaDeTeste " + System.nanoTime();
+        pagina.adicionarCategoria(categoria);
 
-    @AfterEach
-    public void tearDown() {
-        closeWebDriver();
+        // A categoria criada pela UI chegou ao backend; as semeadas são apagadas em lote no fim da suite
+        List<BookstoreSeeder.Category> criadas = seeder.listCategories().stream()
+                .filter(c -> c.name().equals(categoria)).toList();
+        assertEquals(1, criadas.size(), "Categoria gravada no backend");
+        seeder.deleteCategories(criadas.stream().map(BookstoreSeeder.Category::id).toList());
     }
 }
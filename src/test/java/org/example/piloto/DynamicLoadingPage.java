@@ -2,20 +2,29 @@ package org.example.piloto;
 
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
+import support.PageReadiness;
+import support.stub.TheInternet;
 
 public class DynamicLoadingPage {
 
-    private WebDriver driver;
+    private final WebDriver driver;
+    private final String baseUrl;
 
     public By startButtonBy = By.cssSelector("#start button");
     public By loadingBy = By.id("loading");
     public By finishTextBy = By.cssSelector("#finish h4");
 
+    // Por omissão usa o stand-in local (ver TheInternet); -Dpiloto.theInternet.baseUrl aponta para o site real
     public DynamicLoadingPage(WebDriver driver) {
+        this(driver, TheInternet.baseUrl());
+    }
+
+    public DynamicLoadingPage(WebDriver driver, String baseUrl) {
         this.driver = driver;
+        this.baseUrl = baseUrl;
     }
 
     public void abrirPagina() {
-        driver.get("https://the-internet.herokuapp.com/dynamic_loading/2");
+        PageReadiness.of(driver).open(baseUrl + "/dynamic_loading/2", PageReadiness.Milestone.DOM_CONTENT_LOADED);
     }
 }
@@ -1,12 +1,14 @@
 package org.example.piloto;
 
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.openqa.selenium.*;
-import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.support.ui.*;
+import support.DriverPoolExtension;
 
 import java.time.Duration;
 
+@ExtendWith(DriverPoolExtension.class)
 public class DynamicLoadingTest {
 
     private WebDriver driver;
@@ -14,8 +16,8 @@ public class DynamicLoadingTest {
     private DynamicLoadingPage page;
 
     @BeforeEach
-    public void setUp() {
-        driver = new ChromeDriver();
+    public void setUp(WebDriver driver) {
+        this.driver = driver;
         driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(0));
         wait = new WebDriverWait(driver, Duration.ofSeconds(10));
 
@@ -23,11 +25,6 @@ public class DynamicLoadingTest {
         page.abrirPagina();
     }
 
-    @AfterEach
-    public void tearDown() {
-        driver.quit();
-    }
-
     @Test
     public void verificarTextoAposCarregamento() {
         // Clicar no botão Start
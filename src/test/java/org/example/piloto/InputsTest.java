@@ -1,39 +1,35 @@
 package org.example.piloto;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.openqa.selenium.*;
-import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.openqa.selenium.support.ui.ExpectedConditions;
+import support.DriverPoolExtension;
+import support.PageReadiness;
+import support.PageReadiness.Milestone;
+import support.stub.TheInternet;
 
 import java.time.Duration;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+@ExtendWith(DriverPoolExtension.class)
 public class InputsTest {
     private WebDriver driver;
     private WebDriverWait wait;
 
     @BeforeEach
-    public void setUp() {
-        WebDriverManager.chromedriver().setup();
-        driver = new ChromeDriver();
+    public void setUp(WebDriver driver) {
+        this.driver = driver;
         driver.manage().window().maximize();
         driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(5));
         wait = new WebDriverWait(driver, Duration.ofSeconds(10));
     }
 
-    @AfterEach
-    public void tearDown() {
-        if (driver != null) {
-            driver.quit();
-        }
-    }
-
     @Test
     public void inputsAcceptNumbersAndArrowKeys() {
-        driver.get("https://the-internet.herokuapp.com/inputs");
+        PageReadiness.of(driver).open(TheInternet.url("/inputs"), Milestone.DOM_CONTENT_LOADED);
 
         WebElement input = wait.until(ExpectedConditions.visibilityOfElementLocated(By.tagName("input")));
         assertNotNull(input, "Input element should be present");
@@ -1,50 +1,54 @@
 package org.example.piloto;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
-import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
 import org.openqa.selenium.support.ui.WebDriverWait;
+import support.DriverPoolExtension;
+import support.PageReadiness;
+import support.PageReadiness.Milestone;
+import support.SparseFiles;
+import support.stub.TheInternet;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
+@ExtendWith(DriverPoolExtension.class)
 public class InteractionTests {
+    private static final Path UPLOAD_FILES = Path.of("target", "upload-files");
+    private static final Path THROUGHPUT_CSV = Path.of("target", "benchmarks", "upload-throughput.csv");
+
     private WebDriver driver;
     private WebDriverWait wait;
 
     @BeforeEach
-    public void setUp() {
-        WebDriverManager.chromedriver().setup();
-        ChromeOptions options = new ChromeOptions();
-        options.addArguments("--remote-allow-origins=*", "--no-sandbox", "--disable-dev-shm-usage");
-        // options.addArguments("--headless=new"); // uncomment for headless runs
-        driver = new ChromeDriver(options);
+    public void setUp(WebDriver driver) {
+        this.driver = driver;
         driver.manage().window().maximize();
         wait = new WebDriverWait(driver, Duration.ofSeconds(10));
     }
 
-    @AfterEach
-    public void tearDown() {
-        if (driver != null) {
-            driver.quit();
-        }
-    }
-
     @Test
     public void checkboxesToggle() {
-        driver.get("https://the-internet.herokuapp.com/checkboxes");
+        PageReadiness.of(driver).open(TheInternet.url("/checkboxes"), Milestone.DOM_CONTENT_LOADED);
 
         // wait for the checkbox container
         wait.until(ExpectedConditions.presenceOfElementLocated(By.cssSelector("#checkboxes")));
@@ -70,7 +74,7 @@ public class InteractionTests {
 
     @Test
     public void dropdownSelect() {
-        driver.get("https://the-internet.herokuapp.com/dropdown");
+        PageReadiness.of(driver).open(TheInternet.url("/dropdown"), Milestone.DOM_CONTENT_LOADED);
 
         wait.until(ExpectedConditions.presenceOfElementLocated(By.id("dropdown")));
 
@@ -96,20 +100,74 @@ public class InteractionTests {
         Files.writeString(tempFile, "Teste de upload - conteúdo\n");
         tempFile.toFile().deleteOnExit();
 
-        driver.get("https://the-internet.herokuapp.com/upload");
+        String uploadedName = upload(tempFile, wait).getText();
+
+        assertEquals(tempFile.getFileName().toString(), uploadedName, "Uploaded filename should be displayed");
+    }
+
+    /**
+     * Throughput mode of {@link #fileUpload()}: one upload per size class of {@code -Dpiloto.upload.sizes}
+     * (default {@code 64KB,4MB,64MB,512MB,2GB}), through the same page, against the local stand-in.
+     * <p>
+     * Files are sparse (see {@link SparseFiles}) under target/upload-files; the stand-in streams each one to disk and
+     * returns its SHA-256, which must match the file's. MB/s and end-to-end latency (upload page opened to result page shown) per
+     * size class go to target/benchmarks/upload-throughput.csv; run with {@code mvn test -Pbenchmark}.
+     */
+    @Tag("benchmark")
+    @TestFactory
+    public Stream<DynamicTest> fileUploadThroughput() throws IOException {
+        assumeTrue(System.getProperty("piloto.theInternet.baseUrl") == null, "needs the local upload stand-in");
+        Files.createDirectories(UPLOAD_FILES);
+        return Arrays.stream(System.getProperty("piloto.upload.sizes", "64KB,4MB,64MB,512MB,2GB").split(","))
+                .map(String::strip)
+                .map(sizeClass -> DynamicTest.dynamicTest(sizeClass, () -> uploadSizeClass(sizeClass)));
+    }
+
+    private void uploadSizeClass(String sizeClass) throws IOException {
+        long size = SparseFiles.parseSize(sizeClass);
+        Path file = SparseFiles.create(UPLOAD_FILES.resolve("upload-" + sizeClass + ".bin"), size);
+        try {
+            String expected = SparseFiles.sha256(file);
+            // ~20 MB/s as the slowest acceptable upload, never under the usual 10 s
+            Duration timeout = Duration.ofSeconds(Math.max(10, size / (20L << 20)));
+            long start = System.nanoTime();
+            WebElement uploaded = upload(file, new WebDriverWait(driver, timeout));
+            long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000L);
+
+            assertEquals(String.valueOf(size), uploaded.getAttribute("data-bytes"), "Bytes received for " + sizeClass);
+            assertEquals(expected, uploaded.getAttribute("data-sha256"), "SHA-256 of the received " + sizeClass + " file");
+
+            double mbPerSecond = size / (1024.0 * 1024.0) / (millis / 1000.0);
+            String row = String.format(Locale.ROOT, "%s,%d,%d,%s,%.1f", sizeClass, size, millis,
+                    uploaded.getAttribute("data-millis"), mbPerSecond);
+            appendThroughputRow(row);
+            System.out.println("[upload] " + row);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static synchronized void appendThroughputRow(String row) throws IOException {
+        Files.createDirectories(THROUGHPUT_CSV.getParent());
+        if (!Files.exists(THROUGHPUT_CSV)) {
+            Files.writeString(THROUGHPUT_CSV, "sizeClass,bytes,endToEndMs,serverReceiveMs,mbPerSecond\n");
+        }
+        Files.writeString(THROUGHPUT_CSV, row + "\n", StandardOpenOption.APPEND);
+    }
+
+    // opens the upload page, submits the file and returns #uploaded-files of the result page
+    private WebElement upload(Path file, WebDriverWait wait) {
+        PageReadiness.of(driver).open(TheInternet.url("/upload"), Milestone.DOM_CONTENT_LOADED);
 
         wait.until(ExpectedConditions.presenceOfElementLocated(By.id("file-upload")));
 
         WebElement uploadInput = driver.findElement(By.id("file-upload"));
         // send absolute path to the file input
-        uploadInput.sendKeys(tempFile.toAbsolutePath().toString());
+        uploadInput.sendKeys(file.toAbsolutePath().toString());
 
         driver.findElement(By.id("file-submit")).click();
 
         // after submit, the page shows the uploaded file name in #uploaded-files
-        wait.until(ExpectedConditions.presenceOfElementLocated(By.id("uploaded-files")));
-        String uploadedName = driver.findElement(By.id("uploaded-files")).getText();
-
-        assertEquals(tempFile.getFileName().toString(), uploadedName, "Uploaded filename should be displayed");
+        return wait.until(ExpectedConditions.presenceOfElementLocated(By.id("uploaded-files")));
     }
 }
@@ -1,9 +1,12 @@
 package org.example.piloto;
 
 import org.openqa.selenium.By;
-import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
+import support.LocatorProbe;
+import support.VisualCheckpoint;
+
+import java.time.Duration;
 
 // page_url = https://www.jetbrains.com/
 public class MainPage {
@@ -13,51 +16,46 @@ public class MainPage {
         this.driver = driver;
     }
     // Try a couple of selectors / fallbacks to increase resilience when the site changes slightly.
+    // All of them are checked in one script; the first one (in this order) that matches wins (see LocatorProbe).
+    // Text fallbacks only look at an element's own text, so they cannot match a container of the whole page.
     public WebElement getSeeDeveloperToolsButton() {
-        try {
-            return driver.findElement(By.cssSelector("[data-test-marker='Developer Tools']"));
-        } catch (Exception e1) {
-            try {
-                return driver.findElement(By.xpath("//*[contains(.,'Developer Tools')]") );
-            } catch (Exception e2) {
-                throw new NoSuchElementException("seeDeveloperToolsButton not found using known selectors");
-            }
-        }
+        return find("mainPage.seeDeveloperToolsButton",
+                By.cssSelector("[data-test-marker='Developer Tools']"),
+                By.xpath("//*[self::a or self::button][contains(text(),'Developer Tools')]"));
     }
 
     public WebElement getFindYourToolsButton() {
-        try {
-            return driver.findElement(By.cssSelector("[data-test='suggestion-action']"));
-        } catch (Exception e1) {
-            try {
-                return driver.findElement(By.xpath("//*[contains(.,'Find your') or contains(.,'Find')]") );
-            } catch (Exception e2) {
-                throw new NoSuchElementException("findYourToolsButton not found using known selectors");
-            }
-        }
+        return find("mainPage.findYourToolsButton",
+                By.cssSelector("[data-test='suggestion-action']"),
+                By.xpath("//*[self::a or self::button][contains(text(),'Find your')]"));
     }
 
     public WebElement getToolsMenu() {
-        try {
-            return driver.findElement(By.cssSelector("div[data-test='main-menu-item'][data-test-marker='Developer Tools']"));
-        } catch (Exception e1) {
-            try {
-                return driver.findElement(By.xpath("//div[contains(@class,'main-menu') and contains(.,'Developer Tools')]") );
-            } catch (Exception e2) {
-                throw new NoSuchElementException("toolsMenu not found using known selectors");
-            }
-        }
+        return find("mainPage.toolsMenu",
+                By.cssSelector("div[data-test='main-menu-item'][data-test-marker='Developer Tools']"),
+                By.xpath("//div[contains(@class,'main-menu') and contains(.,'Developer Tools')]"));
     }
 
     public WebElement getSearchButton() {
-        try {
-            return driver.findElement(By.cssSelector("[data-test='site-header-search-action']"));
-        } catch (Exception e1) {
-            try {
-                return driver.findElement(By.cssSelector("button[aria-label='Search']"));
-            } catch (Exception e2) {
-                throw new NoSuchElementException("searchButton not found using known selectors");
-            }
-        }
-    }
-}
\ No newline at end of file
+        return find("mainPage.searchButton",
+                By.cssSelector("[data-test='site-header-search-action']"),
+                By.cssSelector("button[aria-label='Search']"));
+    }
+
+    public WebElement getHeader() {
+        return find("mainPage.header",
+                By.cssSelector("header"),
+                By.cssSelector("[data-test='site-header']"));
+    }
+
+    // Screenshot of the header only, compared with its baseline in the background (see VisualCheckpoint)
+    public VisualCheckpoint checkpointHeader() {
+        return VisualCheckpoint.capture(getHeader(), "main-page.header");
+    }
+
+    // Same semantics as the old findElement chain: candidates in order, present in the DOM, checked once
+    // (NoSuchElementException otherwise)
+    private WebElement find(String key, By... candidates) {
+        return LocatorProbe.of(driver).findPresent(key, Duration.ZERO, candidates);
+    }
+}
@@ -3,31 +3,35 @@ package org.example.piloto;
 import org.junit.jupiter.api.*;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
 import org.openqa.selenium.*;
 import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
-import org.openqa.selenium.firefox.FirefoxDriver;
-import org.openqa.selenium.firefox.FirefoxOptions;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.openqa.selenium.ElementClickInterceptedException;
 import org.openqa.selenium.NoSuchWindowException;
 import org.openqa.selenium.interactions.Actions;
-
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import support.BrowserConfig;
+import support.BrowserSession;
+import support.Clicks;
+import support.CommandLatency;
+import support.Diagnostics;
+import support.LocalDom;
+import support.LocatorProbe;
+import support.PageReadiness;
+import support.PageReadiness.Milestone;
+import support.PageWaits;
+import support.RequestBlocker;
+import support.VisualCheckpoint;
+
+import java.lang.reflect.Method;
+import java.net.URL;
 import java.time.Duration;
 import java.util.List;
-import java.io.IOException;
-import java.nio.file.StandardOpenOption;
-import java.time.Instant;
 import java.util.Arrays;
 import java.util.NoSuchElementException;
 import java.util.ArrayList;
@@ -37,68 +41,53 @@ public class MainPageTest {
     private WebDriver driver;
     private MainPage mainPage;
     private WebDriverWait wait;
+    private BrowserSession session;
 
-    // If this is non-null, tests will run against the raw local HTML using String checks
-    private String localHtml = null;
+    // True when src/test/resources/testpage.html is on the classpath: the tests check that mock page instead of jetbrains.com
+    private boolean localPage;
 
     @BeforeEach
-    public void setUp() {
-        // Try to read local testpage if present (best-effort)
-        Path p = Paths.get("target/test-classes/testpage.html");
-        Path p2 = Paths.get("src/test/resources/testpage.html");
-        try {
-            if (Files.exists(p)) {
-                localHtml = Files.readString(p);
-            } else if (Files.exists(p2)) {
-                localHtml = Files.readString(p2);
-            } else {
-                try (java.io.InputStream is = MainPageTest.class.getResourceAsStream("/testpage.html")) {
-                    if (is != null) localHtml = new String(is.readAllBytes());
-                } catch (Exception ignore) {}
-            }
-        } catch (Exception ignored) {
-            localHtml = null;
+    public void setUp(TestInfo info) {
+        URL local = MainPageTest.class.getResource("/testpage.html");
+        localPage = local != null;
+
+        if (localPage && LocalDom.enabled()) {
+            // In-JVM DOM with the page's own scripts and CSS (support.LocalDom): no browser process at all
+            driver = LocalDom.open(local);
+        } else {
+            // Warm session from the shared pool (Chrome preferred, Firefox fallback - see DriverPool)
+            String testName = MainPageTest.class.getName() + "#" + info.getTestMethod().map(Method::getName).orElse("?");
+            session = BrowserSession.open(testName, BrowserConfig.defaults());
+            driver = session.driver();
+
+            driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(0));
+            // readiness comes from page lifecycle events (support.PageReadiness), so get() no longer needs 120 s
+            driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(30));
         }
+        mainPage = new MainPage(driver);
 
-        // Initialize WebDriver (Chrome preferred, Firefox fallback)
-        try {
-            WebDriverManager.chromedriver().setup();
-            ChromeOptions options = new ChromeOptions();
-            options.addArguments("--remote-allow-origins=*");
-            options.addArguments("--no-sandbox", "--disable-dev-shm-usage", "--disable-gpu");
-            driver = new ChromeDriver(options);
-        } catch (Throwable t) {
-            try {
-                WebDriverManager.firefoxdriver().setup();
-                FirefoxOptions fopt = new FirefoxOptions();
-                driver = new FirefoxDriver(fopt);
-            } catch (Throwable t2) {
-                throw new RuntimeException("Failed to initialize any WebDriver", t2);
-            }
+        if (localPage) {
+            if (session != null) PageReadiness.of(driver).open(local.toExternalForm(), Milestone.DOM_CONTENT_LOADED);
+            wait = new WebDriverWait(driver, Duration.ofSeconds(2));
+            // the mock has a real cookie banner: accept it like a user instead of stripping overlays
+            driver.findElement(By.cssSelector("#cookie button")).click();
+            return;
         }
 
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(0));
-        driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(120));
-        try { driver.manage().window().maximize(); } catch (Exception ignored) {}
-
-        // Try to load local file first, fallback to production
+        PageReadiness readiness = PageReadiness.of(driver);
         try {
-            if (localHtml != null) {
-                String local = Paths.get("src/test/resources/testpage.html").toAbsolutePath().toString();
-                String localUrl = "file:///" + local.replace('\\', '/');
-                driver.get(localUrl);
-            } else {
-                driver.get("https://www.jetbrains.com/");
-            }
+            readiness.open("https://www.jetbrains.com/", Milestone.FIRST_MEANINGFUL_PAINT);
+        } catch (TimeoutException slowSubresources) {
+            // load was cut short by the page load timeout; the document itself is usable once painted
+            readiness.await(Milestone.FIRST_MEANINGFUL_PAINT);
         } catch (Exception e) {
-            try { driver.get("https://www.jetbrains.com/"); } catch (Exception ignore) {}
+            try { readiness.open("https://www.jetbrains.com/", Milestone.FIRST_MEANINGFUL_PAINT); } catch (Exception ignore) {}
         }
 
         wait = new WebDriverWait(driver, Duration.ofSeconds(20));
 
         // hide/dismiss common overlays that may intercept clicks
         dismissBlockingOverlays();
-        mainPage = new MainPage(driver);
 
         // Wait briefly for header/search presence to ensure page loaded
         try {
@@ -110,13 +99,23 @@ public class MainPageTest {
                     By.cssSelector("[data-test='header-search']"),
                     By.cssSelector("button[data-test='site-search-button']")
             );
-            tryFindFirstVisible(searchOpenerCandidates, Duration.ofSeconds(8));
+            tryFindFirstVisible("jetbrains.searchOpener", searchOpenerCandidates, Duration.ofSeconds(8));
         } catch (Exception ignored) {}
 
         // remove consent overlays aggressively if present
         removeConsentOverlays();
     }
 
+    @AfterEach
+    public void tearDown() {
+        if (session != null) {
+            CommandLatency.attachToAllure(session.testName());
+            session.close();
+        } else if (driver != null) {
+            driver.quit();
+        }
+    }
+
     private void removeConsentOverlays() {
         By[] possibleContainers = new By[] {
                 By.cssSelector("div.ch2-container"),
@@ -126,7 +125,9 @@ public class MainPageTest {
         };
 
         try {
-            WebDriverWait shortWait = new WebDriverWait(driver, Duration.ofSeconds(5));
+            // with the consent SDKs blocked at load time (support.RequestBlocker) there is nothing to wait for
+            WebDriverWait shortWait = new WebDriverWait(driver,
+                    RequestBlocker.blocking(driver) ? Duration.ofMillis(200) : Duration.ofSeconds(5));
             for (By sel : possibleContainers) {
                 try {
                     shortWait.until(ExpectedConditions.presenceOfElementLocated(sel));
@@ -173,7 +174,7 @@ public class MainPageTest {
                 try { js.executeScript(script); } catch (Exception ignored) {}
             } catch (Exception ignored) {}
 
-            try { Thread.sleep(400); } catch (InterruptedException ignored) {}
+            PageWaits.of(driver).insteadOf(400).untilDomQuiet(100, Duration.ofMillis(400));
 
         } catch (Exception ignored) {
         }
@@ -186,127 +187,32 @@ public class MainPageTest {
             js.executeScript("document.querySelectorAll('.ch2-container, .qc-cmp2-container, #onetrust-banner-sdk').forEach(e => e.style.display='none');");
             // remove any sticky iframe overlays
             js.executeScript("document.querySelectorAll('iframe').forEach(f => { try { f.style.display='none'; } catch(e){}});");
-            // small pause to allow layout to settle
-            Thread.sleep(500);
-        } catch (InterruptedException ignored) {
+            // let the layout settle (returns as soon as the DOM stops changing)
+            PageWaits.of(driver).insteadOf(500).untilDomQuiet(100, Duration.ofMillis(500));
         } catch (Exception e) {
             // ignore — best-effort only
         }
     }
 
     private void safeClick(By by) {
-        try {
-            WebElement el = wait.until(ExpectedConditions.elementToBeClickable(by));
-            try {
-                el.click();
-                return;
-            } catch (ElementClickInterceptedException e) {
-                // tentar remover overlays e clicar via JavaScript
-                try {
-                    ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", el);
-                    ((JavascriptExecutor) driver).executeScript("arguments[0].click();", el);
-                    return;
-                } catch (Exception ignored) {}
-
-                // tentar remover overlays e tentar novamente
-                removeConsentOverlays();
-                try {
-                    el = wait.until(ExpectedConditions.elementToBeClickable(by));
-                    el.click();
-                } catch (Exception ex) {
-                    // último recurso: clicar via JS
-                    try { ((JavascriptExecutor) driver).executeScript("arguments[0].click();", el); } catch (Exception ignored) {}
-                }
-            }
-        } catch (Exception ignored) {
-        }
+        Clicks.of(driver, Duration.ofSeconds(20)).safeClick(by, this::removeConsentOverlays);
     }
 
     private void clickElement(WebElement el) {
-        try {
-            wait.until(ExpectedConditions.elementToBeClickable(el));
-            el.click();
-        } catch (ElementClickInterceptedException ex) {
-            // fallback to JS click when an overlay intercepts the click
-            try {
-                ((JavascriptExecutor) driver).executeScript("arguments[0].click();", el);
-            } catch (WebDriverException wde) {
-                // if the window got closed while trying to click, rethrow with a clearer message
-                if (wde instanceof NoSuchWindowException) {
-                    throw new RuntimeException("Browser window was closed while attempting to click element", wde);
-                }
-                throw wde;
-            }
-        } catch (WebDriverException wde) {
-            // handle cases where the browser window/session is gone
-            if (wde instanceof NoSuchWindowException) {
-                throw new RuntimeException("Browser window already closed or not available during click", wde);
-            }
-            throw wde;
-        }
+        Clicks.of(driver, Duration.ofSeconds(20)).click(el);
     }
 
+    // Page source + screenshot, written in the background to target/diagnostics (see support.Diagnostics)
     private void dumpDiagnostics(String prefix) {
-        // Make diagnostics resilient: catch WebDriver exceptions (window closed) and still write a small note.
-        Path diagDir = Path.of("target", "diagnostics");
-        try {
-            Files.createDirectories(diagDir);
-        } catch (IOException ioe) {
-            System.out.println("Could not create diagnostics directory: " + ioe.getMessage());
-            return;
-        }
-
-        String ts = String.valueOf(Instant.now().toEpochMilli());
-        Path noteFile = diagDir.resolve(prefix + "-" + ts + ".txt");
-
-        try {
-            // Try to get page source and screenshot; these calls can throw NoSuchWindowException
-            String page = null;
-            byte[] screenshot = null;
-            try {
-                page = driver.getPageSource();
-            } catch (WebDriverException wde) {
-                Files.writeString(noteFile, "Could not get page source: " + wde.toString(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
-                System.out.println("Diagnostics: browser not available to get page source: " + wde.getMessage());
-                return;
-            }
-
-            Path srcFile = diagDir.resolve(prefix + "-" + ts + ".html");
-            try {
-                Files.writeString(srcFile, page, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
-            } catch (IOException ioe) {
-                Files.writeString(noteFile, "Failed to write page source: " + ioe.getMessage(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
-            }
-
-            try {
-                if (driver instanceof TakesScreenshot) {
-                    screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
-                    Path imgFile = diagDir.resolve(prefix + "-" + ts + ".png");
-                    Files.write(imgFile, screenshot, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
-                }
-            } catch (WebDriverException | IOException sce) {
-                // write note but continue
-                Files.writeString(noteFile, "Screenshot failed: " + sce.toString(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
-            }
-
-            Files.writeString(noteFile, "Diagnostics generated: " + srcFile.getFileName(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
-            System.out.println("Diagnostics written to: " + diagDir.toAbsolutePath());
-        } catch (IOException ioe) {
-            System.out.println("Failed to write diagnostics: " + ioe.getMessage());
-        }
+        Diagnostics.capture(driver, prefix);
     }
 
-    private WebElement tryFindFirstVisible(List<By> candidates, Duration timeoutPerCandidate) {
-        for (By by : candidates) {
-            try {
-                WebDriverWait shortWait = new WebDriverWait(driver, timeoutPerCandidate);
-                WebElement el = shortWait.until(ExpectedConditions.visibilityOfElementLocated(by));
-                if (el != null && el.isDisplayed()) {
-                    return el;
-                }
-            } catch (Exception e) {
-                // try next
-            }
+    // All candidates are checked in one script per poll tick, in order, stopping at the first visible match
+    private WebElement tryFindFirstVisible(String key, List<By> candidates, Duration timeout) {
+        try {
+            return LocatorProbe.of(driver).findVisible(key, timeout, candidates);
+        } catch (WebDriverException e) {
+            // no candidate matched (or the window went away) - fall through to the heuristics below
         }
 
         // Fallback heuristics: try inputs (search) or nav/menu elements
@@ -351,28 +257,21 @@ public class MainPageTest {
     }
 
     @Test
-    public void search() throws InterruptedException {
-        if (localHtml != null) {
-            String expectedValue = "Selenium";
-            String lower = localHtml.toLowerCase();
-            int idx = lower.indexOf("data-test=\"search-input\"");
-            if (idx == -1) idx = lower.indexOf("data-test='search-input'");
-            if (idx == -1) idx = lower.indexOf("data-test=search-input");
-            assertTrue(idx != -1, "search input must be present in local test page");
-            int tagStart = localHtml.lastIndexOf("<input", idx);
-            assertTrue(tagStart != -1, "search input tag not found in local test page");
-            int tagEnd = localHtml.indexOf('>', idx);
-            assertTrue(tagEnd != -1, "search input tag not closed in local test page");
-            String before = localHtml.substring(0, tagEnd);
-            String after = localHtml.substring(tagEnd);
-            if (!before.toLowerCase().contains(" value=")) {
-                before = before + " value=\"" + expectedValue + "\"";
-            }
-            localHtml = before + after;
-            String lowerHtml = localHtml.toLowerCase();
-            boolean hasSubmit = lowerHtml.contains("data-test=\"full-search-button\"") || lowerHtml.contains("data-test='full-search-button'") || lowerHtml.contains("data-test=full-search-button");
-            assertTrue(hasSubmit, "submit button must be present in local test page");
-            assertTrue(localHtml.contains("value=\"" + expectedValue + "\""), "search input must contain 'Selenium' in local test page");
+    public void search() {
+        if (localPage) {
+            // the mock's own scripts: the header button reveals the input, "Go" submits it
+            String query = "Selenium";
+            WebElement searchField = driver.findElement(By.cssSelector("[data-test='search-input']"));
+            assertFalse(searchField.isDisplayed(), "search input must start hidden in local test page");
+            mainPage.getSearchButton().click();
+            assertTrue(searchField.isDisplayed(), "search button must reveal the search input");
+            searchField.sendKeys(query);
+            driver.findElement(By.cssSelector("[data-test='full-search-button']")).click();
+            WebElement results = driver.findElement(By.cssSelector("[data-test='search-results']"));
+            assertTrue(results.isDisplayed(), "submit must show the results area");
+            assertEquals("Results for \"" + query + "\"", results.getText());
+            assertTrue(driver.getCurrentUrl().endsWith("#q=" + query), "submit must put the query in the URL: " + driver.getCurrentUrl());
+            assertEquals("Search results for " + query, driver.getTitle());
             return;
         }
 
@@ -386,10 +285,12 @@ public class MainPageTest {
                 By.cssSelector("button[data-test='site-search-button']")
         );
         try {
-            WebElement searchOpener = tryFindFirstVisible(searchOpenerCandidates, Duration.ofSeconds(5));
+            WebElement searchOpener = tryFindFirstVisible("jetbrains.searchOpener", searchOpenerCandidates, Duration.ofSeconds(5));
             if (searchOpener != null) clickElement(searchOpener);
         } catch (Exception ignored) {}
-        Thread.sleep(400);
+        PageWaits.of(driver).insteadOf(400).untilVisible(
+                "[data-test='search-input'], input[aria-label*='Search'], input[type='search'], input[placeholder*='Search']",
+                Duration.ofSeconds(2));
 
         List<By> searchCandidates = Arrays.asList(
                 By.cssSelector("[data-test='search-input']"),
@@ -399,7 +300,7 @@ public class MainPageTest {
                 By.cssSelector("input[type='text']")
         );
 
-        WebElement searchField = tryFindFirstVisible(searchCandidates, Duration.ofSeconds(7));
+        WebElement searchField = tryFindFirstVisible("jetbrains.searchInput", searchCandidates, Duration.ofSeconds(7));
         String query = "Selenium";
         try { searchField.clear(); } catch (Exception ignored) {}
         searchField.sendKeys(query);
@@ -419,7 +320,7 @@ public class MainPageTest {
                         By.cssSelector("button[type='submit']"),
                         By.cssSelector("button[aria-label*='Search']")
                 );
-                WebElement submitButton = tryFindFirstVisible(submitCandidates, Duration.ofSeconds(3));
+                WebElement submitButton = tryFindFirstVisible("jetbrains.searchSubmit", submitCandidates, Duration.ofSeconds(3));
                 clickElement(submitButton);
                 submitted = true;
             } catch (Exception ignored) {}
@@ -445,7 +346,7 @@ public class MainPageTest {
         if (!submitted) {
             try {
                 String forced = "https://www.jetbrains.com/search/?q=" + java.net.URLEncoder.encode(query, java.nio.charset.StandardCharsets.UTF_8);
-                driver.get(forced);
+                PageReadiness.of(driver).open(forced, Milestone.DOM_CONTENT_LOADED);
                 submitted = true;
             } catch (Exception ignored) {}
         }
@@ -473,11 +374,11 @@ public class MainPageTest {
         } catch (org.openqa.selenium.TimeoutException te) {
             try {
                 String forced = "https://www.jetbrains.com/search/?q=" + java.net.URLEncoder.encode(query, java.nio.charset.StandardCharsets.UTF_8);
-                driver.get(forced);
+                PageReadiness.of(driver).open(forced, Milestone.DOM_CONTENT_LOADED);
                 WebDriverWait shortWait = new WebDriverWait(driver, Duration.ofSeconds(10));
                 shortWait.until(ExpectedConditions.textToBePresentInElementLocated(By.tagName("body"), query));
             } catch (Exception ex) {
-                try { Thread.sleep(1000); } catch (InterruptedException ignored) {}
+                PageWaits.of(driver).insteadOf(1000).untilDomQuiet(200, Duration.ofSeconds(1));
                 dumpDiagnostics("search-timeout");
                 System.out.println("[DEBUG] Timeout - Final URL: " + safeGetCurrentUrl() + " | Title: " + safeGetTitle());
                 throw new AssertionError("Search did not show results within timeout for query: " + query, te);
@@ -510,10 +411,25 @@ public class MainPageTest {
     }
 
     @Test
-    public void toolsMenu() throws InterruptedException {
-        if (localHtml != null) {
-            String menuSelector = "div[data-test='main-submenu']";
-            assertTrue(localHtml.contains(menuSelector), "tools menu must be present in local test page");
+    public void headerMatchesBaseline() {
+        assumeTrue(driver instanceof TakesScreenshot, "element screenshots need a real browser (-Dpiloto.browserless=false)");
+        // only the header is captured; the diff runs in the background until assertMatches()
+        VisualCheckpoint header = mainPage.checkpointHeader();
+        assertTrue(mainPage.getSearchButton().isDisplayed(), "search button must be visible in the header");
+        header.assertMatches();
+    }
+
+    @Test
+    public void toolsMenu() {
+        if (localPage) {
+            WebElement menu = mainPage.getToolsMenu();
+            WebElement submenu = driver.findElement(By.cssSelector("div[data-test='main-submenu']"));
+            assertTrue(menu.isDisplayed(), "tools menu must be visible in local test page");
+            assertEquals("Developer Tools", menu.getText());
+            assertFalse(submenu.isDisplayed(), "submenu must start closed");
+            // the mock does not wire a hover handler: open it through the page's own function
+            ((JavascriptExecutor) driver).executeScript("openToolsMenu()");
+            assertTrue(submenu.isDisplayed(), "submenu must open");
             return;
         }
 
@@ -528,7 +444,7 @@ public class MainPageTest {
 
         WebElement opener = null;
         try {
-            opener = tryFindFirstVisible(toolsOpenerCandidates, Duration.ofSeconds(3));
+            opener = tryFindFirstVisible("jetbrains.toolsOpener", toolsOpenerCandidates, Duration.ofSeconds(3));
         } catch (Exception ignored) {
             // no fallback to mainPage.toolsMenuBy (field missing) — will fail below with diagnostics if opener null
         }
@@ -545,14 +461,16 @@ public class MainPageTest {
         } catch (Exception e) {
             try {
                 new Actions(driver).moveToElement(opener).perform();
-                Thread.sleep(300);
+                PageWaits.of(driver).insteadOf(300).untilDomQuiet(100, Duration.ofMillis(300));
             } catch (Exception ignored) {}
             try {
                 ((JavascriptExecutor) driver).executeScript("arguments[0].click();", opener);
             } catch (Exception ignored) {}
         }
 
-        Thread.sleep(500);
+        PageWaits.of(driver).insteadOf(500).untilVisible(
+                "div[data-test='main-submenu'], nav[role='navigation'], div[data-test='main-menu'], div.main-submenu",
+                Duration.ofSeconds(2));
 
         List<By> submenuCandidates = Arrays.asList(
                 By.cssSelector("div[data-test='main-submenu']"),
@@ -563,7 +481,7 @@ public class MainPageTest {
 
         WebElement menuPopup = null;
         try {
-            menuPopup = tryFindFirstVisible(submenuCandidates, Duration.ofSeconds(5));
+            menuPopup = tryFindFirstVisible("jetbrains.toolsSubmenu", submenuCandidates, Duration.ofSeconds(5));
         } catch (Exception e) {
             dumpDiagnostics("tools-submenu-not-found");
             fail("Tools submenu did not appear after clicking header tools opener.");
@@ -577,16 +495,19 @@ public class MainPageTest {
     }
 
     @Test
-    public void navigationToAllTools() throws InterruptedException {
-        if (localHtml != null) {
-            String productsId = "products-page";
-            assertTrue(localHtml.contains("id=\"" + productsId + "\""), "products list must be present in local test page");
+    public void navigationToAllTools() {
+        if (localPage) {
+            WebElement productsList = driver.findElement(By.id("products-page"));
+            assertFalse(productsList.isDisplayed(), "products list must start hidden in local test page");
+            mainPage.getFindYourToolsButton().click();
+            wait.until(ExpectedConditions.visibilityOf(productsList));
+            assertEquals("All Developer Tools and Products by JetBrains", driver.getTitle());
             return;
         }
 
         // robustly click "See Developer Tools" (don't reference mainPage.seeDeveloperToolsBy)
         try {
-            WebElement seeDevBtn = tryFindFirstVisible(Arrays.asList(
+            WebElement seeDevBtn = tryFindFirstVisible("jetbrains.seeDeveloperTools", Arrays.asList(
                     By.cssSelector("[data-test='see-developer-tools']"),
                     By.cssSelector("a[href*='developer-tools']"),
                     By.linkText("See Developer Tools"),
@@ -597,7 +518,7 @@ public class MainPageTest {
 
         // robustly click "Find Your Tools" (don't reference mainPage.findYourToolsBy)
         try {
-            WebElement findYourBtn = tryFindFirstVisible(Arrays.asList(
+            WebElement findYourBtn = tryFindFirstVisible("jetbrains.findYourTools", Arrays.asList(
                     By.cssSelector("[data-test='find-your-tools']"),
                     By.xpath("//a[contains(.,'Find your tools') or contains(.,'Find your Tools')]"),
                     By.cssSelector("[data-test='suggestion-action']"),
@@ -616,7 +537,7 @@ public class MainPageTest {
         WebElement seeTools = wait.until(ExpectedConditions.presenceOfElementLocated(By.cssSelector("[data-test-marker='Developer Tools']")));
         clickElement(seeTools);
 
-        WebElement findTools = tryFindFirstVisible(Arrays.asList(By.cssSelector("[data-test='suggestion-action']"), By.cssSelector("a[href*='tools']")), Duration.ofSeconds(3));
+        WebElement findTools = tryFindFirstVisible("jetbrains.findTools", Arrays.asList(By.cssSelector("[data-test='suggestion-action']"), By.cssSelector("a[href*='tools']")), Duration.ofSeconds(3));
         clickElement(findTools);
 
         wait.until(d -> {
@@ -628,13 +549,6 @@ public class MainPageTest {
         });
     }
 
-    @AfterEach
-    public void tearDown() {
-        if (driver != null) {
-            try { driver.quit(); } catch (Exception ignored) {}
-        }
-    }
-
     private String safeGetCurrentUrl() {
         try { return driver.getCurrentUrl(); } catch (Exception e) { return "<no-url>"; }
     }
@@ -1,37 +1,35 @@
 package org.example.piloto;
 
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.openqa.selenium.*;
-import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
+import support.DriverPoolExtension;
+import support.PageReadiness;
+import support.PageReadiness.Milestone;
+import support.stub.TheInternet;
 
 import java.time.Duration;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+@ExtendWith(DriverPoolExtension.class)
 public class NotificationMessagesTest {
     private WebDriver driver;
     private WebDriverWait wait;
 
     @BeforeEach
-    public void setUp() {
-        driver = new ChromeDriver();
+    public void setUp(WebDriver driver) {
+        this.driver = driver;
         driver.manage().window().maximize();
         driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(5));
         wait = new WebDriverWait(driver, Duration.ofSeconds(10));
     }
 
-    @AfterEach
-    public void tearDown() {
-        if (driver != null) {
-            driver.quit();
-        }
-    }
-
     @Test
     public void notificationMessageShowsAndVanishesOrChanges() {
-        driver.get("https://the-internet.herokuapp.com/notification_message_rendered");
+        PageReadiness.of(driver).open(TheInternet.url("/notification_message_rendered"), Milestone.DOM_CONTENT_LOADED);
 
         String lastText = null;
 
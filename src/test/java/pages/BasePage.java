@@ -1,10 +1,29 @@
 package pages;
 
-import com.codeborne.selenide.Selenide;
+import com.codeborne.selenide.SelenideDriver;
+import support.BrowserSession;
+import support.PageReadiness;
+import support.PageReadiness.Milestone;
 
 public class BasePage {
 
+    // Driver deste worker (cada thread tem o seu browser e a sua configuração)
+    protected final SelenideDriver browser;
+
+    public BasePage() {
+        this(BrowserSession.current().selenide());
+    }
+
+    public BasePage(SelenideDriver browser) {
+        this.browser = browser;
+    }
+
+    // Navega e espera pelo DOMContentLoaded (eventos do browser); o resto fica para as esperas do Selenide
     public void openUrl(String url) {
-        Selenide.open(url);
+        openUrl(url, Milestone.DOM_CONTENT_LOADED);
+    }
+
+    public void openUrl(String url, Milestone until) {
+        PageReadiness.of(browser.getWebDriver()).open(url, until);
     }
 }
@@ -0,0 +1,112 @@
+package pages;
+
+import com.codeborne.selenide.SelenideDriver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.openqa.selenium.WebDriver;
+import support.BrowserConfig;
+import support.CommandCounter;
+import support.DriverPoolExtension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compara o preenchimento campo a campo (setters) com {@link FormPage#fill} (SCRIPT e PER_KEY)
+ * numa cópia local do "Signup form" (src/test/resources/fixtures/signup-form.html).
+ * <p>
+ * Conta os comandos WebDriver (idas ao browser) e o tempo de cada modo; resultado em target/benchmarks/form-fill.csv.
+ * Só corre com {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@ExtendWith(DriverPoolExtension.class)
+public class FormFillBenchmarkTest {
+
+    private static final int WARMUP = 2;
+    private static final int ROUNDS = Integer.getInteger("piloto.benchmark.rounds", 10);
+    private static final Path OUT = Path.of("target", "benchmarks", "form-fill.csv");
+
+    private static final Map<FormPage.Field, String> VALUES = new EnumMap<>(FormPage.Field.class);
+
+    static {
+        VALUES.put(FormPage.Field.FIRST_NAME, "João");
+        VALUES.put(FormPage.Field.LAST_NAME, "Silva");
+        VALUES.put(FormPage.Field.USER_HANDLE, "joaosilva");
+        VALUES.put(FormPage.Field.WANTED_PASSWORD, "SenhaFort3!");
+        VALUES.put(FormPage.Field.PASSWORD_AGAIN, "SenhaFort3!");
+    }
+
+    private final CommandCounter commands = new CommandCounter();
+    private SelenideDriver browser;
+    private String fixtureUrl;
+
+    @BeforeEach
+    public void setUp(WebDriver driver, BrowserConfig config) {
+        browser = new SelenideDriver(config.toSelenideConfig(), commands.decorate(driver), null);
+        fixtureUrl = getClass().getResource("/fixtures/signup-form.html").toExternalForm();
+    }
+
+    @Test
+    public void perFieldVersusBatchedFill() throws IOException {
+        List<String> rows = new ArrayList<>();
+        rows.add(measure("setters", form -> {
+            form.setFirstName(VALUES.get(FormPage.Field.FIRST_NAME));
+            form.setLastName(VALUES.get(FormPage.Field.LAST_NAME));
+            form.setUserHandle(VALUES.get(FormPage.Field.USER_HANDLE));
+            form.setWantedPassword(VALUES.get(FormPage.Field.WANTED_PASSWORD));
+            form.setPasswordAgain(VALUES.get(FormPage.Field.PASSWORD_AGAIN));
+            form.setAllowMarketing(true);
+        }));
+        rows.add(measure("fill-script", form -> form.fill(VALUES, true, FormPage.FillMode.SCRIPT)));
+        rows.add(measure("fill-per-key", form -> form.fill(VALUES, true, FormPage.FillMode.PER_KEY)));
+
+        Files.createDirectories(OUT.getParent());
+        Files.writeString(OUT, "mode,rounds,commandsPerFill,meanMs,minMs,maxMs\n" + String.join("\n", rows) + "\n");
+        rows.forEach(r -> System.out.println("[form-fill] " + r));
+    }
+
+    private String measure(String mode, Consumer<FormPage> fill) {
+        FormPage form = new FormPage(browser);
+        long[] millis = new long[ROUNDS];
+        int commandsPerFill = 0;
+        for (int round = -WARMUP; round < ROUNDS; round++) {
+            form.openUrl(fixtureUrl);
+            commands.reset();
+            long start = System.nanoTime();
+            fill.accept(form);
+            long elapsed = (System.nanoTime() - start) / 1_000_000L;
+            int used = commands.count();
+            if (round >= 0) {
+                millis[round] = elapsed;
+                commandsPerFill = used;
+            }
+            assertFilled(mode);
+        }
+        long total = Arrays.stream(millis).sum();
+        return mode + "," + ROUNDS + "," + commandsPerFill + "," + (total / ROUNDS) + ","
+                + Arrays.stream(millis).min().orElse(0) + "," + Arrays.stream(millis).max().orElse(0);
+    }
+
+    // Os três modos têm de deixar o formulário no mesmo estado
+    private void assertFilled(String mode) {
+        List<Object> state = browser.executeJavaScript(
+                "var v = function (tag, i) { var h = document.querySelectorAll(tag)[i]; return h.shadowRoot.querySelector('input').value; };" +
+                "return [v('vaadin-text-field', 0), v('vaadin-text-field', 1), v('vaadin-text-field', 2)," +
+                " v('vaadin-password-field', 0), v('vaadin-password-field', 1)," +
+                " document.querySelector('vaadin-checkbox').shadowRoot.querySelector('input').checked];");
+        assertEquals(List.of(VALUES.get(FormPage.Field.FIRST_NAME), VALUES.get(FormPage.Field.LAST_NAME),
+                VALUES.get(FormPage.Field.USER_HANDLE), VALUES.get(FormPage.Field.WANTED_PASSWORD),
+                VALUES.get(FormPage.Field.PASSWORD_AGAIN), true), state, "Estado do formulário após " + mode);
+    }
+}
@@ -1,12 +1,17 @@
 
 package pages;
 
-import com.codeborne.selenide.Selenide;
+import com.codeborne.selenide.SelenideDriver;
 import com.codeborne.selenide.SelenideElement;
+import org.openqa.selenium.WebElement;
+import support.VisualCheckpoint;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import static com.codeborne.selenide.Condition.*;
-import static com.codeborne.selenide.Selenide.$;
-import static com.codeborne.selenide.Selenide.$$;
 
 /**
  * page_url = https://vaadin-form-example.demo.vaadin.com/
@@ -14,22 +19,83 @@ import static com.codeborne.selenide.Selenide.$$;
  */
 public class FormPage extends BasePage {
 
+    // Campos de texto do formulário: tag do host Vaadin + índice (ver comentário dos hosts abaixo)
+    public enum Field {
+        FIRST_NAME("vaadin-text-field", 0),
+        LAST_NAME("vaadin-text-field", 1),
+        USER_HANDLE("vaadin-text-field", 2),
+        WANTED_PASSWORD("vaadin-password-field", 0),
+        PASSWORD_AGAIN("vaadin-password-field", 1);
+
+        private final String hostTag;
+        private final int index;
+
+        Field(String hostTag, int index) {
+            this.hostTag = hostTag;
+            this.index = index;
+        }
+    }
+
+    public enum FillMode {
+        /** Um só script: resolve todos os inputs, define os valores e dispara input/change. */
+        SCRIPT,
+        /** Alta fidelidade: resolve os inputs num script e escreve tecla a tecla (eventos de teclado reais). */
+        PER_KEY
+    }
+
+    // Resolve o <input> de um host Vaadin: shadowRoot, slot "input" ou input no light DOM
+    private static final String INPUT_OF =
+            "function inputOf(host, type) {" +
+            "  if (!host) return null;" +
+            "  var sel = type ? 'input[type=\"' + type + '\"]' : 'input';" +
+            "  var r = host.shadowRoot, i = r && r.querySelector(sel);" +
+            "  if (!i && r) { var s = r.querySelector('slot[name=\"input\"]'); var a = s ? s.assignedElements() : []; i = a.length ? a[0] : null; }" +
+            "  return i || host.querySelector(sel);" +
+            "}";
+
+    private static final String FILL_SCRIPT = INPUT_OF +
+            "var fields = arguments[0], marketing = arguments[1], missing = [];" +
+            "var setter = Object.getOwnPropertyDescriptor(HTMLInputElement.prototype, 'value').set;" +
+            "fields.forEach(function (f) {" +
+            "  var input = inputOf(document.querySelectorAll(f.tag)[f.index]);" +
+            "  if (!input) { missing.push(f.name); return; }" +
+            "  setter.call(input, f.value);" +
+            "  input.dispatchEvent(new Event('input', {bubbles: true, composed: true}));" +
+            "  input.dispatchEvent(new Event('change', {bubbles: true, composed: true}));" +
+            "});" +
+            "if (marketing !== null) {" +
+            "  var cb = document.querySelector('vaadin-checkbox'), ci = inputOf(cb, 'checkbox');" +
+            "  if (!ci) missing.push('ALLOW_MARKETING'); else if (ci.checked !== marketing) cb.click();" +
+            "}" +
+            "return missing;";
+
+    private static final String RESOLVE_SCRIPT = INPUT_OF +
+            "return arguments[0].map(function (f) { return inputOf(document.querySelectorAll(f.tag)[f.index]); });";
+
+    public FormPage() {
+        super();
+    }
+
+    public FormPage(SelenideDriver browser) {
+        super(browser);
+    }
+
     private void ensureFormLoaded() {
-        $("h2").should(appear).shouldHave(text("Signup form"));
+        browser.$("h2").should(appear).shouldHave(text("Signup form"));
     }
 
     // Hosts por índice (rótulos ficam dentro do Shadow DOM, não confie em [label='...'] no host)
-    private SelenideElement firstNameHost()      { return $$("vaadin-text-field").get(0).should(exist); }
-    private SelenideElement lastNameHost()       { return $$("vaadin-text-field").get(1).should(exist); }
-    private SelenideElement userHandleHost()     { return $$("vaadin-text-field").get(2).should(exist); }
+    private SelenideElement firstNameHost()      { return browser.$$("vaadin-text-field").get(0).should(exist); }
+    private SelenideElement lastNameHost()       { return browser.$$("vaadin-text-field").get(1).should(exist); }
+    private SelenideElement userHandleHost()     { return browser.$$("vaadin-text-field").get(2).should(exist); }
 
-    private SelenideElement wantedPasswordHost() { return $$("vaadin-password-field").get(0).should(exist); }
-    private SelenideElement passwordAgainHost()  { return $$("vaadin-password-field").get(1).should(exist); }
+    private SelenideElement wantedPasswordHost() { return browser.$$("vaadin-password-field").get(0).should(exist); }
+    private SelenideElement passwordAgainHost()  { return browser.$$("vaadin-password-field").get(1).should(exist); }
 
-    private SelenideElement marketingCheckbox()  { return $("vaadin-checkbox").should(exist); }
-    private SelenideElement joinButton()         { return $("vaadin-button[theme*='primary']").should(exist); }
+    private SelenideElement marketingCheckbox()  { return browser.$("vaadin-checkbox").should(exist); }
+    private SelenideElement joinButton()         { return browser.$("vaadin-button[theme*='primary']").should(exist); }
 
-    private SelenideElement notificationCard()   { return $("vaadin-notification-card"); }
+    private SelenideElement notificationCard()   { return browser.$("vaadin-notification-card"); }
 
     // -------- Interações --------
     public void setFirstName(String value) {
@@ -66,6 +132,52 @@ public class FormPage extends BasePage {
         }
     }
 
+    // -------- Preenchimento em lote --------
+
+    public void fill(Map<Field, String> values) {
+        fill(values, null, FillMode.SCRIPT);
+    }
+
+    public void fill(Map<Field, String> values, Boolean allowMarketing) {
+        fill(values, allowMarketing, FillMode.SCRIPT);
+    }
+
+    /**
+     * Preenche vários campos (e opcionalmente o checkbox de marketing) de uma vez.
+     * Em {@link FillMode#SCRIPT} é uma única chamada executeJavaScript, em vez de várias idas ao browser por campo.
+     */
+    public void fill(Map<Field, String> values, Boolean allowMarketing, FillMode mode) {
+        ensureFormLoaded();
+        List<Map<String, Object>> fields = new ArrayList<>();
+        values.forEach((field, value) -> {
+            Map<String, Object> f = new LinkedHashMap<>();
+            f.put("name", field.name());
+            f.put("tag", field.hostTag);
+            f.put("index", field.index);
+            f.put("value", value);
+            fields.add(f);
+        });
+
+        if (mode == FillMode.PER_KEY) {
+            List<WebElement> inputs = browser.executeJavaScript(RESOLVE_SCRIPT, fields);
+            for (int i = 0; i < fields.size(); i++) {
+                WebElement input = inputs.get(i);
+                if (input == null) {
+                    throw new IllegalStateException("Não foi possível localizar o <input> do campo " + fields.get(i).get("name"));
+                }
+                input.clear();
+                input.sendKeys((String) fields.get(i).get("value"));
+            }
+            if (allowMarketing == null) return;
+            fields.clear();
+        }
+
+        List<String> missing = browser.executeJavaScript(FILL_SCRIPT, fields, allowMarketing);
+        if (missing != null && !missing.isEmpty()) {
+            throw new IllegalStateException("Não foi possível localizar o <input> dos campos " + missing);
+        }
+    }
+
     public void submit() {
         ensureFormLoaded();
         joinButton().shouldBe(enabled).click();
@@ -76,15 +188,29 @@ public class FormPage extends BasePage {
         return notificationCard().getText();
     }
 
+    // -------- Checkpoints visuais --------
+
+    // Só o formulário (título, campos e botão): o layout Vaadin, ou o contentor do título na fixture local
+    public SelenideElement formLayout() {
+        ensureFormLoaded();
+        SelenideElement layout = browser.$("vaadin-form-layout");
+        return layout.exists() ? layout : browser.$("h2").parent();
+    }
+
+    // Screenshot do formulário comparado com o baseline fora da thread do teste (ver VisualCheckpoint)
+    public VisualCheckpoint checkpointForm() {
+        return VisualCheckpoint.capture(formLayout(), "form-page.signup-form");
+    }
+
     // -------- Utilitários Shadow DOM --------
 
     private SelenideElement getShadowInput(SelenideElement host) {
-        org.openqa.selenium.WebElement we = Selenide.executeJavaScript(
+        org.openqa.selenium.WebElement we = browser.executeJavaScript(
                 "return arguments[0] && arguments[0].shadowRoot && arguments[0].shadowRoot.querySelector('input')",
                 host
         );
         if (we == null) {
-            we = Selenide.executeJavaScript(
+            we = browser.executeJavaScript(
                     "const r=arguments[0].shadowRoot; if(!r) return null;" +
                             "const s=r.querySelector('slot[name=\"input\"]'); if(!s) return null;" +
                             "const assigned=s.assignedElements(); return assigned && assigned.length? assigned[0] : null;",
@@ -94,17 +220,17 @@ public class FormPage extends BasePage {
         if (we == null) {
             throw new IllegalStateException("Não foi possível localizar o <input> no shadowRoot do componente Vaadin.");
         }
-        return $(we); // envolver para virar SelenideElement
+        return browser.$(we); // envolver para virar SelenideElement
     }
 
     private SelenideElement getShadowCheckboxInput(SelenideElement checkboxHost) {
-        org.openqa.selenium.WebElement we = Selenide.executeJavaScript(
+        org.openqa.selenium.WebElement we = browser.executeJavaScript(
                 "return arguments[0] && arguments[0].shadowRoot && arguments[0].shadowRoot.querySelector('input[type=\"checkbox\"]')",
                 checkboxHost
         );
         if (we == null) {
             throw new IllegalStateException("Não foi possível localizar <input type='checkbox'> no shadowRoot do vaadin-checkbox.");
         }
-        return $(we);
+        return browser.$(we);
     }
 }
\ No newline at end of file
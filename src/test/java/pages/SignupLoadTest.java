@@ -0,0 +1,84 @@
+package pages;
+
+import com.codeborne.selenide.SelenideDriver;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.WebDriver;
+import support.BrowserConfig;
+import support.BrowserFactory;
+import support.LoadRunner;
+import support.PageReadiness.Milestone;
+import support.stub.SignupSite;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fluxo de registo do {@link FormPage} com N utilizadores em simultâneo, cada um com o seu Chrome headless, contra o
+ * stand-in local ({@link SignupSite}), nunca contra a demo pública.
+ * <p>
+ * Passos medidos por iteração: open, fill, submit e notification; série temporal em target/load/signup.csv
+ * (ver {@link LoadRunner} para utilizadores, ramp-up, think time e duração).
+ * Só corre com {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class SignupLoadTest {
+
+    private static final BrowserConfig CONFIG = BrowserConfig.defaults().withTimeout(8000);
+
+    @Test
+    public void concurrentSignups() throws Exception {
+        long acceptedBefore = SignupSite.accepted();
+
+        LoadRunner.Report report = LoadRunner.configured().run("signup", SignupUser::new);
+        report.write();
+
+        assertTrue(report.activeUsers() > 0, "No virtual user could launch a browser");
+        assertTrue(report.count("notification") > 0, "No signup completed");
+        // every notification the users saw must be a signup the server stored
+        assertEquals(report.count("notification"), SignupSite.accepted() - acceptedBefore);
+    }
+
+    private static final class SignupUser implements LoadRunner.VirtualUser {
+        private final int user;
+        private final WebDriver driver;
+        private final FormPage form;
+        private final AtomicInteger iteration = new AtomicInteger();
+
+        SignupUser(int user) {
+            this.user = user;
+            this.driver = BrowserFactory.launch(BrowserFactory.Profile.FAST_HEADLESS);
+            this.form = new FormPage(new SelenideDriver(CONFIG.toSelenideConfig(), driver, null));
+        }
+
+        @Override
+        public void iteration(LoadRunner.Steps steps) throws Exception {
+            String handle = "user" + user + "-" + iteration.incrementAndGet();
+            Map<FormPage.Field, String> values = new EnumMap<>(FormPage.Field.class);
+            values.put(FormPage.Field.FIRST_NAME, "Carga" + user);
+            values.put(FormPage.Field.LAST_NAME, "Silva");
+            values.put(FormPage.Field.USER_HANDLE, handle);
+            values.put(FormPage.Field.WANTED_PASSWORD, "SenhaFort3!");
+            values.put(FormPage.Field.PASSWORD_AGAIN, "SenhaFort3!");
+
+            steps.time("open", () -> form.openUrl(SignupSite.url(), Milestone.DOM_CONTENT_LOADED));
+            steps.time("fill", () -> form.fill(values, true));
+            steps.time("submit", form::submit);
+            steps.time("notification", () -> {
+                String text = form.waitAndGetNotificationText();
+                if (!text.startsWith("Data saved, welcome Carga" + user)) {
+                    throw new IllegalStateException("Notificação inesperada para " + handle + ": " + text);
+                }
+            });
+        }
+
+        @Override
+        public void close() {
+            driver.quit();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package support;
+
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestPlan;
+import org.openqa.selenium.json.Json;
+import support.stub.Bookstore;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Test data for the Bookstore created, listed and deleted over HTTP in bulk, so UI tests only drive the step they
+ * assert on instead of clicking their preconditions into existence.
+ * <pre>
+ * List&lt;BookstoreSeeder.Category&gt; seeded = BookstoreSeeder.shared().categories("Romance", "Poesia");
+ * </pre>
+ * {@link #shared()} talks to the local stand-in ({@link Bookstore}). Everything a seeder created is remembered and
+ * removed by {@link #cleanup()} with one request per collection; for the shared seeder that happens once, at the end
+ * of the suite ({@link Cleanup}).
+ */
+public final class BookstoreSeeder {
+
+    public record Category(long id, String name) {
+    }
+
+    public record Book(long id, String title, String author, double price, List<Long> categories) {
+
+        /** A book still to be created; the id is assigned by the backend. */
+        public static Book draft(String title, String author, double price, Category... categories) {
+            return new Book(0, title, author, price, Arrays.stream(categories).map(Category::id).toList());
+        }
+    }
+
+    // ids per DELETE request, keeps the query string short
+    private static final int DELETE_BATCH = 500;
+    private static final Json JSON = new Json();
+
+    private static volatile BookstoreSeeder shared;
+
+    private final String api;
+    private final HttpClient http = HttpClient.newHttpClient();
+    private final Set<Long> createdCategories = ConcurrentHashMap.newKeySet();
+    private final Set<Long> createdBooks = ConcurrentHashMap.newKeySet();
+
+    /** @param api base URL of the REST API, e.g. {@code http://127.0.0.1:1234/api} */
+    public BookstoreSeeder(String api) {
+        this.api = api.replaceAll("/$", "");
+    }
+
+    public static BookstoreSeeder shared() {
+        if (shared == null) {
+            synchronized (BookstoreSeeder.class) {
+                if (shared == null) shared = new BookstoreSeeder(Bookstore.baseUrl() + "/api");
+            }
+        }
+        return shared;
+    }
+
+    public List<Category> categories(String... names) {
+        return categories(Arrays.asList(names));
+    }
+
+    /** Creates all categories in one request. */
+    public List<Category> categories(Collection<String> names) {
+        List<Map<String, Object>> body = names.stream().map(n -> Map.<String, Object>of("name", n)).toList();
+        List<Category> created = list("POST", "/categories", body).stream().map(BookstoreSeeder::category).toList();
+        created.forEach(c -> createdCategories.add(c.id()));
+        return created;
+    }
+
+    /** Creates all books in one request; ids of the drafts are ignored. */
+    public List<Book> books(Collection<Book> drafts) {
+        List<Map<String, Object>> body = drafts.stream().map(b -> {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("title", b.title());
+            m.put("author", b.author());
+            m.put("price", b.price());
+            m.put("categories", b.categories());
+            return m;
+        }).toList();
+        List<Book> created = list("POST", "/books", body).stream().map(BookstoreSeeder::book).toList();
+        created.forEach(b -> createdBooks.add(b.id()));
+        return created;
+    }
+
+    public List<Category> listCategories() {
+        return list("GET", "/categories", null).stream().map(BookstoreSeeder::category).toList();
+    }
+
+    public List<Book> listBooks() {
+        return list("GET", "/books", null).stream().map(BookstoreSeeder::book).toList();
+    }
+
+    /** Deletes the categories (created by anyone, e.g. through the UI) in batches; returns how many existed. */
+    public long deleteCategories(Collection<Long> ids) {
+        createdCategories.removeAll(ids);
+        return delete("/categories", ids);
+    }
+
+    public long deleteBooks(Collection<Long> ids) {
+        createdBooks.removeAll(ids);
+        return delete("/books", ids);
+    }
+
+    /** Deletes everything this seeder created and not deleted yet: books first, then their categories. */
+    public void cleanup() {
+        long books = deleteBooks(List.copyOf(createdBooks));
+        long categories = deleteCategories(List.copyOf(createdCategories));
+        if (books + categories > 0) {
+            System.out.println("[seeder] cleanup removed " + books + " book(s) and " + categories + " category(ies)");
+        }
+    }
+
+    private long delete(String path, Collection<Long> ids) {
+        List<Long> all = new ArrayList<>(ids);
+        long deleted = 0;
+        for (int from = 0; from < all.size(); from += DELETE_BATCH) {
+            String batch = all.subList(from, Math.min(all.size(), from + DELETE_BATCH)).stream()
+                    .map(String::valueOf).collect(Collectors.joining(","));
+            deleted += ((Number) object("DELETE", path + "?ids=" + batch, null).get("deleted")).longValue();
+        }
+        return deleted;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> list(String method, String path, Object body) {
+        return (List<Map<String, Object>>) call(method, path, body);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> object(String method, String path, Object body) {
+        return (Map<String, Object>) call(method, path, body);
+    }
+
+    private Object call(String method, String path, Object body) {
+        HttpRequest.BodyPublisher publisher = body == null
+                ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(JSON.toJson(body));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(api + path))
+                .header("Content-Type", "application/json")
+                .method(method, publisher)
+                .build();
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() / 100 != 2) {
+                throw new IllegalStateException(method + " " + path + " failed with " + response.statusCode() + ": " + response.body());
+            }
+            return JSON.toType(response.body(), Object.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(method + " " + api + path, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during " + method + " " + path, e);
+        }
+    }
+
+    private static Category category(Map<String, Object> m) {
+        return new Category(((Number) m.get("id")).longValue(), (String) m.get("name"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Book book(Map<String, Object> m) {
+        List<Object> categories = (List<Object>) m.getOrDefault("categories", List.of());
+        return new Book(((Number) m.get("id")).longValue(), (String) m.get("title"), (String) m.get("author"),
+                m.get("price") instanceof Number p ? p.doubleValue() : 0,
+                categories.stream().map(c -> ((Number) c).longValue()).toList());
+    }
+
+    /** Batch cleanup of the shared seeder once the whole test plan finished (registered in META-INF/services). */
+    public static final class Cleanup implements TestExecutionListener {
+        @Override
+        public void testPlanExecutionFinished(TestPlan testPlan) {
+            BookstoreSeeder seeder = shared;
+            if (seeder == null) return;
+            try {
+                seeder.cleanup();
+            } catch (RuntimeException e) {
+                System.out.println("[seeder] cleanup failed: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package support;
+
+import org.junit.jupiter.api.Test;
+import support.stub.Bookstore;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookstoreSeederTest {
+
+    private final BookstoreSeeder seeder = BookstoreSeeder.shared();
+
+    @Test
+    public void createsCategoriesAndBooksInBulk() {
+        List<BookstoreSeeder.Category> categories = seeder.categories("Romance", "Poesia");
+        List<BookstoreSeeder.Book> books = seeder.books(List.of(
+                BookstoreSeeder.Book.draft("Os Maias", "Eça de Queirós", 12.5, categories.get(0)),
+                BookstoreSeeder.Book.draft("Mensagem", "Fernando Pessoa", 9.9, categories.get(1))));
+
+        assertEquals(List.of("Romance", "Poesia"), categories.stream().map(BookstoreSeeder.Category::name).toList());
+        assertTrue(categories.get(0).id() > 0 && categories.get(1).id() > categories.get(0).id());
+        assertEquals(List.of(categories.get(0).id()), books.get(0).categories());
+        assertTrue(seeder.listCategories().containsAll(categories));
+        assertTrue(seeder.listBooks().containsAll(books));
+    }
+
+    @Test
+    public void deletesInBatchesAndReportsWhatExisted() {
+        List<BookstoreSeeder.Category> many = seeder.categories(IntStream.range(0, 1200).mapToObj(i -> "Lote " + i).toList());
+        List<Long> ids = many.stream().map(BookstoreSeeder.Category::id).toList();
+
+        assertEquals(1200, seeder.deleteCategories(ids));
+        assertEquals(0, seeder.deleteCategories(ids));
+        assertTrue(seeder.listCategories().stream().noneMatch(many::contains));
+    }
+
+    @Test
+    public void cleanupRemovesOnlyWhatTheSeederCreated() {
+        BookstoreSeeder other = new BookstoreSeeder(Bookstore.baseUrl() + "/api/");
+        BookstoreSeeder.Category kept = seeder.categories("Fica").get(0);
+        BookstoreSeeder.Category removed = other.categories("Sai").get(0);
+
+        other.cleanup();
+
+        List<BookstoreSeeder.Category> left = seeder.listCategories();
+        assertTrue(left.contains(kept));
+        assertFalse(left.contains(removed));
+    }
+
+    @Test
+    public void rejectsItemsWithoutTheirRequiredField() {
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> seeder.categories("Válida", " "));
+        assertTrue(e.getMessage().contains("400"), e.getMessage());
+        assertTrue(seeder.listCategories().stream().noneMatch(c -> c.name().equals("Válida")), "nothing stored on a bad batch");
+    }
+}
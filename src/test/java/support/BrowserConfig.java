@@ -0,0 +1,75 @@
+package support;
+
+import com.codeborne.selenide.SelenideConfig;
+
+/**
+ * Immutable browser settings for one test session.
+ * <p>
+ * Replaces writing to the global {@code com.codeborne.selenide.Configuration} statics, which is not safe once tests
+ * run in parallel: every worker builds its own {@code SelenideDriver} from one of these.
+ */
+public final class BrowserConfig {
+
+    private final String browser;
+    private final String browserSize;
+    private final String browserPosition;
+    private final long timeoutMs;
+
+    private BrowserConfig(String browser, String browserSize, String browserPosition, long timeoutMs) {
+        this.browser = browser;
+        this.browserSize = browserSize;
+        this.browserPosition = browserPosition;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /** Same defaults Selenide uses when nothing is configured. */
+    public static BrowserConfig defaults() {
+        return new BrowserConfig("chrome", "1366x768", null, 4000);
+    }
+
+    public static BrowserConfig from(SelenideSettings settings) {
+        BrowserConfig config = defaults();
+        if (settings == null) return config;
+        return config.withBrowser(settings.browser())
+                .withBrowserSize(settings.browserSize())
+                .withBrowserPosition(settings.browserPosition().isEmpty() ? null : settings.browserPosition())
+                .withTimeout(settings.timeout());
+    }
+
+    public BrowserConfig withBrowser(String browser) {
+        return new BrowserConfig(browser, browserSize, browserPosition, timeoutMs);
+    }
+
+    public BrowserConfig withBrowserSize(String browserSize) {
+        return new BrowserConfig(browser, browserSize, browserPosition, timeoutMs);
+    }
+
+    public BrowserConfig withBrowserPosition(String browserPosition) {
+        return new BrowserConfig(browser, browserSize, browserPosition, timeoutMs);
+    }
+
+    public BrowserConfig withTimeout(long timeoutMs) {
+        return new BrowserConfig(browser, browserSize, browserPosition, timeoutMs);
+    }
+
+    public String browser() { return browser; }
+    public String browserSize() { return browserSize; }
+    public String browserPosition() { return browserPosition; }
+    public long timeoutMs() { return timeoutMs; }
+
+    /** A fresh (mutable) Selenide config owned by a single {@code SelenideDriver}. */
+    public SelenideConfig toSelenideConfig() {
+        SelenideConfig config = new SelenideConfig()
+                .browser(browser)
+                .browserSize(browserSize)
+                .timeout(timeoutMs);
+        if (browserPosition != null) config.browserPosition(browserPosition);
+        return config;
+    }
+
+    @Override
+    public String toString() {
+        return "BrowserConfig{browser=" + browser + ", size=" + browserSize + ", position=" + browserPosition
+                + ", timeout=" + timeoutMs + "ms}";
+    }
+}
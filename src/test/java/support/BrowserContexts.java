@@ -0,0 +1,133 @@
+package support;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.Connection;
+import org.openqa.selenium.devtools.SeleniumCdpConnection;
+import org.openqa.selenium.json.Json;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+
+/**
+ * Session mode where one browser per worker hosts every test of that worker, each in its own DevTools browser context
+ * ({@code Target.createBrowserContext}): separate cookies, storage and cache like a fresh profile, without a new
+ * Chrome process per test.
+ * <p>
+ * Enabled with {@code -Dpiloto.session.mode=contexts} (default {@code process}). {@link BrowserSession} opens a context
+ * and a tab in it when a test checks a browser out, switches the driver to that tab (so raw {@code WebDriver} tests and
+ * Selenide page objects need no change) and disposes the context when the test ends. Browsers without DevTools, or a
+ * Chrome that refuses, stay in the per-process mode. Memory per concurrent test in either mode: {@link SessionMemory}.
+ */
+public final class BrowserContexts {
+
+    private static final boolean ENABLED = "contexts".equalsIgnoreCase(System.getProperty("piloto.session.mode", "process").trim());
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    // browser-level connection per raw driver; empty once the browser turned out not to support contexts
+    private static final Map<WebDriver, Optional<Browser>> BROWSERS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private BrowserContexts() {
+    }
+
+    public static boolean enabled() {
+        return ENABLED;
+    }
+
+    /** {@code contexts} or {@code process}, for reports. */
+    public static String mode() {
+        return ENABLED ? "contexts" : "process";
+    }
+
+    /**
+     * Opens a fresh browser context with one tab and switches {@code driver} to it.
+     *
+     * @return false when the driver stays in its own (default) context
+     */
+    static boolean enter(WebDriver driver) {
+        if (!ENABLED) return false;
+        WebDriver raw = Cdp.unwrap(driver);
+        Optional<Browser> browser;
+        synchronized (BROWSERS) {
+            browser = BROWSERS.computeIfAbsent(raw, BrowserContexts::connect);
+        }
+        if (browser.isEmpty()) return false;
+        try {
+            browser.get().enter(raw);
+            return true;
+        } catch (RuntimeException e) {
+            System.out.println("[contexts] falling back to one process per test: " + e.getMessage());
+            browser.get().leave(raw);
+            BROWSERS.put(raw, Optional.empty());
+            return false;
+        }
+    }
+
+    /** Closes the test's context (its tabs, cookies and storage) and switches back to the browser's first tab. */
+    static void leave(WebDriver driver) {
+        WebDriver raw = Cdp.unwrap(driver);
+        Optional<Browser> browser = BROWSERS.getOrDefault(raw, Optional.empty());
+        browser.ifPresent(b -> b.leave(raw));
+    }
+
+    /** Drops the browser-level connection of a driver that is being quit. */
+    static void quitting(WebDriver driver) {
+        Optional<Browser> browser = BROWSERS.remove(Cdp.unwrap(driver));
+        if (browser != null) browser.ifPresent(b -> b.connection.close());
+    }
+
+    private static Optional<Browser> connect(WebDriver raw) {
+        try {
+            return SeleniumCdpConnection.create(raw).map(c -> new Browser(c, raw.getWindowHandle()));
+        } catch (RuntimeException e) {
+            System.out.println("[contexts] no DevTools connection, one process per test: " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /** A browser-level DevTools connection (commands without a session go to the browser target, not a tab). */
+    private static final class Browser {
+        private final Connection connection;
+        private final String home;
+        private volatile String context;
+
+        Browser(Connection connection, String home) {
+            this.connection = connection;
+            this.home = home;
+        }
+
+        void enter(WebDriver raw) {
+            context = Cdp.string(send("Target.createBrowserContext", Map.of("disposeOnDetach", false)), "browserContextId");
+            String target = Cdp.string(send("Target.createTarget", Map.of("url", "about:blank", "browserContextId", context)), "targetId");
+            // chromedriver's window handles are the DevTools target ids
+            raw.switchTo().window(target);
+            Cdp.retarget(raw, target);
+        }
+
+        void leave(WebDriver raw) {
+            String ctx = context;
+            if (ctx == null) return;
+            context = null;
+            try {
+                raw.switchTo().window(home);
+                Cdp.retarget(raw, home);
+            } catch (RuntimeException e) {
+                System.out.println("[contexts] could not switch back to the first tab: " + e.getMessage());
+            }
+            try {
+                // closes every tab and popup of the context along with it
+                send("Target.disposeBrowserContext", Map.of("browserContextId", ctx));
+            } catch (RuntimeException e) {
+                System.out.println("[contexts] could not dispose " + ctx + ": " + e.getMessage());
+            }
+        }
+
+        private Map<String, Object> send(String method, Map<String, Object> params) {
+            Map<String, Object> result = connection.sendAndWait(null, new Command<>(method, params, Json.MAP_TYPE), TIMEOUT);
+            return result == null ? Map.of() : result;
+        }
+    }
+}
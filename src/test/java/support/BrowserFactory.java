@@ -0,0 +1,187 @@
+package support;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.firefox.GeckoDriverService;
+import org.openqa.selenium.remote.service.DriverService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.WeakHashMap;
+
+/**
+ * The one place where browsers are launched (used by {@link DriverPool}); Chrome preferred, Firefox fallback.
+ * <p>
+ * Named launch profiles, chosen with {@code -Dpiloto.browser.profile=fast-headless|debug-headed|parity}:
+ * <ul>
+ *     <li>{@link Profile#FAST_HEADLESS} - headless, no images, extensions, GPU or background networking</li>
+ *     <li>{@link Profile#DEBUG_HEADED} - visible, maximized window to watch a test run</li>
+ *     <li>{@link Profile#PARITY} - visible browser with default rendering, closest to a real user (default)</li>
+ * </ul>
+ * Sessions of {@link Profile#FAST_HEADLESS} use the {@code eager} page-load strategy ({@code get} returns at
+ * DOMContentLoaded; pages that need more wait with {@link PageReadiness}); the others keep {@code normal}.
+ * {@code -Dpiloto.browser.pageLoad=eager|normal} overrides it for every profile.
+ * <p>
+ * Launch-to-ready time of every launch is appended to {@code target/browser-launch/launch-times.csv}, so the
+ * cheapest profile that still passes can be picked from a few runs.
+ */
+public final class BrowserFactory {
+
+    public enum Profile {
+        FAST_HEADLESS, DEBUG_HEADED, PARITY;
+
+        /** Accepts {@code fast-headless}, {@code FAST_HEADLESS}, ... */
+        public static Profile parse(String name) {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+    }
+
+    private static final Path OUT = Path.of("target", "browser-launch", "launch-times.csv");
+    private static final Map<WebDriver, Long> PIDS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private BrowserFactory() {
+    }
+
+    /** Profile selected by {@code piloto.browser.profile} (default {@link Profile#PARITY}). */
+    public static Profile configuredProfile() {
+        return Profile.parse(System.getProperty("piloto.browser.profile", "parity"));
+    }
+
+    public static WebDriver launch() {
+        return launch(configuredProfile());
+    }
+
+    public static WebDriver launch(Profile profile) {
+        return launch(profile, "chrome");
+    }
+
+    /**
+     * Launches {@code browser} ({@code chrome} or {@code firefox}, e.g. from {@link BrowserConfig#browser()}).
+     * Chrome falls back to Firefox when it cannot start; an explicit Firefox request does not fall back.
+     */
+    public static WebDriver launch(Profile profile, String browser) {
+        long start = System.nanoTime();
+        String requested = browser.trim().toLowerCase(Locale.ROOT);
+        if (!requested.equals("chrome") && !requested.equals("firefox")) {
+            throw new IllegalArgumentException("Unsupported browser '" + browser + "' (chrome or firefox)");
+        }
+        WebDriver driver = null;
+        DriverService service = null;
+        Throwable chromeFailure = null;
+        if (requested.equals("chrome")) {
+            try {
+                WebDriverManager.chromedriver().setup();
+                service = new ChromeDriverService.Builder().usingAnyFreePort().build();
+                driver = new ChromeDriver((ChromeDriverService) service, chromeOptions(profile));
+            } catch (Throwable t) {
+                chromeFailure = t;
+            }
+        }
+        if (driver == null) {
+            try {
+                WebDriverManager.firefoxdriver().setup();
+                service = new GeckoDriverService.Builder().usingAnyFreePort().build();
+                driver = new FirefoxDriver((GeckoDriverService) service, firefoxOptions(profile));
+            } catch (Throwable t2) {
+                if (chromeFailure != null) t2.addSuppressed(chromeFailure);
+                throw new RuntimeException("Failed to initialize a " + requested + " WebDriver (profile " + profile + ")", t2);
+            }
+        }
+        long launched = System.nanoTime();
+        Optional<Long> pid = driverPid(service.getUrl().getPort());
+        if (pid.isPresent()) {
+            PIDS.put(driver, pid.get());
+            SessionGovernor.shared().track(driver, pid.get());
+        }
+        // ready = the browser answers its first command
+        driver.getWindowHandle();
+        long ready = System.nanoTime();
+        record(profile, driver instanceof FirefoxDriver ? "firefox" : "chrome", launched - start, ready - start);
+        return driver;
+    }
+
+    /**
+     * Pid of the driver process (chromedriver / geckodriver) behind {@code driver}; the browser and its helper processes
+     * are its descendants (see {@link ProcessTree}). Empty for drivers not launched here.
+     */
+    public static OptionalLong driverPid(WebDriver driver) {
+        Long pid = PIDS.get(Cdp.unwrap(driver));
+        return pid == null ? OptionalLong.empty() : OptionalLong.of(pid);
+    }
+
+    // the driver service is a child of this JVM started with --port=<its port>
+    private static Optional<Long> driverPid(int port) {
+        String flag = "--port=" + port;
+        return ProcessHandle.current().children()
+                .filter(p -> p.info().arguments().map(args -> Arrays.asList(args).contains(flag)).orElse(false))
+                .map(ProcessHandle::pid)
+                .findFirst();
+    }
+
+    static PageLoadStrategy pageLoadStrategy(Profile profile) {
+        String configured = System.getProperty("piloto.browser.pageLoad");
+        if (configured != null) return PageLoadStrategy.fromString(configured.trim().toLowerCase(Locale.ROOT));
+        return profile == Profile.FAST_HEADLESS ? PageLoadStrategy.EAGER : PageLoadStrategy.NORMAL;
+    }
+
+    static ChromeOptions chromeOptions(Profile profile) {
+        ChromeOptions options = new ChromeOptions();
+        options.setPageLoadStrategy(pageLoadStrategy(profile));
+        options.addArguments("--remote-allow-origins=*");
+        options.addArguments("--no-sandbox", "--disable-dev-shm-usage");
+        switch (profile) {
+            case FAST_HEADLESS -> {
+                options.addArguments("--headless=new", "--disable-gpu", "--disable-extensions",
+                        "--blink-settings=imagesEnabled=false", "--disable-background-networking",
+                        "--disable-component-update", "--disable-default-apps", "--disable-sync",
+                        "--no-first-run", "--mute-audio", "--window-size=1920,1080");
+                options.setExperimentalOption("prefs", Map.of(
+                        "profile.managed_default_content_settings.images", 2));
+            }
+            case DEBUG_HEADED -> options.addArguments("--start-maximized");
+            case PARITY -> options.addArguments("--disable-gpu");
+        }
+        return options;
+    }
+
+    static FirefoxOptions firefoxOptions(Profile profile) {
+        FirefoxOptions options = new FirefoxOptions();
+        options.setPageLoadStrategy(pageLoadStrategy(profile));
+        if (profile == Profile.FAST_HEADLESS) {
+            options.addArguments("-headless");
+            options.addPreference("permissions.default.image", 2);
+            options.addPreference("extensions.enabled", false);
+            options.addPreference("network.prefetch-next", false);
+            options.addPreference("app.update.enabled", false);
+        }
+        return options;
+    }
+
+    private static synchronized void record(Profile profile, String browser, long launchNanos, long readyNanos) {
+        long launchMs = launchNanos / 1_000_000L, readyMs = readyNanos / 1_000_000L;
+        System.out.println("[browser] " + profile + " " + browser + " ready in " + readyMs + " ms");
+        try {
+            Files.createDirectories(OUT.getParent());
+            if (!Files.exists(OUT)) Files.writeString(OUT, "timestamp,profile,browser,launchMs,readyMs\n");
+            Files.writeString(OUT, Instant.now() + "," + profile + "," + browser + "," + launchMs + "," + readyMs + "\n",
+                    StandardOpenOption.APPEND);
+        } catch (IOException ioe) {
+            System.out.println("Could not write launch times: " + ioe.getMessage());
+        }
+    }
+}
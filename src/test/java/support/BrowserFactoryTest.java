@@ -0,0 +1,42 @@
+package support;
+
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BrowserFactoryTest {
+
+    @Test
+    public void parsesProfileNames() {
+        assertEquals(BrowserFactory.Profile.FAST_HEADLESS, BrowserFactory.Profile.parse("fast-headless"));
+        assertEquals(BrowserFactory.Profile.DEBUG_HEADED, BrowserFactory.Profile.parse(" DEBUG_HEADED "));
+        assertEquals(BrowserFactory.Profile.PARITY, BrowserFactory.Profile.parse("parity"));
+        assertThrows(IllegalArgumentException.class, () -> BrowserFactory.Profile.parse("turbo"));
+    }
+
+    @Test
+    public void onlyFastHeadlessRunsHeadlessWithoutImages() {
+        assertTrue(args(BrowserFactory.Profile.FAST_HEADLESS).contains("--headless=new"));
+        assertTrue(args(BrowserFactory.Profile.FAST_HEADLESS).contains("--blink-settings=imagesEnabled=false"));
+        assertFalse(args(BrowserFactory.Profile.PARITY).contains("--headless=new"));
+        assertFalse(args(BrowserFactory.Profile.DEBUG_HEADED).contains("--headless=new"));
+    }
+
+    @Test
+    public void onlyFastHeadlessLoadsPagesEagerly() {
+        assertEquals(PageLoadStrategy.EAGER, BrowserFactory.chromeOptions(BrowserFactory.Profile.FAST_HEADLESS).getCapability("pageLoadStrategy"));
+        assertEquals(PageLoadStrategy.NORMAL, BrowserFactory.chromeOptions(BrowserFactory.Profile.PARITY).getCapability("pageLoadStrategy"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> args(BrowserFactory.Profile profile) {
+        ChromeOptions options = BrowserFactory.chromeOptions(profile);
+        Map<String, Object> chrome = (Map<String, Object>) options.asMap().get(ChromeOptions.CAPABILITY);
+        return (List<String>) chrome.get("args");
+    }
+}
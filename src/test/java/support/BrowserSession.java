@@ -0,0 +1,104 @@
+package support;
+
+import com.codeborne.selenide.SelenideDriver;
+import com.codeborne.selenide.WebDriverRunner;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * A pooled browser confined to the thread (worker) that opened it, plus the immutable {@link BrowserConfig} and the
+ * {@link SelenideDriver} built from it.
+ * <p>
+ * Page objects that are created without an explicit driver pick up {@link #current()}, so each parallel worker
+ * drives its own browser with its own settings.
+ */
+public final class BrowserSession {
+
+    private static final ThreadLocal<BrowserSession> CURRENT = new ThreadLocal<>();
+
+    private final String testName;
+    private final WebDriver pooled;
+    private final WebDriver driver;
+    private final BrowserConfig config;
+    private final SelenideDriver selenide;
+
+    private BrowserSession(String testName, WebDriver pooled, BrowserConfig config) {
+        this.testName = testName;
+        this.pooled = pooled;
+        // tests and Selenide get the instrumented driver; the pool keeps (and resets) the raw one
+        this.driver = CommandLatency.instrument(TestImpact.instrument(
+                SessionGovernor.shared().instrument(pooled, RequestBlocker.instrument(pooled), testName)));
+        this.config = config;
+        this.selenide = new SelenideDriver(config.toSelenideConfig(), driver, null);
+    }
+
+    /**
+     * Checks a browser out of {@link DriverPool}, enters a fresh {@link BrowserContexts browser context} when that mode
+     * is on, applies the window settings and makes it current for this thread.
+     */
+    public static BrowserSession open(String testName, BrowserConfig config) {
+        BrowserSession previous = CURRENT.get();
+        if (previous != null) previous.close();
+
+        WebDriver driver = DriverPool.shared().checkout(testName, config.browser());
+        // -Dpiloto.session.mode=contexts: the test gets its own browser context and tab in the pooled browser
+        BrowserContexts.enter(driver);
+        applyWindow(driver, config);
+        BrowserSession session = new BrowserSession(testName, driver, config);
+        HttpReplay.start(driver, testName);
+        SessionMemory.opened(driver);
+        CURRENT.set(session);
+        // keep the static Selenide API ($, open, ...) pointed at the same thread-local browser
+        WebDriverRunner.setWebDriver(session.driver);
+        return session;
+    }
+
+    public static BrowserSession current() {
+        BrowserSession session = CURRENT.get();
+        if (session == null) {
+            throw new IllegalStateException("No browser session on thread " + Thread.currentThread().getName()
+                    + " - use @ExtendWith(DriverPoolExtension.class) or BrowserSession.open(...)");
+        }
+        return session;
+    }
+
+    /** Name of the test running on this thread (falls back to the thread name outside a session); used by reports. */
+    public static String currentTestName() {
+        BrowserSession session = CURRENT.get();
+        return session != null ? session.testName : Thread.currentThread().getName();
+    }
+
+    public WebDriver driver() { return driver; }
+    public SelenideDriver selenide() { return selenide; }
+    public BrowserConfig config() { return config; }
+    public String testName() { return testName; }
+
+    /** Gives the browser back to the pool. */
+    public void close() {
+        if (CURRENT.get() == this) CURRENT.remove();
+        SessionMemory.closing(testName, pooled);
+        HttpReplay.stop(pooled);
+        BrowserContexts.leave(pooled);
+        DriverPool.shared().release(testName, pooled);
+    }
+
+    private static void applyWindow(WebDriver driver, BrowserConfig config) {
+        try {
+            String size = config.browserSize();
+            if (size != null && size.matches("\\d+x\\d+")) {
+                String[] wh = size.split("x");
+                driver.manage().window().setSize(new Dimension(Integer.parseInt(wh[0]), Integer.parseInt(wh[1])));
+            } else {
+                driver.manage().window().maximize();
+            }
+            String position = config.browserPosition();
+            if (position != null && position.matches("\\d+x\\d+")) {
+                String[] xy = position.split("x");
+                driver.manage().window().setPosition(new Point(Integer.parseInt(xy[0]), Integer.parseInt(xy[1])));
+            }
+        } catch (Exception ignored) {
+            // headless / remote windows may refuse resizing - best-effort only
+        }
+    }
+}
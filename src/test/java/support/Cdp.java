@@ -0,0 +1,83 @@
+package support;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Raw Chrome DevTools Protocol commands and events by name, with JSON maps as parameters and payloads, so the support
+ * classes do not depend on one generated {@code devtools-vNNN} API and keep working when Chrome moves on.
+ */
+final class Cdp {
+
+    private static final List<Consumer<WebDriver>> RETARGET = new CopyOnWriteArrayList<>();
+
+    private Cdp() {
+    }
+
+    /** Registers per-driver DevTools state (listeners, enabled domains) to drop when the session moves to another tab. */
+    static void onRetarget(Consumer<WebDriver> forget) {
+        RETARGET.add(forget);
+    }
+
+    /**
+     * Moves the DevTools session of {@code driver} to the tab {@code windowHandle}: listeners of the old tab are cleared
+     * and every helper registered with {@link #onRetarget} re-attaches on its next use.
+     */
+    static void retarget(WebDriver driver, String windowHandle) {
+        WebDriver raw = unwrap(driver);
+        RETARGET.forEach(forget -> forget.accept(raw));
+        if (!(raw instanceof HasDevTools hasDevTools)) return;
+        DevTools devTools = hasDevTools.getDevTools();
+        devTools.clearListeners();
+        devTools.createSession(windowHandle);
+    }
+
+    /** The DevTools session of {@code driver} (unwrapping decorators), or empty for Firefox / remote drivers. */
+    static Optional<DevTools> session(WebDriver driver) {
+        if (!(unwrap(driver) instanceof HasDevTools hasDevTools)) return Optional.empty();
+        try {
+            DevTools devTools = hasDevTools.getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            return Optional.of(devTools);
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+    }
+
+    /** The browser driver under any {@code EventFiringDecorator} layers. */
+    static WebDriver unwrap(WebDriver driver) {
+        WebDriver raw = driver;
+        while (raw instanceof WrapsDriver wraps) raw = wraps.getWrappedDriver();
+        return raw;
+    }
+
+    static Map<String, Object> send(DevTools devTools, String method, Map<String, Object> params) {
+        Map<String, Object> result = devTools.send(new Command<>(method, params, Json.MAP_TYPE));
+        return result == null ? Map.of() : result;
+    }
+
+    static void on(DevTools devTools, String event, Consumer<Map<String, Object>> listener) {
+        devTools.addListener(new Event<Map<String, Object>>(event, in -> in.read(Json.MAP_TYPE)), listener);
+    }
+
+    static String string(Map<String, Object> json, String key) {
+        Object v = json.get(key);
+        return v == null ? "" : v.toString();
+    }
+
+    static long number(Map<String, Object> json, String key) {
+        Object v = json.get(key);
+        return v instanceof Number n ? n.longValue() : 0L;
+    }
+}
@@ -0,0 +1,96 @@
+package support;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.ElementClickInterceptedException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchWindowException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+
+/**
+ * Click helpers that survive overlays (cookie banners, chat widgets): native click first, JavaScript click when an
+ * overlay intercepts it. Moved out of {@code MainPageTest} so the benchmarks can measure them too.
+ */
+public final class Clicks {
+
+    private final WebDriver driver;
+    private final WebDriverWait wait;
+
+    private Clicks(WebDriver driver, Duration timeout) {
+        this.driver = driver;
+        this.wait = new WebDriverWait(driver, timeout);
+    }
+
+    public static Clicks of(WebDriver driver, Duration timeout) {
+        return new Clicks(driver, timeout);
+    }
+
+    /**
+     * Waits until clickable and clicks; falls back to a JavaScript click when intercepted.
+     * A closed window is rethrown with a clearer message.
+     */
+    public void click(WebElement el) {
+        try {
+            wait.until(ExpectedConditions.elementToBeClickable(el));
+            el.click();
+        } catch (ElementClickInterceptedException ex) {
+            // fallback to JS click when an overlay intercepts the click
+            try {
+                js().executeScript("arguments[0].click();", el);
+            } catch (WebDriverException wde) {
+                // if the window got closed while trying to click, rethrow with a clearer message
+                if (wde instanceof NoSuchWindowException) {
+                    throw new RuntimeException("Browser window was closed while attempting to click element", wde);
+                }
+                throw wde;
+            }
+        } catch (WebDriverException wde) {
+            // handle cases where the browser window/session is gone
+            if (wde instanceof NoSuchWindowException) {
+                throw new RuntimeException("Browser window already closed or not available during click", wde);
+            }
+            throw wde;
+        }
+    }
+
+    /**
+     * Best-effort click that never throws: native click, then scroll + JavaScript click, then {@code unblock}
+     * (e.g. remove consent overlays) and one more try.
+     */
+    public void safeClick(By by, Runnable unblock) {
+        try {
+            WebElement el = wait.until(ExpectedConditions.elementToBeClickable(by));
+            try {
+                el.click();
+                return;
+            } catch (ElementClickInterceptedException e) {
+                // tentar remover overlays e clicar via JavaScript
+                try {
+                    js().executeScript("arguments[0].scrollIntoView(true);", el);
+                    js().executeScript("arguments[0].click();", el);
+                    return;
+                } catch (Exception ignored) {}
+
+                // tentar remover overlays e tentar novamente
+                unblock.run();
+                try {
+                    el = wait.until(ExpectedConditions.elementToBeClickable(by));
+                    el.click();
+                } catch (Exception ex) {
+                    // último recurso: clicar via JS
+                    try { js().executeScript("arguments[0].click();", el); } catch (Exception ignored) {}
+                }
+            }
+        } catch (Exception ignored) {
+        }
+    }
+
+    private JavascriptExecutor js() {
+        return (JavascriptExecutor) driver;
+    }
+}
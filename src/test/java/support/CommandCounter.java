@@ -0,0 +1,49 @@
+package support;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the WebDriver commands (browser round trips) issued through a decorated driver; used by the benchmarks.
+ * <pre>
+ * CommandCounter counter = new CommandCounter();
+ * WebDriver counted = counter.decorate(driver);
+ * ... counter.reset(); work(counted); int roundTrips = counter.count();
+ * </pre>
+ */
+public final class CommandCounter implements WebDriverListener {
+
+    // methods that only hand back local helper objects (Options, TargetLocator, ...) and never reach the browser
+    private static final Set<String> LOCAL_CALLS = Set.of("manage", "switchTo", "navigate", "getWrappedDriver",
+            "getWrappedElement", "toString", "hashCode", "equals");
+
+    private final AtomicInteger commands = new AtomicInteger();
+
+    public WebDriver decorate(WebDriver driver) {
+        return new EventFiringDecorator<>(this).decorate(driver);
+    }
+
+    public void reset() {
+        commands.set(0);
+    }
+
+    public int count() {
+        return commands.get();
+    }
+
+    @Override
+    public void beforeAnyWebDriverCall(WebDriver driver, Method method, Object[] args) {
+        if (!LOCAL_CALLS.contains(method.getName())) commands.incrementAndGet();
+    }
+
+    @Override
+    public void beforeAnyWebElementCall(WebElement element, Method method, Object[] args) {
+        if (!LOCAL_CALLS.contains(method.getName())) commands.incrementAndGet();
+    }
+}
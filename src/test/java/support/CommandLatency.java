@@ -0,0 +1,146 @@
+package support;
+
+import io.qameta.allure.Allure;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Duration of every WebDriver command, per test, command ({@code WebDriver.findElement},
+ * {@code JavascriptExecutor.executeScript}, {@code WebElement.click}, ...) and call site (first frame outside
+ * Selenium, Selenide and {@code support}, e.g. {@code FormPage.getShadowInput}).
+ * <p>
+ * {@link BrowserSession} wraps every pooled driver with {@link #instrument(WebDriver)}, so both raw WebDriver tests
+ * and Selenide see the same decorated driver. Per test the numbers are attached to the Allure report
+ * ({@link #attachToAllure(String)}); for the whole run they go to {@code target/webdriver-latency.json} at exit.
+ * Disable with {@code -Dpiloto.latency.enabled=false}.
+ */
+public final class CommandLatency implements WebDriverListener {
+
+    private static final Path OUT = Path.of("target", "webdriver-latency.json");
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("piloto.latency.enabled", "true"));
+
+    // return local helper objects (Options, TargetLocator, ...) without a browser round trip
+    private static final Set<String> LOCAL_CALLS = Set.of("manage", "switchTo", "navigate", "timeouts", "window",
+            "getWrappedDriver", "getWrappedElement", "toString", "hashCode", "equals");
+    private static final Set<String> SKIPPED_PACKAGES = Set.of("org.openqa.", "com.codeborne.", "support.", "java.",
+            "jdk.", "sun.", "com.sun.", "org.junit.", "org.testng.", "io.qameta.");
+
+    private static final CommandLatency INSTANCE = new CommandLatency();
+    private static final Map<Key, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<ArrayDeque<Long>> STARTS = ThreadLocal.withInitial(ArrayDeque::new);
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(CommandLatency::write, "webdriver-latency"));
+    }
+
+    private CommandLatency() {
+    }
+
+    /** Returns a driver that records the latency of every command (or {@code driver} itself when disabled). */
+    public static WebDriver instrument(WebDriver driver) {
+        return ENABLED ? new EventFiringDecorator<>(INSTANCE).decorate(driver) : driver;
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        STARTS.get().push(System.nanoTime());
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        done(method);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        done(method);
+    }
+
+    private static void done(Method method) {
+        Long start = STARTS.get().poll();
+        if (start == null || LOCAL_CALLS.contains(method.getName())) return;
+        long micros = (System.nanoTime() - start) / 1_000L;
+        String command = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        HISTOGRAMS.computeIfAbsent(new Key(BrowserSession.currentTestName(), command, callSite()), k -> new LatencyHistogram())
+                .record(micros);
+    }
+
+    private static String callSite() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(f -> SKIPPED_PACKAGES.stream().noneMatch(f.getClassName()::startsWith))
+                .filter(f -> !f.getClassName().contains("$Proxy") && !f.getClassName().contains("$$"))
+                .findFirst()
+                .map(f -> simpleName(f.getClassName()) + "." + f.getMethodName())
+                .orElse("?"));
+    }
+
+    private static String simpleName(String className) {
+        String name = className.substring(className.lastIndexOf('.') + 1);
+        int lambda = name.indexOf('$');
+        return lambda > 0 ? name.substring(0, lambda) : name;
+    }
+
+    /** Adds this test's command latencies to the Allure report as a JSON attachment. */
+    public static void attachToAllure(String testName) {
+        String json = toJson(rows(testName));
+        if (json.equals("[]")) return;
+        try {
+            Allure.addAttachment("WebDriver command latency", "application/json", json, ".json");
+        } catch (Exception ignored) {
+            // no Allure lifecycle (e.g. plain runner) - the run summary still has it
+        }
+    }
+
+    private static List<Map.Entry<Key, LatencyHistogram>> rows(String testName) {
+        return HISTOGRAMS.entrySet().stream()
+                .filter(e -> testName == null || e.getKey().test().equals(testName))
+                .sorted(Comparator.comparing((Map.Entry<Key, LatencyHistogram> e) -> e.getValue().totalMicros()).reversed())
+                .collect(Collectors.toList());
+    }
+
+    static synchronized void write() {
+        if (HISTOGRAMS.isEmpty()) return;
+        try {
+            Files.createDirectories(OUT.getParent());
+            Files.writeString(OUT, toJson(rows(null)) + "\n");
+        } catch (IOException ioe) {
+            System.out.println("Could not write WebDriver latency summary: " + ioe.getMessage());
+        }
+    }
+
+    static String toJson(List<Map.Entry<Key, LatencyHistogram>> rows) {
+        return rows.stream().map(e -> {
+            Key k = e.getKey();
+            LatencyHistogram h = e.getValue();
+            return "{\"test\":" + quote(k.test()) + ",\"command\":" + quote(k.command()) + ",\"site\":" + quote(k.site())
+                    + ",\"count\":" + h.count()
+                    + ",\"p50Ms\":" + ms(h.percentileMicros(50)) + ",\"p99Ms\":" + ms(h.percentileMicros(99))
+                    + ",\"maxMs\":" + ms(h.maxMicros()) + ",\"totalMs\":" + ms(h.totalMicros()) + "}";
+        }).collect(Collectors.joining(",\n  ", "[\n  ", "\n]")).replace("[\n  \n]", "[]");
+    }
+
+    private static String ms(long micros) {
+        return String.format(java.util.Locale.ROOT, "%.3f", micros / 1000.0);
+    }
+
+    private static String quote(String s) {
+        return "\"" + s.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    record Key(String test, String command, String site) {
+    }
+}
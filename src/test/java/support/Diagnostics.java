@@ -0,0 +1,217 @@
+package support;
+
+import io.qameta.allure.Allure;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Page source + screenshot capture for failure analysis that does not block the test.
+ * <p>
+ * The test thread only grabs the bytes (the driver is not thread-safe) and hashes them; compression and disk I/O
+ * happen on a background writer fed by a bounded queue - when the queue is full the capture is dropped and counted,
+ * never waited for. Artifacts are content-addressed ({@code target/diagnostics/objects/ab/<sha256>}), so identical
+ * page sources and screenshots are stored once; page sources are gzipped (PNGs are already compressed).
+ * <p>
+ * Every capture is appended to {@code target/diagnostics/index.jsonl} with test, reason, URL and object path, and
+ * linked from the Allure report. Oldest objects are evicted above {@code piloto.diagnostics.maxMb} (default 200);
+ * {@code piloto.diagnostics.queue} sets the queue size (default 32).
+ */
+public final class Diagnostics {
+
+    private static final Path DIR = Path.of("target", "diagnostics");
+    private static final Path OBJECTS = DIR.resolve("objects");
+    private static final Path INDEX = DIR.resolve("index.jsonl");
+    private static final long MAX_BYTES = Long.getLong("piloto.diagnostics.maxMb", 200) * 1024 * 1024;
+
+    private static final BlockingQueue<Artifact> QUEUE = new ArrayBlockingQueue<>(Integer.getInteger("piloto.diagnostics.queue", 32));
+    private static final AtomicLong DROPPED = new AtomicLong();
+    private static final AtomicLong PENDING = new AtomicLong();
+    private static final AtomicLong STORED_BYTES = new AtomicLong(-1);
+    private static final Thread WRITER = new Thread(Diagnostics::drain, "diagnostics-writer");
+
+    static {
+        WRITER.setDaemon(true);
+        WRITER.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(Diagnostics::flush, "diagnostics-flush"));
+    }
+
+    private Diagnostics() {
+    }
+
+    /**
+     * Captures the page source and a screenshot of {@code driver} for the current test. Never throws: a closed window
+     * or a full queue only produces an index entry / a dropped count.
+     */
+    public static void capture(WebDriver driver, String reason) {
+        String test = BrowserSession.currentTestName();
+        String url = "";
+        try { url = driver.getCurrentUrl(); } catch (WebDriverException ignored) {}
+        try {
+            enqueue(new Artifact(test, reason, url, "html", driver.getPageSource().getBytes(StandardCharsets.UTF_8)));
+        } catch (WebDriverException wde) {
+            enqueue(new Artifact(test, reason, url, "txt", ("Could not get page source: " + wde).getBytes(StandardCharsets.UTF_8)));
+            return;
+        }
+        if (driver instanceof TakesScreenshot screenshots) {
+            try {
+                enqueue(new Artifact(test, reason, url, "png", screenshots.getScreenshotAs(OutputType.BYTES)));
+            } catch (WebDriverException ignored) {
+                // page source is enough
+            }
+        }
+    }
+
+    public static long dropped() {
+        return DROPPED.get();
+    }
+
+    private static void enqueue(Artifact artifact) {
+        PENDING.incrementAndGet();
+        if (!QUEUE.offer(artifact)) {
+            PENDING.decrementAndGet();
+            DROPPED.incrementAndGet();
+            return;
+        }
+        try {
+            Allure.link("diagnostics: " + artifact.reason + " (" + artifact.kind + ")", artifact.object().toUri().toString());
+        } catch (Exception ignored) {
+            // no Allure lifecycle
+        }
+    }
+
+    private static void drain() {
+        while (true) {
+            Artifact artifact;
+            try {
+                artifact = QUEUE.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                store(artifact);
+            } catch (Exception e) {
+                System.out.println("Failed to write diagnostics: " + e.getMessage());
+            } finally {
+                PENDING.decrementAndGet();
+            }
+        }
+    }
+
+    private static void flush() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (PENDING.get() > 0 && System.nanoTime() < deadline) {
+            try { Thread.sleep(20); } catch (InterruptedException e) { return; }
+        }
+        if (DROPPED.get() > 0) System.out.println("[diagnostics] dropped " + DROPPED.get() + " capture(s): queue full");
+    }
+
+    private static void store(Artifact artifact) throws IOException {
+        Path object = artifact.object();
+        boolean deduplicated = Files.exists(object);
+        if (deduplicated) {
+            // keep recently seen artifacts away from eviction
+            Files.setLastModifiedTime(object, FileTime.from(Instant.now()));
+        } else {
+            Files.createDirectories(object.getParent());
+            Path tmp = Files.createTempFile(object.getParent(), "tmp-", ".part");
+            try (OutputStream out = artifact.compressed()
+                    ? new GZIPOutputStream(Files.newOutputStream(tmp)) : Files.newOutputStream(tmp)) {
+                out.write(artifact.bytes);
+            }
+            Files.move(tmp, object, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            if (STORED_BYTES.get() < 0) STORED_BYTES.set(sizeOfObjects());
+            else STORED_BYTES.addAndGet(Files.size(object));
+        }
+        String line = "{\"time\":\"" + Instant.now() + "\",\"test\":" + quote(artifact.test) + ",\"reason\":" + quote(artifact.reason)
+                + ",\"url\":" + quote(artifact.url) + ",\"kind\":\"" + artifact.kind + "\",\"sha256\":\"" + artifact.sha256
+                + "\",\"bytes\":" + artifact.bytes.length + ",\"object\":" + quote(DIR.toAbsolutePath().relativize(object).toString().replace('\\', '/'))
+                + ",\"deduplicated\":" + deduplicated + "}\n";
+        Files.writeString(INDEX, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        if (STORED_BYTES.get() > MAX_BYTES) evict();
+    }
+
+    private static void evict() throws IOException {
+        List<Path> objects = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(OBJECTS)) {
+            files.filter(Files::isRegularFile).forEach(objects::add);
+        }
+        objects.sort(Comparator.comparing(p -> p.toFile().lastModified()));
+        long size = sizeOfObjects();
+        for (Path p : objects) {
+            if (size <= MAX_BYTES * 9 / 10) break;
+            size -= Files.size(p);
+            Files.deleteIfExists(p);
+        }
+        STORED_BYTES.set(size);
+    }
+
+    private static long sizeOfObjects() throws IOException {
+        if (!Files.exists(OBJECTS)) return 0;
+        try (Stream<Path> files = Files.walk(OBJECTS)) {
+            return files.filter(Files::isRegularFile).mapToLong(p -> p.toFile().length()).sum();
+        }
+    }
+
+    private static String quote(String s) {
+        return "\"" + (s == null ? "" : s.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n")) + "\"";
+    }
+
+    private static final class Artifact {
+        final String test;
+        final String reason;
+        final String url;
+        final String kind;
+        final byte[] bytes;
+        final String sha256;
+
+        Artifact(String test, String reason, String url, String kind, byte[] bytes) {
+            this.test = test;
+            this.reason = reason;
+            this.url = url;
+            this.kind = kind;
+            this.bytes = bytes;
+            this.sha256 = sha256(bytes);
+        }
+
+        boolean compressed() {
+            return !kind.equals("png");
+        }
+
+        Path object() {
+            String name = sha256 + "." + kind + (compressed() ? ".gz" : "");
+            return OBJECTS.resolve(sha256.substring(0, 2)).resolve(name).toAbsolutePath();
+        }
+
+        private static String sha256(byte[] bytes) {
+            try {
+                return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package support;
+
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DiagnosticsTest {
+
+    @Test
+    public void identicalCapturesAreStoredOnce() throws Exception {
+        String marker = "diagnostics-test-" + System.nanoTime();
+        WebDriver driver = (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebDriver.class, TakesScreenshot.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getCurrentUrl" -> "http://localhost/" + marker;
+                    case "getPageSource" -> "<html><body>" + marker + "</body></html>";
+                    // unique per run: target/diagnostics survives between runs and would deduplicate the first capture too
+                    case "getScreenshotAs" -> ((OutputType<?>) args[0]).convertFromPngBytes(("\u0089PNG" + marker).getBytes(StandardCharsets.ISO_8859_1));
+                    default -> null;
+                });
+
+        Diagnostics.capture(driver, "first");
+        Diagnostics.capture(driver, "second");
+
+        Path index = Path.of("target", "diagnostics", "index.jsonl");
+        List<String> lines = List.of();
+        for (int i = 0; i < 100 && lines.size() < 4; i++) {
+            Thread.sleep(50);
+            if (Files.exists(index)) lines = Files.readAllLines(index).stream().filter(l -> l.contains(marker)).toList();
+        }
+
+        assertEquals(4, lines.size(), "page source + screenshot for each capture");
+        assertEquals(2, lines.stream().filter(l -> l.contains("\"deduplicated\":true")).count());
+        try (Stream<Path> objects = Files.walk(Path.of("target", "diagnostics", "objects"))) {
+            assertTrue(objects.anyMatch(p -> p.toString().endsWith(".html.gz")), "page sources are gzipped");
+        }
+    }
+}
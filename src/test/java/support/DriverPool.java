@@ -0,0 +1,203 @@
+package support;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.time.Duration;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.function.Function;
+
+/**
+ * Shared pool of warm WebDriver sessions.
+ * <p>
+ * Instead of starting a new browser for every test method, tests check a session out, use it and give it back.
+ * Sessions are pooled per browser ({@link BrowserConfig#browser()}), so a Firefox test never gets a warm Chrome.
+ * On release the session is reset (extra windows, cookies, storage, about:blank) so the next test starts clean.
+ * <p>
+ * System properties:
+ * <ul>
+ *     <li>{@code piloto.pool.enabled} - set to {@code false} to quit every session on release (old behaviour)</li>
+ *     <li>{@code piloto.pool.size} - how many idle sessions are kept warm (default: one per parallel worker)</li>
+ *     <li>{@code piloto.browser.profile} - launch profile of new sessions, see {@link BrowserFactory}</li>
+ * </ul>
+ * Sessions over the memory or command budget of {@link SessionGovernor} are quit on release instead of reused.
+ */
+public final class DriverPool {
+
+    private static final DriverPool SHARED = new DriverPool(browser -> BrowserFactory.launch(BrowserFactory.configuredProfile(), browser),
+            Boolean.parseBoolean(System.getProperty("piloto.pool.enabled", "true")),
+            Integer.getInteger("piloto.pool.size", ParallelismStrategy.workers()));
+
+    private final Function<String, WebDriver> factory;
+    private final boolean enabled;
+    private final int maxIdle;
+    // idle sessions per browser name (BrowserConfig#browser)
+    private final Map<String, Deque<WebDriver>> idle = new ConcurrentHashMap<>();
+    private final Map<WebDriver, String> browsers = new ConcurrentHashMap<>();
+    // first window of each session, the one we keep when closing popups/tabs on reset
+    private final Map<WebDriver, String> homeWindows = new ConcurrentHashMap<>();
+    private final PoolLatencyReport report = new PoolLatencyReport();
+
+    DriverPool(Function<String, WebDriver> factory, boolean enabled, int maxIdle) {
+        this.factory = factory;
+        this.enabled = enabled;
+        this.maxIdle = Math.max(0, maxIdle);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "driver-pool-shutdown"));
+    }
+
+    public static DriverPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * Hands out a warm session of {@code browser} ({@code chrome}, {@code firefox}) if one is idle, otherwise launches
+     * a new one.
+     */
+    public WebDriver checkout(String testName, String browser) {
+        long start = System.nanoTime();
+        String key = browser.trim().toLowerCase(Locale.ROOT);
+        WebDriver driver = enabled ? idle(key).pollFirst() : null;
+        boolean warm = driver != null;
+        if (driver == null) {
+            driver = factory.apply(key);
+            browsers.put(driver, key);
+            try {
+                homeWindows.put(driver, driver.getWindowHandle());
+            } catch (Exception ignored) {}
+        }
+        report.checkedOut(testName, System.nanoTime() - start, warm);
+        return driver;
+    }
+
+    /**
+     * Resets the session and returns it to the pool. Sessions that cannot be reset (crashed browser, closed window)
+     * are quit and dropped.
+     */
+    public void release(String testName, WebDriver driver) {
+        if (driver == null) return;
+        if (!enabled || idleCount() >= maxIdle) {
+            report.released(testName, 0L);
+            discard(driver);
+            return;
+        }
+        if (SessionGovernor.shared().recycle(driver)) {
+            // grew past the memory / command budget: a fresh browser replaces it on the next checkout
+            report.released(testName, 0L);
+            discard(driver);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean clean = reset(driver);
+        report.released(testName, System.nanoTime() - start);
+        if (clean) {
+            idle(browsers.getOrDefault(driver, "chrome")).offerFirst(driver);
+        } else {
+            discard(driver);
+        }
+    }
+
+    /**
+     * Quits the session without returning it to the pool, e.g. when the test left the browser in a broken state.
+     */
+    public void discard(WebDriver driver) {
+        homeWindows.remove(driver);
+        browsers.remove(driver);
+        BrowserContexts.quitting(driver);
+        try { driver.quit(); } catch (Exception ignored) {}
+    }
+
+    public PoolLatencyReport report() {
+        return report;
+    }
+
+    private boolean reset(WebDriver driver) {
+        try {
+            String home = homeWindows.get(driver);
+            Set<String> handles = driver.getWindowHandles();
+            if (home == null || !handles.contains(home)) {
+                home = handles.iterator().next();
+                homeWindows.put(driver, home);
+            }
+            for (String handle : handles) {
+                if (handle.equals(home)) continue;
+                driver.switchTo().window(handle);
+                driver.close();
+            }
+            driver.switchTo().window(home);
+            driver.switchTo().defaultContent();
+
+            clearStorage(driver);
+            clearCookies(driver);
+
+            driver.get("about:blank");
+            driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+            driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(300));
+            driver.manage().timeouts().scriptTimeout(Duration.ofSeconds(30));
+            return true;
+        } catch (Exception e) {
+            System.out.println("[driver-pool] reset failed, dropping session: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void clearStorage(WebDriver driver) {
+        String url = "";
+        try { url = driver.getCurrentUrl(); } catch (Exception ignored) {}
+        if (driver instanceof HasCdp && url != null && url.startsWith("http")) {
+            try {
+                String origin = java.net.URI.create(url).resolve("/").toString().replaceAll("/$", "");
+                ((HasCdp) driver).executeCdpCommand("Storage.clearDataForOrigin",
+                        Map.of("origin", origin, "storageTypes", "local_storage,session_storage,indexeddb,service_workers,cache_storage"));
+                return;
+            } catch (Exception ignored) {
+                // fall back to plain JS below
+            }
+        }
+        try {
+            ((JavascriptExecutor) driver).executeScript(
+                    "try { window.localStorage.clear(); } catch (e) {} try { window.sessionStorage.clear(); } catch (e) {}");
+        } catch (Exception ignored) {}
+    }
+
+    private void clearCookies(WebDriver driver) {
+        if (driver instanceof HasCdp) {
+            try {
+                // clears cookies for every domain, not only the current one
+                ((HasCdp) driver).executeCdpCommand("Network.clearBrowserCookies", Map.of());
+                return;
+            } catch (Exception ignored) {}
+        }
+        driver.manage().deleteAllCookies();
+    }
+
+    /** Quits the warm sessions kept for later tests. */
+    void quitIdle() {
+        for (Deque<WebDriver> sessions : idle.values()) {
+            WebDriver driver;
+            while ((driver = sessions.pollFirst()) != null) {
+                discard(driver);
+            }
+        }
+    }
+
+    private Deque<WebDriver> idle(String browser) {
+        return idle.computeIfAbsent(browser, k -> new ConcurrentLinkedDeque<>());
+    }
+
+    private int idleCount() {
+        return idle.values().stream().mapToInt(Deque::size).sum();
+    }
+
+    private void shutdown() {
+        quitIdle();
+        report.write();
+        // anything still running now was never given back
+        if (this == SHARED) SessionGovernor.shared().reap();
+    }
+}
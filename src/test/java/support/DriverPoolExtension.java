@@ -0,0 +1,76 @@
+package support;
+
+import com.codeborne.selenide.SelenideDriver;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolutionException;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.openqa.selenium.WebDriver;
+
+import java.util.Set;
+
+/**
+ * JUnit 5 extension that takes a warm session from {@link DriverPool} before each test and gives it back after.
+ * <p>
+ * Raw WebDriver tests receive the session as a parameter of their {@code @BeforeEach} (or test) method:
+ * <pre>
+ * &#64;ExtendWith(DriverPoolExtension.class)
+ * class SomeTest {
+ *     &#64;BeforeEach
+ *     void setUp(WebDriver driver) { ... }
+ * }
+ * </pre>
+ * Selenide tests can ask for a {@link SelenideDriver} (or {@link BrowserConfig}) the same way; its settings come
+ * from the class' {@link SelenideSettings}. The session is thread-confined ({@link BrowserSession#current()}), so
+ * this works with parallel execution. Tests must not call {@code closeWebDriver()} (that would quit the pooled
+ * browser).
+ */
+public class DriverPoolExtension implements BeforeEachCallback, AfterEachCallback, ParameterResolver {
+
+    private static final ExtensionContext.Namespace NS = ExtensionContext.Namespace.create(DriverPoolExtension.class);
+    private static final String SESSION = "session";
+    private static final Set<Class<?>> RESOLVABLE = Set.of(WebDriver.class, SelenideDriver.class, BrowserConfig.class);
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        session(context);
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        BrowserSession session = context.getStore(NS).remove(SESSION, BrowserSession.class);
+        if (session != null) {
+            CommandLatency.attachToAllure(session.testName());
+            session.close();
+        }
+    }
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext)
+            throws ParameterResolutionException {
+        return RESOLVABLE.contains(parameterContext.getParameter().getType());
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext)
+            throws ParameterResolutionException {
+        BrowserSession session = session(extensionContext);
+        Class<?> type = parameterContext.getParameter().getType();
+        if (type == SelenideDriver.class) return session.selenide();
+        if (type == BrowserConfig.class) return session.config();
+        return session.driver();
+    }
+
+    private BrowserSession session(ExtensionContext context) {
+        return context.getStore(NS).getOrComputeIfAbsent(SESSION, k -> {
+            SelenideSettings settings = context.getRequiredTestClass().getAnnotation(SelenideSettings.class);
+            return BrowserSession.open(testName(context), BrowserConfig.from(settings));
+        }, BrowserSession.class);
+    }
+
+    static String testName(ExtensionContext context) {
+        return context.getRequiredTestClass().getName() + "#" + context.getTestMethod().map(m -> m.getName()).orElse("?");
+    }
+}
@@ -0,0 +1,178 @@
+package support;
+
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local history of test durations ({@code .piloto-cache/durations.properties}, {@code Class#method=ms}), updated after
+ * every run by {@link Listener} as a moving average (new = (old + last) / 2) so one slow run does not dominate.
+ * <p>
+ * Feeds {@link LongestFirst} (ordering and shards) and the makespan report: after each run
+ * {@code target/schedule-report.txt} compares the predicted makespan (LPT over the workers) with the actual wall time.
+ * Tests without history count as {@code piloto.schedule.unknownMs} (default 10000).
+ */
+public final class DurationHistory {
+
+    static final Path FILE = Path.of(".piloto-cache", "durations.properties");
+    private static final Path REPORT = Path.of("target", "schedule-report.txt");
+    private static final long UNKNOWN_MS = Long.getLong("piloto.schedule.unknownMs", 10_000);
+
+    private static volatile DurationHistory shared;
+
+    private final Map<String, Long> millis;
+
+    DurationHistory(Map<String, Long> millis) {
+        this.millis = new ConcurrentHashMap<>(millis);
+    }
+
+    public static DurationHistory shared() {
+        if (shared == null) {
+            synchronized (DurationHistory.class) {
+                if (shared == null) shared = new DurationHistory(load(FILE));
+            }
+        }
+        return shared;
+    }
+
+    /** Expected duration of {@code Class#method}. */
+    public long millis(String test) {
+        return millis.getOrDefault(test, UNKNOWN_MS);
+    }
+
+    public boolean known(String test) {
+        return millis.containsKey(test);
+    }
+
+    /** Expected duration of a test class: the sum of its known methods, or the unknown default. */
+    public long classMillis(String className) {
+        long sum = 0;
+        boolean any = false;
+        for (Map.Entry<String, Long> e : millis.entrySet()) {
+            if (e.getKey().startsWith(className + "#")) {
+                sum += e.getValue();
+                any = true;
+            }
+        }
+        return any ? sum : UNKNOWN_MS;
+    }
+
+    void record(String test, long ms) {
+        millis.merge(test, ms, (old, last) -> (old + last) / 2);
+    }
+
+    static Map<String, Long> load(Path file) {
+        Map<String, Long> map = new TreeMap<>();
+        if (!Files.exists(file)) return map;
+        Properties p = new Properties();
+        try (Reader in = Files.newBufferedReader(file)) {
+            p.load(in);
+        } catch (IOException ioe) {
+            return map;
+        }
+        p.forEach((k, v) -> {
+            try {
+                map.put((String) k, Long.parseLong((String) v));
+            } catch (NumberFormatException ignored) {
+                // hand-edited entry
+            }
+        });
+        return map;
+    }
+
+    synchronized void save(Path file) throws IOException {
+        // sorted, so diffs between runs stay readable
+        StringBuilder out = new StringBuilder("# test durations in ms (moving average), written by support.DurationHistory\n");
+        new TreeMap<>(millis).forEach((test, ms) -> out.append(test.replace(" ", "\\ ").replace("=", "\\=").replace(":", "\\:"))
+                .append('=').append(ms).append('\n'));
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, out);
+    }
+
+    /** Times every test, saves the history and writes the predicted vs actual makespan. */
+    public static final class Listener implements TestExecutionListener {
+
+        private final Map<String, Long> started = new ConcurrentHashMap<>();
+        private final Map<String, Long> classes = new LinkedHashMap<>();
+        private long planStart;
+        private long predictedMs;
+        private int workers;
+
+        @Override
+        public void testPlanExecutionStarted(TestPlan plan) {
+            planStart = System.nanoTime();
+            boolean parallel = plan.getConfigurationParameters().getBoolean("junit.jupiter.execution.parallel.enabled").orElse(false);
+            workers = parallel ? ParallelismStrategy.workers() : 1;
+            for (TestIdentifier root : plan.getRoots()) {
+                for (TestIdentifier child : plan.getChildren(root)) {
+                    if (child.getSource().orElse(null) instanceof ClassSource c) {
+                        classes.merge(c.getClassName(), shared().classMillis(c.getClassName()), Long::sum);
+                    }
+                }
+            }
+            predictedMs = LongestFirst.pack(classes, workers).makespan();
+        }
+
+        @Override
+        public void executionStarted(TestIdentifier id) {
+            if (id.isTest()) started.put(id.getUniqueId(), System.nanoTime());
+        }
+
+        @Override
+        public void executionFinished(TestIdentifier id, TestExecutionResult result) {
+            Long start = started.remove(id.getUniqueId());
+            if (start == null || result.getStatus() == TestExecutionResult.Status.ABORTED) return;
+            testId(id).ifPresent(test -> shared().record(test, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+        }
+
+        @Override
+        public void testPlanExecutionFinished(TestPlan plan) {
+            long actualMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - planStart);
+            try {
+                shared().save(FILE);
+            } catch (IOException ioe) {
+                System.out.println("Could not write duration history: " + ioe.getMessage());
+            }
+            if (classes.isEmpty()) return;
+            String summary = String.format(Locale.ROOT, "[schedule] %d class(es) on %d worker(s): predicted makespan %.1f s, actual %.1f s",
+                    classes.size(), workers, predictedMs / 1000.0, actualMs / 1000.0);
+            System.out.println(summary);
+            StringBuilder out = new StringBuilder(summary).append("\n\npredicted assignment (longest first):\n");
+            List<List<String>> bins = LongestFirst.pack(classes, workers).bins();
+            for (int i = 0; i < bins.size(); i++) {
+                long load = bins.get(i).stream().mapToLong(classes::get).sum();
+                out.append(String.format(Locale.ROOT, "  worker %d  %8.1f s  %s%n", i + 1, load / 1000.0, bins.get(i)));
+            }
+            try {
+                Files.createDirectories(REPORT.getParent());
+                Files.writeString(REPORT, out);
+            } catch (IOException ignored) {
+                // summary already printed
+            }
+        }
+
+        private static Optional<String> testId(TestIdentifier id) {
+            if (id.getSource().orElse(null) instanceof MethodSource m) {
+                return Optional.of(m.getClassName() + "#" + m.getMethodName());
+            }
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package support;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads the rows of a {@code vaadin-grid} (or a plain {@code <table>}) in pages, one async script per page, without
+ * scrolling through the virtualized grid.
+ * <p>
+ * Data comes from, in order of preference:
+ * <ol>
+ *     <li>{@link Mode#ITEMS} - the grid's client-side {@code items} array;</li>
+ *     <li>{@link Mode#DATA_PROVIDER} - the grid's {@code dataProvider} (Flow's connector fetches from the server);</li>
+ *     <li>{@link Mode#SCROLL_HARVEST} - {@code scrollToIndex} and read the rendered rows, when neither is reachable
+ *     or the data provider does not answer.</li>
+ * </ol>
+ * {@link #rows()} is lazy and holds at most one page in memory:
+ * <pre>
+ * long dramas = GridReader.of(driver).rows().filter(r -&gt; r.text().contains("Drama")).count();
+ * </pre>
+ */
+public final class GridReader {
+
+    public enum Mode { ITEMS, DATA_PROVIDER, SCROLL_HARVEST, TABLE }
+
+    private static final Duration PAGE_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final String SCRIPT = String.join("\n",
+            "var css = arguments[0], from = arguments[1], count = arguments[2], mode = arguments[3];",
+            "var providerMs = arguments[4], done = arguments[arguments.length - 1];",
+            "var grid = document.querySelector(css);",
+            "if (!grid) { done({error: 'No grid matches ' + css}); return; }",
+            "function str(v) { return v === null || v === undefined ? '' : (typeof v === 'object' ? JSON.stringify(v) : String(v)); }",
+            "function text(e) { return e ? e.textContent.replace(/\\s+/g, ' ').trim() : ''; }",
+            // plain table
+            "if (grid.tagName === 'TABLE' || mode === 'TABLE') {",
+            "  var trs = Array.prototype.slice.call(grid.querySelectorAll('tbody tr'));",
+            "  done({mode: 'TABLE', size: trs.length,",
+            "    headers: Array.prototype.map.call(grid.querySelectorAll('thead th'), text),",
+            "    rows: trs.slice(from, from + count).map(function (tr, i) {",
+            "      return {index: from + i, values: Array.prototype.map.call(tr.querySelectorAll('td'), text)}; })});",
+            "  return;",
+            "}",
+            "var cols = Array.prototype.filter.call(grid.querySelectorAll('vaadin-grid-column'), function (c) { return !c.hidden; });",
+            "var hasPaths = cols.some(function (c) { return !!c.path; });",
+            "function header(c, i) { return str(c.header) || text(c._headerCell && c._headerCell._content) || c.path || ('col' + i); }",
+            "function get(item, path) { return path.split('.').reduce(function (o, k) { return o == null ? o : o[k]; }, item); }",
+            "function keysOf(item) { return Object.keys(item).filter(function (k) {",
+            "  return k !== 'key' && k.charAt(0) !== '_' && (item[k] === null || typeof item[k] !== 'object'); }); }",
+            "function fromItems(items, offset, size, kind) {",
+            "  var keys = !hasPaths && items.length ? keysOf(items[0]) : null;",
+            "  done({mode: kind, size: size,",
+            "    headers: keys || cols.map(header),",
+            "    rows: items.map(function (item, i) {",
+            "      return {index: offset + i, values: keys ? keys.map(function (k) { return str(item[k]); })",
+            "        : cols.map(function (c) { return c.path ? str(get(item, c.path)) : ''; })}; })});",
+            "}",
+            "if ((!mode || mode === 'ITEMS') && Array.isArray(grid.items)) {",
+            "  fromItems(grid.items.slice(from, from + count), from, grid.items.length, 'ITEMS'); return;",
+            "}",
+            "if ((!mode || mode === 'DATA_PROVIDER') && typeof grid.dataProvider === 'function') {",
+            "  var pageSize = grid.pageSize || 50, page = Math.floor(from / pageSize), last = Math.floor((from + count - 1) / pageSize);",
+            "  var collected = [], total = grid.size, answered = false;",
+            "  var timer = setTimeout(function () { if (!answered) { answered = true; done({fallback: true}); } }, providerMs);",
+            "  (function next(p) {",
+            "    grid.dataProvider({page: p, pageSize: pageSize, sortOrders: [], filters: []}, function (items, size) {",
+            "      if (answered) return;",
+            "      if (typeof size === 'number') total = size;",
+            "      var start = p * pageSize;",
+            "      (items || []).forEach(function (item, i) { var idx = start + i; if (idx >= from && idx < from + count) collected.push(item); });",
+            "      if (p < last && items && items.length === pageSize) { next(p + 1); return; }",
+            "      answered = true; clearTimeout(timer);",
+            "      fromItems(collected, from, typeof total === 'number' ? total : -1, 'DATA_PROVIDER');",
+            "    });",
+            "  })(page);",
+            "  return;",
+            "}",
+            // scroll-and-harvest: bring the first wanted row into the viewport and read what got rendered
+            "grid.scrollToIndex(from);",
+            "var tries = 0;",
+            "(function harvest() {",
+            "  var body = grid.shadowRoot && grid.shadowRoot.querySelector('#items');",
+            "  var rendered = body ? Array.prototype.filter.call(body.children, function (tr) {",
+            "    return !tr.hidden && typeof tr.index === 'number' && tr.index >= from && tr.index < from + count; }) : [];",
+            "  if (!rendered.length && tries++ < 20) { requestAnimationFrame(function () { setTimeout(harvest, 25); }); return; }",
+            "  rendered.sort(function (a, b) { return a.index - b.index; });",
+            "  done({mode: 'SCROLL_HARVEST', size: typeof grid.size === 'number' ? grid.size : -1,",
+            "    headers: cols.map(header),",
+            "    rows: rendered.map(function (tr) { return {index: tr.index, values: Array.prototype.map.call(",
+            "      tr.querySelectorAll('td:not([hidden])'), function (td) { return text(td._content); })}; })});",
+            "})();");
+
+    private final WebDriver driver;
+    private final String gridCss;
+    private final int pageSize;
+    private final Duration providerTimeout;
+
+    private volatile Mode mode;
+    private volatile int pagesRead;
+
+    private GridReader(WebDriver driver, String gridCss, int pageSize, Duration providerTimeout) {
+        this.driver = driver;
+        this.gridCss = gridCss;
+        this.pageSize = pageSize;
+        this.providerTimeout = providerTimeout;
+    }
+
+    public static GridReader of(WebDriver driver) {
+        return of(driver, "vaadin-grid");
+    }
+
+    public static GridReader of(WebDriver driver, String gridCss) {
+        return new GridReader(driver, gridCss, 200, Duration.ofSeconds(5));
+    }
+
+    /** Rows per script call (and the most rows held in memory at once). */
+    public GridReader withPageSize(int pageSize) {
+        if (pageSize < 1) throw new IllegalArgumentException("pageSize must be positive: " + pageSize);
+        return new GridReader(driver, gridCss, pageSize, providerTimeout);
+    }
+
+    /** How long to wait for the data provider before falling back to {@link Mode#SCROLL_HARVEST}. */
+    public GridReader withProviderTimeout(Duration providerTimeout) {
+        return new GridReader(driver, gridCss, pageSize, providerTimeout);
+    }
+
+    /** Lazily reads all rows, one page per script call. */
+    public Stream<GridRow> rows() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new PageIterator(),
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /** The source the last page was read from ({@code null} before the first page). */
+    public Mode mode() {
+        return mode;
+    }
+
+    public int pagesRead() {
+        return pagesRead;
+    }
+
+    private final class PageIterator implements Iterator<GridRow> {
+        private final ArrayDeque<GridRow> buffer = new ArrayDeque<>(pageSize);
+        private int next;
+        private int size = -1;
+        private boolean exhausted;
+
+        @Override
+        public boolean hasNext() {
+            if (buffer.isEmpty() && !exhausted) fetch();
+            return !buffer.isEmpty();
+        }
+
+        @Override
+        public GridRow next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return buffer.poll();
+        }
+
+        private void fetch() {
+            if (size >= 0 && next >= size) {
+                exhausted = true;
+                return;
+            }
+            Map<?, ?> page = runPage(mode);
+            if (Boolean.TRUE.equals(page.get("fallback"))) {
+                mode = Mode.SCROLL_HARVEST;
+                page = runPage(mode);
+            }
+            mode = Mode.valueOf((String) page.get("mode"));
+            pagesRead++;
+            size = ((Number) page.get("size")).intValue();
+            List<?> headers = (List<?>) page.get("headers");
+            List<?> rows = (List<?>) page.get("rows");
+            if (rows.isEmpty()) {
+                exhausted = true;
+                return;
+            }
+            for (Object r : rows) {
+                Map<?, ?> row = (Map<?, ?>) r;
+                List<?> values = (List<?>) row.get("values");
+                Map<String, String> byColumn = new LinkedHashMap<>();
+                for (int i = 0; i < values.size(); i++) {
+                    String column = i < headers.size() && !String.valueOf(headers.get(i)).isEmpty()
+                            ? String.valueOf(headers.get(i)) : "col" + i;
+                    byColumn.put(byColumn.containsKey(column) ? column + "#" + i : column, String.valueOf(values.get(i)));
+                }
+                int index = ((Number) row.get("index")).intValue();
+                buffer.add(new GridRow(index, byColumn));
+                next = Math.max(next, index + 1);
+            }
+        }
+
+        private Map<?, ?> runPage(Mode requested) {
+            Object result = PageWaits.withScriptTimeout(driver, PAGE_TIMEOUT.plus(providerTimeout), () -> ((JavascriptExecutor) driver)
+                    .executeAsyncScript(SCRIPT, gridCss, next, pageSize, requested == null ? null : requested.name(),
+                            providerTimeout.toMillis()));
+            if (!(result instanceof Map<?, ?> page)) {
+                throw new IllegalStateException("Unexpected grid page from " + gridCss + ": " + result);
+            }
+            if (page.get("error") != null) throw new IllegalStateException(String.valueOf(page.get("error")));
+            return page;
+        }
+    }
+}
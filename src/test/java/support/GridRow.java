@@ -0,0 +1,19 @@
+package support;
+
+import java.util.Map;
+
+/**
+ * One row read by {@link GridReader}: its index in the grid and the cell values by column (header text, property
+ * path or {@code colN}), in column order.
+ */
+public record GridRow(int index, Map<String, String> values) {
+
+    public String get(String column) {
+        return values.get(column);
+    }
+
+    /** All cell values joined by a space, like the text of the rendered row. */
+    public String text() {
+        return String.join(" ", values.values()).trim();
+    }
+}
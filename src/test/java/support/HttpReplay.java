@@ -0,0 +1,340 @@
+package support;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Record and replay of the HTTP traffic of the Vaadin demo apps ({@code *.demo.vaadin.com}), through DevTools
+ * {@code Fetch} interception, so the Vaadin suite can run offline and at local speed.
+ * <ul>
+ *   <li>{@code -Dpiloto.http.mode=record} - every response from the hosts in {@code piloto.http.hosts} (default
+ *   {@code *.demo.vaadin.com}) is stored per test under {@code piloto.http.dir} (default {@code http-archives}):
+ *   {@code <test>/exchanges.jsonl} plus content-addressed, gzipped bodies in {@code objects/}.</li>
+ *   <li>{@code -Dpiloto.http.mode=replay} - those requests are fulfilled from the test's archive and never reach the
+ *   network; a request missing from the archive fails as offline (and is listed at the end of the test).</li>
+ * </ul>
+ * Requests match on method, URL and body, with the values Vaadin changes per session or per round trip (UIDL
+ * {@code syncId}, {@code clientId}, {@code csrfToken}, push ids) masked. Identical requests are answered in recorded
+ * order. Chrome only; other browsers and other hosts are not intercepted.
+ */
+public final class HttpReplay {
+
+    public enum Mode { OFF, RECORD, REPLAY }
+
+    private static final Mode MODE = Mode.valueOf(System.getProperty("piloto.http.mode", "off").trim().toUpperCase(Locale.ROOT));
+    private static final Path DIR = Path.of(System.getProperty("piloto.http.dir", "http-archives"));
+    private static final List<String> HOSTS = List.of(System.getProperty("piloto.http.hosts", "*.demo.vaadin.com").split(","));
+    // decoded by Fetch.getResponseBody, so the original encoding and length no longer apply
+    private static final Set<String> DROPPED_HEADERS = Set.of("content-encoding", "content-length", "transfer-encoding");
+    private static final Json JSON = new Json();
+
+    private static final Map<WebDriver, Optional<Interceptor>> INTERCEPTORS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    static {
+        Cdp.onRetarget(INTERCEPTORS::remove);
+    }
+
+    private HttpReplay() {
+    }
+
+    public static Mode mode() {
+        return MODE;
+    }
+
+    /** Starts recording into / replaying from the archive of {@code testName} on {@code driver}. */
+    public static void start(WebDriver driver, String testName) {
+        if (MODE == Mode.OFF) return;
+        interceptor(driver).ifPresent(i -> i.begin(testName));
+    }
+
+    /** Ends the test: writes the archive when recording, reports requests that were not in it when replaying. */
+    public static void stop(WebDriver driver) {
+        if (MODE == Mode.OFF) return;
+        interceptor(driver).ifPresent(Interceptor::end);
+    }
+
+    private static Optional<Interceptor> interceptor(WebDriver driver) {
+        WebDriver raw = Cdp.unwrap(driver);
+        synchronized (INTERCEPTORS) {
+            return INTERCEPTORS.computeIfAbsent(raw, d -> Cdp.session(d).flatMap(Interceptor::attach));
+        }
+    }
+
+    /** Request identity used for matching: method, URL and body with Vaadin's per-session values masked. */
+    static String key(String method, String url, String body) {
+        return method.toUpperCase(Locale.ROOT) + " " + normalizeUrl(url) + "\n" + normalizeBody(body == null ? "" : body);
+    }
+
+    static String normalizeUrl(String url) {
+        return url.replaceAll("([?&]v-pushId=)[^&]*", "$1*").replaceAll("([?&]v-csrfToken=)[^&]*", "$1*");
+    }
+
+    static String normalizeBody(String body) {
+        return body
+                .replaceAll("\"(syncId|clientId)\"\\s*:\\s*-?\\d+", "\"$1\":0")
+                .replaceAll("\"(csrfToken|Vaadin-Security-Key|pushId)\"\\s*:\\s*\"[^\"]*\"", "\"$1\":\"*\"");
+    }
+
+    static boolean intercepted(String url) {
+        String host;
+        try {
+            host = URI.create(url).getHost();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        if (host == null) return false;
+        for (String pattern : HOSTS) {
+            String p = pattern.trim().toLowerCase(Locale.ROOT);
+            if (p.startsWith("*.") ? host.endsWith(p.substring(1)) || host.equals(p.substring(2)) : host.equals(p)) return true;
+        }
+        return false;
+    }
+
+    /** One recorded request/response; the body lives in {@code objects/<sha256>.gz}. */
+    record Exchange(String method, String url, String requestBody, int status, List<Map<String, String>> headers, String bodySha) {
+
+        Map<String, Object> toJson() {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("method", method);
+            json.put("url", url);
+            json.put("requestBody", requestBody);
+            json.put("status", status);
+            json.put("headers", headers);
+            json.put("body", bodySha);
+            return json;
+        }
+
+        @SuppressWarnings("unchecked")
+        static Exchange fromJson(Map<String, Object> json) {
+            return new Exchange((String) json.get("method"), (String) json.get("url"), (String) json.getOrDefault("requestBody", ""),
+                    ((Number) json.get("status")).intValue(), (List<Map<String, String>>) json.get("headers"), (String) json.get("body"));
+        }
+    }
+
+    static Path archive(Path dir, String testName) {
+        return dir.resolve(testName.replaceAll("[^A-Za-z0-9._-]", "_")).resolve("exchanges.jsonl");
+    }
+
+    static void save(Path dir, String testName, List<Exchange> exchanges) throws IOException {
+        Path file = archive(dir, testName);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, exchanges.stream().map(e -> JSON.toJson(e.toJson()).replace("\n", ""))
+                .collect(Collectors.joining("\n", "", "\n")));
+    }
+
+    static List<Exchange> load(Path dir, String testName) throws IOException {
+        Path file = archive(dir, testName);
+        if (!Files.exists(file)) return List.of();
+        List<Exchange> exchanges = new ArrayList<>();
+        for (String line : Files.readAllLines(file)) {
+            if (!line.isBlank()) exchanges.add(Exchange.fromJson(JSON.toType(line, Json.MAP_TYPE)));
+        }
+        return exchanges;
+    }
+
+    static String storeBody(Path dir, byte[] body) throws IOException {
+        String sha = sha256(body);
+        Path object = dir.resolve("objects").resolve(sha + ".gz");
+        if (Files.exists(object)) return sha;
+        Files.createDirectories(object.getParent());
+        Path tmp = Files.createTempFile(object.getParent(), "tmp-", ".part");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmp))) {
+            out.write(body);
+        }
+        Files.move(tmp, object, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return sha;
+    }
+
+    static byte[] readBody(Path dir, String sha) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(dir.resolve("objects").resolve(sha + ".gz")))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Fetch interception of one browser tab; switched between tests by {@link #begin} / {@link #end}. */
+    private static final class Interceptor {
+        private final DevTools devTools;
+        private final List<Exchange> recorded = Collections.synchronizedList(new ArrayList<>());
+        private final Map<String, Deque<Exchange>> replay = new HashMap<>();
+        private final List<String> misses = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicLong hits = new AtomicLong();
+        private volatile String test;
+
+        private Interceptor(DevTools devTools) {
+            this.devTools = devTools;
+        }
+
+        static Optional<Interceptor> attach(DevTools devTools) {
+            try {
+                Interceptor interceptor = new Interceptor(devTools);
+                Cdp.on(devTools, "Fetch.requestPaused", interceptor::onPaused);
+                String stage = MODE == Mode.RECORD ? "Response" : "Request";
+                List<Map<String, Object>> patterns = HOSTS.stream()
+                        .map(h -> Map.<String, Object>of("urlPattern", "*://" + h.trim() + "/*", "requestStage", stage))
+                        .collect(Collectors.toList());
+                Cdp.send(devTools, "Fetch.enable", Map.of("patterns", patterns));
+                return Optional.of(interceptor);
+            } catch (Exception e) {
+                System.out.println("[http] DevTools Fetch domain unavailable, " + MODE + " disabled: " + e.getMessage());
+                return Optional.empty();
+            }
+        }
+
+        void begin(String testName) {
+            recorded.clear();
+            misses.clear();
+            hits.set(0);
+            synchronized (replay) {
+                replay.clear();
+                if (MODE == Mode.REPLAY) {
+                    try {
+                        for (Exchange e : load(DIR, testName)) {
+                            replay.computeIfAbsent(key(e.method(), e.url(), e.requestBody()), k -> new ArrayDeque<>()).add(e);
+                        }
+                    } catch (IOException ioe) {
+                        System.out.println("[http] could not read archive of " + testName + ": " + ioe.getMessage());
+                    }
+                    if (replay.isEmpty()) System.out.println("[http] no archive for " + testName + " - record it with -Dpiloto.http.mode=record");
+                }
+            }
+            test = testName;
+        }
+
+        void end() {
+            String name = test;
+            test = null;
+            if (name == null) return;
+            if (MODE == Mode.RECORD && !recorded.isEmpty()) {
+                try {
+                    synchronized (recorded) {
+                        save(DIR, name, new ArrayList<>(recorded));
+                    }
+                    System.out.println("[http] recorded " + recorded.size() + " exchange(s) for " + name
+                            + (misses.isEmpty() ? "" : ", " + misses.size() + " could not be recorded"));
+                } catch (IOException ioe) {
+                    System.out.println("[http] could not write archive of " + name + ": " + ioe.getMessage());
+                }
+            }
+            if (MODE == Mode.REPLAY) {
+                System.out.println("[http] replayed " + hits.get() + " request(s) for " + name + ", " + misses.size() + " not replayed (missing or unreadable)");
+            }
+            synchronized (misses) {
+                misses.forEach(m -> System.out.println("[http]   miss: " + m));
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void onPaused(Map<String, Object> e) {
+            String requestId = Cdp.string(e, "requestId");
+            Map<String, Object> request = (Map<String, Object>) e.getOrDefault("request", Map.of());
+            String url = Cdp.string(request, "url");
+            String method = Cdp.string(request, "method");
+            String body = Cdp.string(request, "postData");
+            try {
+                if (test == null || !intercepted(url)) {
+                    Cdp.send(devTools, "Fetch.continueRequest", Map.of("requestId", requestId));
+                } else if (MODE == Mode.RECORD) {
+                    record(requestId, method, url, body, e);
+                } else {
+                    replay(requestId, method, url, body);
+                }
+            } catch (Exception ex) {
+                System.out.println("[http] " + method + " " + url + ": " + ex.getMessage());
+                misses.add(method + " " + url + " (" + ex.getMessage() + ")");
+                release(requestId);
+            }
+        }
+
+        // never leave a request paused: the page would hang until its load timeout
+        private void release(String requestId) {
+            try {
+                if (MODE == Mode.RECORD) {
+                    Cdp.send(devTools, "Fetch.continueRequest", Map.of("requestId", requestId));
+                } else {
+                    Cdp.send(devTools, "Fetch.failRequest", Map.of("requestId", requestId, "errorReason", "Failed"));
+                }
+            } catch (RuntimeException alreadyHandled) {
+                // the request was continued or fulfilled before the failure, or the target is gone
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void record(String requestId, String method, String url, String requestBody, Map<String, Object> e) throws IOException {
+            if (e.containsKey("responseErrorReason")) {
+                Cdp.send(devTools, "Fetch.continueRequest", Map.of("requestId", requestId));
+                return;
+            }
+            int status = (int) Cdp.number(e, "responseStatusCode");
+            List<Map<String, String>> headers = ((List<Map<String, Object>>) e.getOrDefault("responseHeaders", List.of())).stream()
+                    .filter(h -> !DROPPED_HEADERS.contains(Cdp.string(h, "name").toLowerCase(Locale.ROOT)))
+                    .map(h -> Map.of("name", Cdp.string(h, "name"), "value", Cdp.string(h, "value")))
+                    .collect(Collectors.toList());
+            byte[] bytes = new byte[0];
+            if (status < 300 || status >= 400) {
+                Map<String, Object> body = Cdp.send(devTools, "Fetch.getResponseBody", Map.of("requestId", requestId));
+                String raw = Cdp.string(body, "body");
+                bytes = Boolean.TRUE.equals(body.get("base64Encoded")) ? Base64.getDecoder().decode(raw) : raw.getBytes(StandardCharsets.UTF_8);
+            }
+            recorded.add(new Exchange(method, url, requestBody, status, headers, storeBody(DIR, bytes)));
+            Cdp.send(devTools, "Fetch.continueRequest", Map.of("requestId", requestId));
+        }
+
+        private void replay(String requestId, String method, String url, String requestBody) throws IOException {
+            Exchange match;
+            synchronized (replay) {
+                Deque<Exchange> candidates = replay.get(key(method, url, requestBody));
+                // identical requests get the recorded responses in order; once used up, the last one again
+                match = candidates == null || candidates.isEmpty() ? null : candidates.size() > 1 ? candidates.poll() : candidates.peek();
+            }
+            if (match == null) {
+                misses.add(method + " " + url);
+                Cdp.send(devTools, "Fetch.failRequest", Map.of("requestId", requestId, "errorReason", "InternetDisconnected"));
+                return;
+            }
+            hits.incrementAndGet();
+            Cdp.send(devTools, "Fetch.fulfillRequest", Map.of(
+                    "requestId", requestId,
+                    "responseCode", match.status(),
+                    "responseHeaders", match.headers(),
+                    "body", Base64.getEncoder().encodeToString(readBody(DIR, match.bodySha()))));
+        }
+    }
+}
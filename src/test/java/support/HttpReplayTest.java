@@ -0,0 +1,47 @@
+package support;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HttpReplayTest {
+
+    private static final String UIDL = "https://vaadin-bookstore-example.demo.vaadin.com/?v-r=uidl&v-uiId=0";
+
+    @Test
+    public void uidlRequestsMatchAcrossSyncIdsAndTokens() {
+        String recorded = "{\"csrfToken\":\"1b2c-aa\",\"rpc\":[{\"type\":\"event\",\"node\":12,\"event\":\"click\"}],\"syncId\":3,\"clientId\":3}";
+        String replayed = "{\"csrfToken\":\"9f00-bb\",\"rpc\":[{\"type\":\"event\",\"node\":12,\"event\":\"click\"}],\"syncId\":7,\"clientId\":5}";
+
+        assertEquals(HttpReplay.key("POST", UIDL, recorded), HttpReplay.key("post", UIDL, replayed));
+        assertNotEquals(HttpReplay.key("POST", UIDL, recorded), HttpReplay.key("POST", UIDL, replayed.replace("\"node\":12", "\"node\":13")));
+    }
+
+    @Test
+    public void onlyConfiguredHostsAreIntercepted() {
+        assertTrue(HttpReplay.intercepted(UIDL));
+        assertTrue(HttpReplay.intercepted("https://vaadin-form-example.demo.vaadin.com/VAADIN/build/bundle.js"));
+        assertFalse(HttpReplay.intercepted("https://www.jetbrains.com/"));
+        assertFalse(HttpReplay.intercepted("file:///tmp/testpage.html"));
+    }
+
+    @Test
+    public void archiveSurvivesSaveAndLoad(@TempDir Path dir) throws Exception {
+        byte[] body = "{\"syncId\":1}".getBytes(StandardCharsets.UTF_8);
+        String sha = HttpReplay.storeBody(dir, body);
+        HttpReplay.Exchange exchange = new HttpReplay.Exchange("POST", UIDL, "{\"syncId\":0}", 200,
+                List.of(Map.of("name", "Content-Type", "value", "application/json; charset=UTF-8")), sha);
+
+        HttpReplay.save(dir, "AdicionarCategoriaTest#adicionarCategoriaComSucesso", List.of(exchange));
+
+        assertEquals(List.of(exchange), HttpReplay.load(dir, "AdicionarCategoriaTest#adicionarCategoriaComSucesso"));
+        assertArrayEquals(body, HttpReplay.readBody(dir, sha));
+        assertEquals(sha, HttpReplay.storeBody(dir, body));
+    }
+}
@@ -0,0 +1,80 @@
+package support;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free log-linear histogram of durations in microseconds (8 sub-buckets per power of two, so percentiles are
+ * within 12.5% of the real value). Recording is a couple of atomic increments; no allocation.
+ */
+public final class LatencyHistogram {
+
+    private static final int LINEAR = 16;
+    private static final int SUB_BUCKETS = 8;
+    private static final int BUCKETS = LINEAR + (63 - 4) * SUB_BUCKETS + SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    public void record(long micros) {
+        long v = Math.max(0, micros);
+        counts.incrementAndGet(index(v));
+        count.increment();
+        sumMicros.add(v);
+        maxMicros.accumulateAndGet(v, Math::max);
+    }
+
+    /** Adds every value recorded in {@code other} (e.g. to sum up per-window histograms). */
+    public void merge(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long c = other.counts.get(i);
+            if (c > 0) counts.addAndGet(i, c);
+        }
+        count.add(other.count());
+        sumMicros.add(other.totalMicros());
+        maxMicros.accumulateAndGet(other.maxMicros(), Math::max);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public long totalMicros() {
+        return sumMicros.sum();
+    }
+
+    public long maxMicros() {
+        return maxMicros.get();
+    }
+
+    /** Upper bound of the bucket holding the {@code p}-th percentile (0-100), capped at the max seen. */
+    public long percentileMicros(double p) {
+        long total = count();
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(total * p / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) return Math.min(upperBound(i), maxMicros());
+        }
+        return maxMicros();
+    }
+
+    static int index(long v) {
+        if (v < LINEAR) return (int) v;
+        int exponent = 63 - Long.numberOfLeadingZeros(v);
+        int sub = (int) ((v >> (exponent - 3)) & (SUB_BUCKETS - 1));
+        return LINEAR + (exponent - 4) * SUB_BUCKETS + sub;
+    }
+
+    static long upperBound(int index) {
+        if (index < LINEAR) return index;
+        int exponent = (index - LINEAR) / SUB_BUCKETS + 4;
+        int sub = (index - LINEAR) % SUB_BUCKETS;
+        long lower = (long) (SUB_BUCKETS + sub) << (exponent - 3);
+        return lower + (1L << (exponent - 3)) - 1;
+    }
+}
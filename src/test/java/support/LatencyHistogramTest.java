@@ -0,0 +1,48 @@
+package support;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void everyValueFallsInsideItsBucket() {
+        for (long v : new long[]{0, 1, 15, 16, 17, 100, 1_000, 12_345, 1_000_000, Long.MAX_VALUE / 2}) {
+            int i = LatencyHistogram.index(v);
+            assertTrue(v <= LatencyHistogram.upperBound(i), "value " + v + " above its bucket");
+            assertTrue(i == 0 || v > LatencyHistogram.upperBound(i - 1), "value " + v + " below its bucket");
+        }
+    }
+
+    @Test
+    public void percentilesAreWithinOneBucket() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) h.record(i * 1000L);
+
+        assertEquals(1000, h.count());
+        assertEquals(1_000_000, h.maxMicros());
+        assertEquals(500_000, h.percentileMicros(50), 500_000 * 0.125);
+        assertEquals(990_000, h.percentileMicros(99), 990_000 * 0.125);
+        assertEquals(1_000_000, h.percentileMicros(100));
+    }
+
+    @Test
+    public void mergedHistogramsKeepEveryValue() {
+        LatencyHistogram a = new LatencyHistogram(), b = new LatencyHistogram(), all = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) a.record(i);
+        for (int i = 1; i <= 100; i++) b.record(i * 100L);
+        all.merge(a);
+        all.merge(b);
+
+        assertEquals(200, all.count());
+        assertEquals(a.totalMicros() + b.totalMicros(), all.totalMicros());
+        assertEquals(10_000, all.maxMicros());
+        assertEquals(b.percentileMicros(50), all.percentileMicros(75));
+    }
+
+    @Test
+    public void emptyHistogramReportsZero() {
+        assertEquals(0, new LatencyHistogram().percentileMicros(99));
+    }
+}
@@ -0,0 +1,261 @@
+package support;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+/**
+ * Runs N concurrent virtual users, one virtual thread each, and records how long every named step of their iterations
+ * takes, per time window.
+ * <pre>
+ * LoadRunner.Report report = LoadRunner.configured().run("signup", user -&gt; new SignupUser(user));
+ * </pre>
+ * Users start evenly spread over the ramp-up, then repeat their iteration with a think time (±50% jitter) in between
+ * until the duration is over. A failed step counts as an error of that step and ends the iteration; the user carries on
+ * with the next one.
+ * <p>
+ * System properties read by {@link #configured()}: {@code piloto.load.users} (default 4), {@code piloto.load.rampUp}
+ * (ISO-8601, default {@code PT10S}), {@code piloto.load.thinkTime} ({@code PT1S}), {@code piloto.load.duration}
+ * ({@code PT1M}) and {@code piloto.load.window} ({@code PT5S}).
+ * <p>
+ * {@link Report#write} produces one CSV row per window and step: throughput and latency percentiles over time.
+ */
+public final class LoadRunner {
+
+    /** One simulated user; created on its own virtual thread and closed when the run ends. */
+    public interface VirtualUser extends AutoCloseable {
+        void iteration(Steps steps) throws Exception;
+
+        @Override
+        default void close() {
+        }
+    }
+
+    /** Times the steps of one iteration. */
+    public interface Steps {
+        void time(String step, Step action) throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface Step {
+        void run() throws Exception;
+    }
+
+    private final int users;
+    private final Duration rampUp;
+    private final Duration thinkTime;
+    private final Duration duration;
+    private final Duration window;
+
+    private LoadRunner(int users, Duration rampUp, Duration thinkTime, Duration duration, Duration window) {
+        this.users = users;
+        this.rampUp = rampUp;
+        this.thinkTime = thinkTime;
+        this.duration = duration;
+        this.window = window;
+    }
+
+    public static LoadRunner configured() {
+        return new LoadRunner(Integer.getInteger("piloto.load.users", 4),
+                Duration.parse(System.getProperty("piloto.load.rampUp", "PT10S")),
+                Duration.parse(System.getProperty("piloto.load.thinkTime", "PT1S")),
+                Duration.parse(System.getProperty("piloto.load.duration", "PT1M")),
+                Duration.parse(System.getProperty("piloto.load.window", "PT5S")));
+    }
+
+    public LoadRunner withUsers(int users) {
+        return new LoadRunner(users, rampUp, thinkTime, duration, window);
+    }
+
+    public LoadRunner withRampUp(Duration rampUp) {
+        return new LoadRunner(users, rampUp, thinkTime, duration, window);
+    }
+
+    public LoadRunner withThinkTime(Duration thinkTime) {
+        return new LoadRunner(users, rampUp, thinkTime, duration, window);
+    }
+
+    public LoadRunner withDuration(Duration duration) {
+        return new LoadRunner(users, rampUp, thinkTime, duration, window);
+    }
+
+    public LoadRunner withWindow(Duration window) {
+        return new LoadRunner(users, rampUp, thinkTime, duration, window);
+    }
+
+    /**
+     * Runs the load and blocks until every user finished its last iteration.
+     *
+     * @param newUser creates user {@code 0..users-1} (e.g. launches its browser); a failure here only loses that user
+     */
+    public Report run(String name, IntFunction<? extends VirtualUser> newUser) throws InterruptedException {
+        Report report = new Report(name, window);
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < users; i++) {
+                int user = i;
+                long startAt = start + (users <= 1 ? 0 : rampUp.toNanos() * user / users);
+                executor.submit(() -> runUser(user, newUser, report, startAt, deadline));
+            }
+        }
+        report.elapsedNanos = System.nanoTime() - start;
+        return report;
+    }
+
+    private Void runUser(int user, IntFunction<? extends VirtualUser> newUser, Report report, long startAt, long deadline)
+            throws InterruptedException {
+        sleepUntil(startAt);
+        VirtualUser vu;
+        try {
+            vu = newUser.apply(user);
+        } catch (RuntimeException e) {
+            report.failedUsers.increment();
+            System.out.println("[load] user " + user + " could not start: " + e.getMessage());
+            return null;
+        }
+        report.activeUsers.increment();
+        Steps steps = (step, action) -> {
+            long t0 = System.nanoTime();
+            try {
+                action.run();
+            } catch (Exception | AssertionError e) {
+                report.record(step, t0, System.nanoTime(), false);
+                throw e;
+            }
+            report.record(step, t0, System.nanoTime(), true);
+        };
+        try {
+            while (System.nanoTime() < deadline) {
+                try {
+                    vu.iteration(steps);
+                    report.iterations.increment();
+                } catch (InterruptedException ie) {
+                    throw ie;
+                } catch (Exception | AssertionError e) {
+                    report.failedIterations.increment();
+                }
+                sleepUntil(Math.min(deadline, System.nanoTime() + think()));
+            }
+        } finally {
+            try {
+                vu.close();
+            } catch (Exception e) {
+                System.out.println("[load] user " + user + " did not close cleanly: " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private long think() {
+        long nanos = thinkTime.toNanos();
+        return nanos <= 0 ? 0 : nanos / 2 + ThreadLocalRandom.current().nextLong(nanos + 1);
+    }
+
+    private static void sleepUntil(long nanoTime) throws InterruptedException {
+        long remaining = nanoTime - System.nanoTime();
+        if (remaining > 0) TimeUnit.NANOSECONDS.sleep(remaining);
+    }
+
+    /** Latency histograms and error counts per step and time window. */
+    public static final class Report {
+        private final String name;
+        private final Duration window;
+        private final long start = System.nanoTime();
+        private final Map<String, Map<Long, Bucket>> steps = new ConcurrentHashMap<>();
+        private final LongAdder activeUsers = new LongAdder();
+        private final LongAdder failedUsers = new LongAdder();
+        private final LongAdder iterations = new LongAdder();
+        private final LongAdder failedIterations = new LongAdder();
+        private volatile long elapsedNanos;
+
+        Report(String name, Duration window) {
+            this.name = name;
+            this.window = window;
+        }
+
+        // a step belongs to the window in which it finished
+        void record(String step, long startNanos, long endNanos, boolean ok) {
+            long index = (endNanos - start) / Math.max(1, window.toNanos());
+            Bucket bucket = steps.computeIfAbsent(step, s -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(index, i -> new Bucket());
+            if (ok) bucket.latency.record((endNanos - startNanos) / 1_000L);
+            else bucket.errors.increment();
+        }
+
+        public long iterations() {
+            return iterations.sum();
+        }
+
+        public long failedIterations() {
+            return failedIterations.sum();
+        }
+
+        public long activeUsers() {
+            return activeUsers.sum();
+        }
+
+        /** Users whose creation failed (e.g. the browser did not launch). */
+        public long failedUsers() {
+            return failedUsers.sum();
+        }
+
+        /** Successful executions of {@code step} over the whole run. */
+        public long count(String step) {
+            return steps.getOrDefault(step, Map.of()).values().stream().mapToLong(b -> b.latency.count()).sum();
+        }
+
+        public long errors(String step) {
+            return steps.getOrDefault(step, Map.of()).values().stream().mapToLong(b -> b.errors.sum()).sum();
+        }
+
+        /** CSV rows {@code windowStartS,step,count,errors,perSecond,p50Ms,p90Ms,p99Ms,maxMs}, by window then step. */
+        public List<String> rows() {
+            List<String> rows = new ArrayList<>();
+            double seconds = window.toMillis() / 1000.0;
+            Map<Long, Map<String, Bucket>> byWindow = new TreeMap<>();
+            steps.forEach((step, buckets) -> buckets.forEach((i, b) -> byWindow.computeIfAbsent(i, k -> new TreeMap<>()).put(step, b)));
+            byWindow.forEach((i, byStep) -> byStep.forEach((step, b) -> rows.add(String.format(Locale.ROOT,
+                    "%.0f,%s,%d,%d,%.2f,%.1f,%.1f,%.1f,%.1f", i * seconds, step, b.latency.count(), b.errors.sum(),
+                    b.latency.count() / seconds, b.latency.percentileMicros(50) / 1000.0, b.latency.percentileMicros(90) / 1000.0,
+                    b.latency.percentileMicros(99) / 1000.0, b.latency.maxMicros() / 1000.0))));
+            return rows;
+        }
+
+        /** Writes the time series to {@code target/load/<name>.csv} and prints a one-line summary per step. */
+        public Path write() throws IOException {
+            Path out = Path.of("target", "load", name + ".csv");
+            Files.createDirectories(out.getParent());
+            Files.writeString(out, "windowStartS,step,count,errors,perSecond,p50Ms,p90Ms,p99Ms,maxMs\n" + String.join("\n", rows()) + "\n");
+            double seconds = Math.max(1, elapsedNanos) / 1e9;
+            System.out.printf(Locale.ROOT, "[load] %s: %d user(s) (%d failed to start), %d iteration(s) (%d failed) in %.1f s%n",
+                    name, activeUsers(), failedUsers(), iterations(), failedIterations(), seconds);
+            new TreeMap<>(steps).forEach((step, buckets) -> {
+                LatencyHistogram all = new LatencyHistogram();
+                buckets.values().forEach(b -> all.merge(b.latency));
+                System.out.printf(Locale.ROOT, "[load]   %-14s %6.2f/s  p50 %.0f ms  p90 %.0f ms  p99 %.0f ms  errors %d%n",
+                        step, all.count() / seconds, all.percentileMicros(50) / 1000.0, all.percentileMicros(90) / 1000.0,
+                        all.percentileMicros(99) / 1000.0, errors(step));
+            });
+            return out;
+        }
+    }
+
+    private static final class Bucket {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder errors = new LongAdder();
+    }
+}
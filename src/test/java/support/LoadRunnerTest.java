@@ -0,0 +1,84 @@
+package support;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoadRunnerTest {
+
+    @Test
+    public void everyUserRunsOnItsOwnVirtualThreadUntilTheDurationIsOver() throws Exception {
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        LoadRunner.Report report = LoadRunner.configured()
+                .withUsers(20).withRampUp(Duration.ZERO).withThinkTime(Duration.ofMillis(10))
+                .withDuration(Duration.ofMillis(300)).withWindow(Duration.ofMillis(100))
+                .run("fake", user -> steps -> {
+                    threads.add(Thread.currentThread());
+                    steps.time("step", () -> Thread.sleep(5));
+                });
+
+        assertEquals(20, report.activeUsers());
+        assertEquals(20, threads.size());
+        assertTrue(threads.stream().allMatch(Thread::isVirtual));
+        assertTrue(report.iterations() >= 20 * 5, "each user should loop for the whole duration: " + report.iterations());
+        assertEquals(report.iterations(), report.count("step"));
+    }
+
+    @Test
+    public void usersStartSpreadOverTheRampUp() throws Exception {
+        List<Long> starts = new CopyOnWriteArrayList<>();
+        long t0 = System.nanoTime();
+        LoadRunner.configured()
+                .withUsers(4).withRampUp(Duration.ofMillis(400)).withThinkTime(Duration.ofSeconds(10))
+                .withDuration(Duration.ofMillis(500))
+                .run("ramp", user -> {
+                    starts.add((System.nanoTime() - t0) / 1_000_000L);
+                    return steps -> { };
+                });
+
+        List<Long> sorted = starts.stream().sorted().toList();
+        assertEquals(4, sorted.size());
+        assertTrue(sorted.get(0) < 100, "first user starts right away: " + sorted);
+        assertTrue(sorted.get(3) >= 290, "last user starts after 3/4 of the ramp-up: " + sorted);
+    }
+
+    @Test
+    public void failedStepsAreCountedAndEndTheIteration() throws Exception {
+        LoadRunner.Report report = LoadRunner.configured()
+                .withUsers(2).withRampUp(Duration.ZERO).withThinkTime(Duration.ZERO)
+                .withDuration(Duration.ofMillis(100))
+                .run("errors", user -> steps -> {
+                    steps.time("fill", () -> { });
+                    steps.time("submit", () -> { throw new IllegalStateException("boom"); });
+                    steps.time("notification", () -> fail("not reached"));
+                });
+
+        assertTrue(report.failedIterations() > 0);
+        assertEquals(report.failedIterations(), report.errors("submit"));
+        assertEquals(report.count("fill"), report.errors("submit"));
+        assertEquals(0, report.count("notification") + report.errors("notification"));
+    }
+
+    @Test
+    public void rowsAreATimeSeriesPerStep() throws Exception {
+        LoadRunner.Report report = LoadRunner.configured()
+                .withUsers(1).withRampUp(Duration.ZERO).withThinkTime(Duration.ZERO)
+                .withDuration(Duration.ofMillis(250)).withWindow(Duration.ofMillis(100))
+                .run("series", user -> steps -> {
+                    steps.time("a", () -> Thread.sleep(2));
+                    steps.time("b", () -> Thread.sleep(1));
+                });
+
+        List<String> rows = report.rows();
+        assertTrue(rows.size() >= 4, "at least two windows of two steps: " + rows);
+        assertTrue(rows.get(0).startsWith("0,a,"), rows.get(0));
+        assertTrue(rows.get(1).startsWith("0,b,"), rows.get(1));
+        assertEquals(9, rows.get(0).split(",").length);
+    }
+}
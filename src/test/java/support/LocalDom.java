@@ -0,0 +1,34 @@
+package support;
+
+import org.htmlunit.BrowserVersion;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
+
+import java.net.URL;
+
+/**
+ * Browserless mode for checks against local HTML fixtures: an in-JVM DOM engine (HtmlUnit) behind the regular
+ * {@link WebDriver} API, with the page's own scripts and CSS visibility, so page objects and test code run unchanged
+ * but no browser process is started.
+ * <p>
+ * On by default; {@code -Dpiloto.browserless=false} loads the fixtures in a pooled browser instead (e.g. for element
+ * screenshots, which HtmlUnit cannot take). Not for live sites: no layout, so sizes and hit-testing are approximations.
+ */
+public final class LocalDom {
+
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("piloto.browserless", "true"));
+
+    private LocalDom() {
+    }
+
+    public static boolean enabled() {
+        return ENABLED;
+    }
+
+    /** Loads {@code page} (e.g. a classpath resource) in a new in-JVM driver; the caller quits it. */
+    public static WebDriver open(URL page) {
+        HtmlUnitDriver driver = new HtmlUnitDriver(BrowserVersion.CHROME, true);
+        driver.get(page.toExternalForm());
+        return driver;
+    }
+}
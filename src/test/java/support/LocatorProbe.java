@@ -0,0 +1,225 @@
+package support;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.FluentWait;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Finds the first matching element among several candidate locators with a single script per poll tick.
+ * <p>
+ * Instead of waiting the full timeout on each {@link By} in turn, every tick checks all candidates in the page. The
+ * declaration order is the priority, as with a chain of {@code findElement} calls: the first candidate with a match
+ * wins, and the candidates after it are not evaluated at all, so expensive XPath fallbacks only run while the preferred
+ * locators are missing. The candidate that won for each logical element ({@code key}) on each origin is kept in
+ * {@code .piloto-cache/locator-winners.properties} for the hit / stale metrics only; it never changes which element
+ * is returned or how long a lookup waits.
+ * <pre>
+ * WebElement search = LocatorProbe.of(driver).findVisible("jetbrains.searchOpener", Duration.ofSeconds(8),
+ *         By.cssSelector("[data-test='search-button']"), By.cssSelector("button[aria-label*='Search']"));
+ * </pre>
+ * The document root, {@code <head>} and {@code <body>} never count as a match, so broad XPath fallbacks such as
+ * {@code //*[contains(., 'x')]} cannot return (or be remembered as) the whole page. Cache hits / misses are available
+ * from {@link #metrics()} and printed when the JVM exits.
+ */
+public final class LocatorProbe {
+
+    private static final Path CACHE = Path.of(".piloto-cache", "locator-winners.properties");
+    private static final Duration POLL = Duration.ofMillis(100);
+
+    private static final String SCRIPT = String.join("\n",
+            "var candidates = arguments[0], visibleOnly = arguments[1];",
+            "function visible(e) { if (!visibleOnly) return true; var r = e.getBoundingClientRect(), cs = getComputedStyle(e);",
+            "  return r.width > 0 && r.height > 0 && cs.visibility !== 'hidden' && cs.display !== 'none'; }",
+            "function all(kind, v) {",
+            "  switch (kind) {",
+            "    case 'css': return document.querySelectorAll(v);",
+            "    case 'id': return document.querySelectorAll('[id=\"' + CSS.escape(v) + '\"]');",
+            "    case 'name': return document.querySelectorAll('[name=\"' + CSS.escape(v) + '\"]');",
+            "    case 'tag': return document.getElementsByTagName(v);",
+            "    case 'class': return document.getElementsByClassName(v);",
+            "    case 'link': case 'partialLink':",
+            "      return Array.prototype.filter.call(document.getElementsByTagName('a'), function (a) {",
+            "        var t = a.innerText.trim(); return kind === 'link' ? t === v : t.indexOf(v) >= 0; });",
+            "    case 'xpath': var out = [], s = document.evaluate(v, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);",
+            "      for (var i = 0; i < s.snapshotLength; i++) if (s.snapshotItem(i).nodeType === 1) out.push(s.snapshotItem(i));",
+            "      return out;",
+            "  }",
+            "  return [];",
+            "}",
+            "function page(e) { return e !== document.documentElement && e !== document.body",
+            "  && !(document.head && (e === document.head || document.head.contains(e))); }",
+            "var origin = location.protocol === 'file:' ? 'file://' : location.origin;",
+            "for (var c = 0; c < candidates.length; c++) {",
+            "  var found;",
+            "  try { found = all(candidates[c][0], candidates[c][1]); } catch (e) { continue; }",
+            "  for (var i = 0; i < found.length; i++) if (page(found[i]) && visible(found[i])) return [origin, c, found[i]];",
+            "}",
+            "return [origin];");
+
+    private static final Map<String, String> WINNERS = new ConcurrentHashMap<>(load());
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+    private static final LongAdder STALE = new LongAdder();
+    private static final LongAdder NOT_FOUND = new LongAdder();
+    private static volatile boolean dirty;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(LocatorProbe::shutdown, "locator-probe"));
+    }
+
+    private final WebDriver driver;
+
+    private LocatorProbe(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    public static LocatorProbe of(WebDriver driver) {
+        return new LocatorProbe(driver);
+    }
+
+    /**
+     * First visible element matched by any of {@code candidates}, polling until {@code timeout} (zero = one check).
+     *
+     * @throws NoSuchElementException when nothing matched in time
+     */
+    public WebElement findVisible(String key, Duration timeout, By... candidates) {
+        return find(key, timeout, true, Arrays.asList(candidates));
+    }
+
+    public WebElement findVisible(String key, Duration timeout, List<By> candidates) {
+        return find(key, timeout, true, candidates);
+    }
+
+    /** Like {@link #findVisible} but accepts elements that are only present in the DOM. */
+    public WebElement findPresent(String key, Duration timeout, By... candidates) {
+        return find(key, timeout, false, Arrays.asList(candidates));
+    }
+
+    private WebElement find(String key, Duration timeout, boolean visibleOnly, List<By> candidates) {
+        List<List<String>> specs = new ArrayList<>(candidates.size());
+        for (By by : candidates) specs.add(spec(by));
+
+        String[] cacheKey = new String[1];
+        List<?>[] match = new List<?>[1];
+        try {
+            new FluentWait<>(driver)
+                    .withTimeout(timeout)
+                    .pollingEvery(POLL)
+                    .until(d -> {
+                        List<?> r = (List<?>) ((JavascriptExecutor) d).executeScript(SCRIPT, specs, visibleOnly);
+                        cacheKey[0] = r.get(0) + "|" + key;
+                        if (r.size() == 1) return false;
+                        match[0] = r;
+                        return true;
+                    });
+        } catch (TimeoutException e) {
+            // zero timeout or nothing matched
+        }
+        if (match[0] == null) {
+            NOT_FOUND.increment();
+            throw new NoSuchElementException("None of the candidates for '" + key + "' matched: " + candidates);
+        }
+        record(cacheKey[0], candidates.get(((Number) match[0].get(1)).intValue()));
+        return (WebElement) match[0].get(2);
+    }
+
+    private static void record(String cacheKey, By winner) {
+        String previous = WINNERS.put(cacheKey, winner.toString());
+        if (previous == null) {
+            MISSES.increment();
+            dirty = true;
+        } else if (previous.equals(winner.toString())) {
+            HITS.increment();
+        } else {
+            STALE.increment();
+            dirty = true;
+        }
+    }
+
+    // By.toString() is "By.cssSelector: ...", "By.xpath: ...", ...
+    static List<String> spec(By by) {
+        String s = by.toString();
+        int colon = s.indexOf(": ");
+        if (colon < 0) throw new IllegalArgumentException("Unsupported locator: " + s);
+        String value = s.substring(colon + 2);
+        String kind = switch (s.substring(0, colon)) {
+            case "By.cssSelector" -> "css";
+            case "By.xpath" -> "xpath";
+            case "By.id" -> "id";
+            case "By.name" -> "name";
+            case "By.tagName" -> "tag";
+            case "By.className" -> "class";
+            case "By.linkText" -> "link";
+            case "By.partialLinkText" -> "partialLink";
+            default -> throw new IllegalArgumentException("Unsupported locator: " + s);
+        };
+        return List.of(kind, value);
+    }
+
+    public static Metrics metrics() {
+        return new Metrics(HITS.sum(), MISSES.sum(), STALE.sum(), NOT_FOUND.sum());
+    }
+
+    /**
+     * hits = the same candidate won as last time; misses = no winner recorded yet; stale = a different candidate won;
+     * notFound = no candidate matched.
+     */
+    public record Metrics(long hits, long misses, long stale, long notFound) {
+        @Override
+        public String toString() {
+            return "hits=" + hits + " misses=" + misses + " stale=" + stale + " notFound=" + notFound;
+        }
+    }
+
+    private static Map<String, String> load() {
+        Properties p = new Properties();
+        if (Files.exists(CACHE)) {
+            try (Reader in = Files.newBufferedReader(CACHE)) {
+                p.load(in);
+            } catch (IOException | IllegalArgumentException e) {
+                System.out.println("Ignoring unreadable locator cache " + CACHE + ": " + e.getMessage());
+            }
+        }
+        Map<String, String> winners = new TreeMap<>();
+        // entries of the old format (no origin) are dropped
+        p.forEach((k, v) -> {
+            if (((String) k).contains("|")) winners.put((String) k, (String) v);
+        });
+        return winners;
+    }
+
+    private static void shutdown() {
+        Metrics m = metrics();
+        if (m.hits() + m.misses() + m.stale() + m.notFound() > 0) System.out.println("[locators] " + m);
+        if (!dirty) return;
+        Properties p = new Properties();
+        p.putAll(WINNERS);
+        try {
+            Files.createDirectories(CACHE.getParent());
+            try (Writer out = Files.newBufferedWriter(CACHE)) {
+                p.store(out, "Winning locator per origin|logical element (support.LocatorProbe) - safe to delete");
+            }
+        } catch (IOException ioe) {
+            System.out.println("Could not write locator cache: " + ioe.getMessage());
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package support;
+
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocatorProbeTest {
+
+    @Test
+    public void translatesTheStandardLocators() {
+        assertEquals(List.of("css", "[data-test='x'] > a"), LocatorProbe.spec(By.cssSelector("[data-test='x'] > a")));
+        assertEquals(List.of("xpath", "//a[contains(.,'Find: your')]"), LocatorProbe.spec(By.xpath("//a[contains(.,'Find: your')]")));
+        assertEquals(List.of("id", "products-page"), LocatorProbe.spec(By.id("products-page")));
+        assertEquals(List.of("name", "q"), LocatorProbe.spec(By.name("q")));
+        assertEquals(List.of("tag", "input"), LocatorProbe.spec(By.tagName("input")));
+        assertEquals(List.of("class", "main-submenu"), LocatorProbe.spec(By.className("main-submenu")));
+        assertEquals(List.of("link", "See Developer Tools"), LocatorProbe.spec(By.linkText("See Developer Tools")));
+        assertEquals(List.of("partialLink", "Developer"), LocatorProbe.spec(By.partialLinkText("Developer")));
+    }
+
+    @Test
+    public void rejectsCustomLocators() {
+        By custom = new By() {
+            @Override
+            public List<org.openqa.selenium.WebElement> findElements(org.openqa.selenium.SearchContext context) {
+                return List.of();
+            }
+
+            @Override
+            public String toString() {
+                return "custom";
+            }
+        };
+        assertThrows(IllegalArgumentException.class, () -> LocatorProbe.spec(custom));
+    }
+}
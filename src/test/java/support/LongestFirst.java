@@ -0,0 +1,142 @@
+package support;
+
+import org.junit.jupiter.api.ClassDescriptor;
+import org.junit.jupiter.api.ClassOrderer;
+import org.junit.jupiter.api.ClassOrdererContext;
+import org.junit.jupiter.api.MethodDescriptor;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.MethodOrdererContext;
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Longest-processing-time-first scheduling from {@link DurationHistory}.
+ * <ul>
+ *   <li>{@link Classes} / {@link Methods} - Jupiter orderers (set as defaults in {@code junit-platform.properties}):
+ *   the slowest classes and methods start first, so the short ones fill the idle workers at the end of a parallel
+ *   run instead of one long test running alone.</li>
+ *   <li>{@link Shard} - {@code -Dpiloto.shard=i/n} (1-based) keeps only the test classes that LPT bin-packing assigns
+ *   to fork {@code i} of {@code n}, e.g. one {@code mvn test -Dpiloto.shard=2/3} per CI job. Every fork computes the
+ *   same assignment from the same history.</li>
+ * </ul>
+ */
+public final class LongestFirst {
+
+    private LongestFirst() {
+    }
+
+    /** Test classes assigned to {@code bins} workers, longest first, each to the least loaded worker. */
+    record Packing(List<List<String>> bins, long[] loads) {
+
+        long makespan() {
+            long max = 0;
+            for (long load : loads) max = Math.max(max, load);
+            return max;
+        }
+
+        int binOf(String job) {
+            for (int i = 0; i < bins.size(); i++) {
+                if (bins.get(i).contains(job)) return i;
+            }
+            return -1;
+        }
+    }
+
+    static Packing pack(Map<String, Long> jobs, int bins) {
+        return pack(jobs, new long[bins]);
+    }
+
+    // loads may start non-zero (work already assigned); they are updated in place
+    static Packing pack(Map<String, Long> jobs, long[] loads) {
+        List<List<String>> assigned = new ArrayList<>();
+        for (int i = 0; i < loads.length; i++) assigned.add(new ArrayList<>());
+        jobs.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .forEach(job -> {
+                    int least = 0;
+                    for (int i = 1; i < loads.length; i++) {
+                        if (loads[i] < loads[least]) least = i;
+                    }
+                    assigned.get(least).add(job.getKey());
+                    loads[least] += job.getValue();
+                });
+        return new Packing(assigned, loads);
+    }
+
+    public static final class Classes implements ClassOrderer {
+        @Override
+        public void orderClasses(ClassOrdererContext context) {
+            DurationHistory history = DurationHistory.shared();
+            context.getClassDescriptors().sort(Comparator
+                    .comparingLong((ClassDescriptor c) -> history.classMillis(c.getTestClass().getName())).reversed()
+                    .thenComparing(c -> c.getTestClass().getName()));
+        }
+    }
+
+    public static final class Methods implements MethodOrderer {
+        @Override
+        public void orderMethods(MethodOrdererContext context) {
+            DurationHistory history = DurationHistory.shared();
+            context.getMethodDescriptors().sort(Comparator
+                    .comparingLong((MethodDescriptor m) -> history.millis(m.getMethod().getDeclaringClass().getName() + "#" + m.getMethod().getName())).reversed()
+                    .thenComparing(m -> m.getMethod().getName()));
+        }
+    }
+
+    /** Keeps the test classes LPT assigns to this fork ({@code piloto.shard=i/n}); everything when unset. */
+    public static final class Shard implements PostDiscoveryFilter {
+
+        private static final String SHARD = System.getProperty("piloto.shard", "");
+        // one packing per engine root, continued from the previous root's loads so Jupiter and TestNG share the forks
+        private static final Map<String, Integer> ASSIGNED = new HashMap<>();
+        private static long[] loads;
+
+        @Override
+        public FilterResult apply(TestDescriptor descriptor) {
+            if (SHARD.isBlank()) return FilterResult.included("no shard");
+            String[] in = SHARD.split("/");
+            int index = Integer.parseInt(in[0].trim()) - 1;
+            int count = Integer.parseInt(in[1].trim());
+            Optional<String> testClass = outermostClass(descriptor);
+            if (testClass.isEmpty()) return FilterResult.included("engine");
+            int shard = shardOf(testClass.get(), descriptor, count);
+            return FilterResult.includedIf(shard == index, () -> "shard " + SHARD, () -> "shard " + (shard + 1) + "/" + count);
+        }
+
+        private static synchronized int shardOf(String testClass, TestDescriptor descriptor, int count) {
+            Integer known = ASSIGNED.get(testClass);
+            if (known != null) return known;
+            if (loads == null) loads = new long[count];
+            TestDescriptor root = descriptor;
+            while (root.getParent().isPresent()) root = root.getParent().get();
+            Map<String, Long> jobs = new LinkedHashMap<>();
+            for (TestDescriptor child : root.getChildren()) {
+                if (child.getSource().orElse(null) instanceof ClassSource c && !ASSIGNED.containsKey(c.getClassName())) {
+                    jobs.put(c.getClassName(), DurationHistory.shared().classMillis(c.getClassName()));
+                }
+            }
+            // bins start from the loads already packed by earlier engine roots
+            Packing packing = pack(jobs, loads);
+            jobs.keySet().forEach(job -> ASSIGNED.put(job, packing.binOf(job)));
+            return ASSIGNED.getOrDefault(testClass, 0);
+        }
+
+        private static Optional<String> outermostClass(TestDescriptor descriptor) {
+            String found = null;
+            for (TestDescriptor d = descriptor; d != null; d = d.getParent().orElse(null)) {
+                if (d.getSource().orElse(null) instanceof ClassSource c) found = c.getClassName();
+            }
+            return Optional.ofNullable(found);
+        }
+    }
+}
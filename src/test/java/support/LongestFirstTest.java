@@ -0,0 +1,48 @@
+package support;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongestFirstTest {
+
+    @Test
+    public void longestJobsAreSpreadFirst() {
+        Map<String, Long> jobs = Map.of("MainPageTest", 45_000L, "InputsTest", 8_000L, "InteractionTests", 12_000L,
+                "DynamicLoadingTest", 10_000L, "NotificationMessagesTest", 6_000L);
+
+        LongestFirst.Packing packing = LongestFirst.pack(jobs, 2);
+
+        assertEquals(List.of("MainPageTest"), packing.bins().get(0));
+        assertEquals(45_000L, packing.makespan());
+        assertEquals(36_000L, packing.loads()[1]);
+    }
+
+    @Test
+    public void packingStartsFromExistingLoads() {
+        long[] loads = {20_000L, 0L};
+        LongestFirst.pack(Map.of("A", 5_000L, "B", 5_000L), loads);
+
+        assertArrayEquals(new long[]{20_000L, 10_000L}, loads);
+    }
+
+    @Test
+    public void historyAveragesRunsAndSurvivesSaveAndLoad(@TempDir Path dir) throws Exception {
+        DurationHistory history = new DurationHistory(Map.of());
+        history.record("org.example.piloto.MainPageTest#search", 40_000);
+        history.record("org.example.piloto.MainPageTest#search", 50_000);
+        history.record("org.example.piloto.MainPageTest#toolsMenu", 5_000);
+        Path file = dir.resolve("durations.properties");
+        history.save(file);
+
+        DurationHistory loaded = new DurationHistory(DurationHistory.load(file));
+        assertEquals(45_000, loaded.millis("org.example.piloto.MainPageTest#search"));
+        assertEquals(50_000, loaded.classMillis("org.example.piloto.MainPageTest"));
+        assertFalse(loaded.known("org.example.piloto.InputsTest#x"));
+    }
+}
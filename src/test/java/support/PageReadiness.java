@@ -0,0 +1,240 @@
+package support;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.devtools.DevTools;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Page readiness from browser events instead of long page-load timeouts or guessing with sleeps.
+ * <pre>
+ * PageReadiness.of(driver).open(url, Milestone.NETWORK_QUIET);
+ * PageReadiness.of(driver).withQuiet(Duration.ofMillis(300)).await(Milestone.DOM_CONTENT_LOADED);
+ * </pre>
+ * On Chrome the milestones come from DevTools {@code Page.lifecycleEvent} of the main frame and from counting in-flight
+ * {@code Network} requests; elsewhere an in-page script polls {@code document.readyState}, paint entries and resource
+ * timing. Like {@link PageWaits}, waits return {@code false} on timeout instead of throwing.
+ * <p>
+ * Because readiness no longer depends on {@code driver.get} blocking until {@code load}, sessions can run with the
+ * {@code eager} page-load strategy (see {@link BrowserFactory}).
+ */
+public final class PageReadiness {
+
+    public enum Milestone {
+        /** The document is parsed; what {@code eager} page loading waits for. */
+        DOM_CONTENT_LOADED,
+        /** First meaningful (or, on browsers that stopped reporting it, first contentful) paint. */
+        FIRST_MEANINGFUL_PAINT,
+        /** The {@code load} event: every subresource of the document finished. */
+        LOAD,
+        /** DOMContentLoaded and no more than {@code maxInflight} requests for the quiet period. */
+        NETWORK_QUIET
+    }
+
+    private static final String FALLBACK = String.join("\n",
+            "var milestone = arguments[0], quiet = arguments[1], timeout = arguments[2];",
+            "var done = arguments[arguments.length - 1];",
+            "var start = performance.now(), lastCount = -1, lastChange = performance.now();",
+            "function reached() {",
+            "  var rs = document.readyState;",
+            "  if (milestone === 'DOM_CONTENT_LOADED') return rs !== 'loading';",
+            "  if (milestone === 'LOAD') return rs === 'complete';",
+            "  if (milestone === 'FIRST_MEANINGFUL_PAINT') return rs !== 'loading' && performance.getEntriesByType('paint').length > 0;",
+            "  var n = performance.getEntriesByType('resource').length;",
+            "  if (n !== lastCount) { lastCount = n; lastChange = performance.now(); }",
+            "  return rs === 'complete' && performance.now() - lastChange >= quiet;",
+            "}",
+            "(function tick() {",
+            "  if (reached()) return done(true);",
+            "  if (performance.now() - start > timeout) return done(false);",
+            "  setTimeout(tick, 50);",
+            "})();");
+
+    private static final Map<WebDriver, Optional<Tracker>> TRACKERS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    static {
+        Cdp.onRetarget(TRACKERS::remove);
+    }
+
+    private final WebDriver driver;
+    private final Duration quiet;
+    private final int maxInflight;
+    private final Duration timeout;
+
+    private PageReadiness(WebDriver driver, Duration quiet, int maxInflight, Duration timeout) {
+        this.driver = driver;
+        this.quiet = quiet;
+        this.maxInflight = maxInflight;
+        this.timeout = timeout;
+    }
+
+    /** 500 ms of network quiet with no request in flight, 30 s timeout. */
+    public static PageReadiness of(WebDriver driver) {
+        return new PageReadiness(driver, Duration.ofMillis(500), 0, Duration.ofSeconds(30));
+    }
+
+    public PageReadiness withQuiet(Duration quiet) {
+        return new PageReadiness(driver, quiet, maxInflight, timeout);
+    }
+
+    /** Requests allowed to stay open during the quiet period (long polling, beacons). */
+    public PageReadiness withMaxInflight(int maxInflight) {
+        return new PageReadiness(driver, quiet, maxInflight, timeout);
+    }
+
+    public PageReadiness withTimeout(Duration timeout) {
+        return new PageReadiness(driver, quiet, maxInflight, timeout);
+    }
+
+    /** Navigates to {@code url} and waits for {@code until} on the new document. */
+    public boolean open(String url, Milestone until) {
+        Optional<Tracker> tracker = tracker();
+        long generation = tracker.map(Tracker::generation).orElse(0L);
+        driver.get(url);
+        long deadline = System.nanoTime() + timeout.toNanos();
+        if (tracker.isPresent() && tracker.get().awaitNewDocument(generation, deadline)) {
+            return tracker.get().await(until, quiet.toNanos(), maxInflight, deadline);
+        }
+        // same-document navigation, or no DevTools: ask the page itself
+        return fallback(until);
+    }
+
+    /** Waits for {@code until} on the current document (e.g. after a click that navigated). */
+    public boolean await(Milestone until) {
+        Optional<Tracker> tracker = tracker();
+        if (tracker.isPresent()) {
+            return tracker.get().await(until, quiet.toNanos(), maxInflight, System.nanoTime() + timeout.toNanos());
+        }
+        return fallback(until);
+    }
+
+    private Optional<Tracker> tracker() {
+        WebDriver raw = Cdp.unwrap(driver);
+        synchronized (TRACKERS) {
+            return TRACKERS.computeIfAbsent(raw, d -> Cdp.session(d).flatMap(Tracker::attach));
+        }
+    }
+
+    private boolean fallback(Milestone until) {
+        try {
+            // the in-page wait gives up after timeout; the session must not give up first
+            Object ok = PageWaits.withScriptTimeout(driver, timeout.plusSeconds(2), () -> ((JavascriptExecutor) driver)
+                    .executeAsyncScript(FALLBACK, until.name(), quiet.toMillis(), timeout.toMillis()));
+            return Boolean.TRUE.equals(ok);
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    /** Lifecycle events of the main frame and in-flight requests of one browser tab, fed by DevTools events. */
+    private static final class Tracker {
+        private final String mainFrame;
+        private final Map<String, Long> events = new HashMap<>();
+        private final Set<String> inflight = new HashSet<>();
+        private long generation;
+        private long lastActivity = System.nanoTime();
+
+        private Tracker(String mainFrame) {
+            this.mainFrame = mainFrame;
+        }
+
+        @SuppressWarnings("unchecked")
+        static Optional<Tracker> attach(DevTools devTools) {
+            try {
+                Cdp.send(devTools, "Page.enable", Map.of());
+                Cdp.send(devTools, "Page.setLifecycleEventsEnabled", Map.of("enabled", true));
+                Cdp.send(devTools, "Network.enable", Map.of());
+                Map<String, Object> tree = (Map<String, Object>) Cdp.send(devTools, "Page.getFrameTree", Map.of()).get("frameTree");
+                Tracker tracker = new Tracker(Cdp.string((Map<String, Object>) tree.get("frame"), "id"));
+                Cdp.on(devTools, "Page.lifecycleEvent", tracker::onLifecycle);
+                Cdp.on(devTools, "Network.requestWillBeSent", e -> {
+                    // a redirect reuses the request id of a request already in flight
+                    if (!e.containsKey("redirectResponse")) tracker.onRequest(Cdp.string(e, "requestId"), true);
+                });
+                Cdp.on(devTools, "Network.loadingFinished", e -> tracker.onRequest(Cdp.string(e, "requestId"), false));
+                Cdp.on(devTools, "Network.loadingFailed", e -> tracker.onRequest(Cdp.string(e, "requestId"), false));
+                return Optional.of(tracker);
+            } catch (Exception e) {
+                System.out.println("[readiness] DevTools lifecycle events unavailable, using in-page checks: " + e.getMessage());
+                return Optional.empty();
+            }
+        }
+
+        synchronized void onLifecycle(Map<String, Object> e) {
+            if (!mainFrame.equals(Cdp.string(e, "frameId"))) return;
+            String name = Cdp.string(e, "name");
+            if (name.equals("init")) {
+                generation++;
+                events.clear();
+                inflight.clear();
+            }
+            events.put(name, System.nanoTime());
+            notifyAll();
+        }
+
+        synchronized void onRequest(String requestId, boolean started) {
+            if (started) inflight.add(requestId);
+            else inflight.remove(requestId);
+            lastActivity = System.nanoTime();
+            notifyAll();
+        }
+
+        synchronized long generation() {
+            return generation;
+        }
+
+        synchronized boolean awaitNewDocument(long before, long deadline) {
+            // lifecycle events arrive asynchronously; with eager loading get() may return before "init" is seen
+            long limit = Math.min(deadline, System.nanoTime() + Duration.ofSeconds(2).toNanos());
+            while (generation == before) {
+                if (!sleepUntil(limit, Long.MAX_VALUE)) return false;
+            }
+            return true;
+        }
+
+        synchronized boolean await(Milestone until, long quietNanos, int maxInflight, long deadline) {
+            while (true) {
+                long now = System.nanoTime();
+                long wakeUp = Long.MAX_VALUE;
+                boolean reached = switch (until) {
+                    case DOM_CONTENT_LOADED -> events.containsKey("DOMContentLoaded");
+                    case FIRST_MEANINGFUL_PAINT -> events.containsKey("firstMeaningfulPaint") || events.containsKey("firstContentfulPaint");
+                    case LOAD -> events.containsKey("load");
+                    case NETWORK_QUIET -> {
+                        if (!events.containsKey("DOMContentLoaded") || inflight.size() > maxInflight) yield false;
+                        long quietFor = now - lastActivity;
+                        if (quietFor >= quietNanos) yield true;
+                        wakeUp = lastActivity + quietNanos;
+                        yield false;
+                    }
+                };
+                if (reached) return true;
+                if (!sleepUntil(deadline, wakeUp)) return false;
+            }
+        }
+
+        // waits for an event or until the earlier of both times; false once the deadline passed
+        private boolean sleepUntil(long deadline, long wakeUp) {
+            long remaining = Math.min(deadline, wakeUp) - System.nanoTime();
+            if (System.nanoTime() >= deadline) return false;
+            if (remaining > 0) {
+                try {
+                    wait(Math.max(1, remaining / 1_000_000L));
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
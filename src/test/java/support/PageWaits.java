@@ -0,0 +1,151 @@
+package support;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Event-driven waits backed by in-page observers (MutationObserver, focus and input listeners).
+ * <p>
+ * Each wait is a single {@code executeAsyncScript} round trip that resolves as soon as the condition holds, so it
+ * replaces fixed sleeps without polling from Java. Waits never throw on timeout (they replace sleeps, which never
+ * failed either): they return {@code false} and the caller decides.
+ * <pre>
+ * PageWaits.of(driver).insteadOf(500).untilFocusedEditable(Duration.ofSeconds(5));
+ * </pre>
+ * {@link #insteadOf(long)} records the sleep being replaced, so {@link WaitReport} can show the idle time removed.
+ */
+public final class PageWaits {
+
+    private static final String SCRIPT = String.join("\n",
+            "var kind = arguments[0], arg = arguments[1], timeout = arguments[2], el = arguments[3];",
+            "var done = arguments[arguments.length - 1];",
+            "var start = performance.now(), finished = false, lastMutation = performance.now(), observer, timer, quietTimer;",
+            "function deepActive() { var a = document.activeElement;",
+            "  while (a && a.shadowRoot && a.shadowRoot.activeElement) a = a.shadowRoot.activeElement; return a; }",
+            "function editable(a) { return !!a && (a.tagName === 'INPUT' || a.tagName === 'TEXTAREA' || a.isContentEditable); }",
+            "function visible(e) { var r = e.getBoundingClientRect(); var cs = getComputedStyle(e);",
+            "  return r.width > 0 && r.height > 0 && cs.visibility !== 'hidden' && cs.display !== 'none'; }",
+            "function holds() {",
+            "  switch (kind) {",
+            "    case 'present': return Array.prototype.some.call(document.querySelectorAll(arg), visible);",
+            "    case 'absent': return !Array.prototype.some.call(document.querySelectorAll(arg), visible);",
+            "    case 'focus': return editable(deepActive());",
+            "    case 'focusValue': var a = deepActive(); return editable(a) && a.value === arg;",
+            "    case 'attribute': return el.getAttribute(arg[0]) === arg[1];",
+            "    case 'quiet': return performance.now() - lastMutation >= arg;",
+            "  }",
+            "  return false;",
+            "}",
+            "function finish(ok) { if (finished) return; finished = true;",
+            "  if (observer) observer.disconnect(); clearTimeout(timer); clearTimeout(quietTimer);",
+            "  document.removeEventListener('focusin', check, true); document.removeEventListener('input', check, true);",
+            "  done({ok: ok, elapsed: Math.round(performance.now() - start)}); }",
+            "function check() { if (holds()) finish(true); }",
+            "function onMutation() { lastMutation = performance.now();",
+            "  if (kind === 'quiet') { clearTimeout(quietTimer); quietTimer = setTimeout(check, arg); } else check(); }",
+            "if (kind !== 'quiet' && holds()) { finish(true); return; }",
+            "observer = new MutationObserver(onMutation);",
+            "observer.observe(el && kind === 'attribute' ? el : document.documentElement,",
+            "  {subtree: true, childList: true, attributes: true, characterData: true});",
+            "document.addEventListener('focusin', check, true);",
+            "document.addEventListener('input', check, true);",
+            "if (kind === 'quiet') quietTimer = setTimeout(check, arg);",
+            "timer = setTimeout(function () { finish(holds()); }, timeout);");
+
+    private static final String NOTIFICATIONS = "vaadin-notification-card, [role='alert'], #flash";
+
+    private final WebDriver driver;
+    private final long replacedSleepMs;
+
+    private PageWaits(WebDriver driver, long replacedSleepMs) {
+        this.driver = driver;
+        this.replacedSleepMs = replacedSleepMs;
+    }
+
+    public static PageWaits of(WebDriver driver) {
+        return new PageWaits(driver, 0);
+    }
+
+    /** The fixed sleep this wait replaces; only used for {@link WaitReport}. */
+    public PageWaits insteadOf(long sleepMs) {
+        return new PageWaits(driver, sleepMs);
+    }
+
+    /** An element matching {@code cssSelector} is in the DOM and visible. */
+    public boolean untilVisible(String cssSelector, Duration timeout) {
+        return run("present", cssSelector, null, timeout);
+    }
+
+    /** No visible element matches {@code cssSelector} (removed or hidden). */
+    public boolean untilGone(String cssSelector, Duration timeout) {
+        return run("absent", cssSelector, null, timeout);
+    }
+
+    /** Focus is on an input/textarea/contenteditable, looking through shadow roots (Vaadin fields). */
+    public boolean untilFocusedEditable(Duration timeout) {
+        return run("focus", null, null, timeout);
+    }
+
+    /** The focused editable element holds exactly {@code value} (typing has been applied). */
+    public boolean untilFocusedValue(String value, Duration timeout) {
+        return run("focusValue", value, null, timeout);
+    }
+
+    /** A notification (Vaadin notification card, alert or flash message) is shown. */
+    public boolean untilNotification(Duration timeout) {
+        return run("present", NOTIFICATIONS, null, timeout);
+    }
+
+    /** {@code attribute} of {@code element} equals {@code expected} ({@code null} = attribute absent). */
+    public boolean untilAttribute(WebElement element, String attribute, String expected, Duration timeout) {
+        return run("attribute", new String[]{attribute, expected}, element, timeout);
+    }
+
+    /** No DOM mutation for {@code quietMs} - replacement for "let the layout settle" pauses. */
+    public boolean untilDomQuiet(long quietMs, Duration timeout) {
+        return run("quiet", quietMs, null, timeout);
+    }
+
+    private boolean run(String kind, Object arg, WebElement element, Duration timeout) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            Object result = withScriptTimeout(driver, timeout.plusSeconds(2), () -> ((JavascriptExecutor) driver).executeAsyncScript(SCRIPT, kind,
+                    arg instanceof String[] ? java.util.Arrays.asList((String[]) arg) : arg, timeout.toMillis(), element));
+            ok = result instanceof Map && Boolean.TRUE.equals(((Map<?, ?>) result).get("ok"));
+        } catch (Exception e) {
+            // page navigated away mid-wait, window closed, ... - behave like the sleep it replaces
+        }
+        WaitReport.record(caller(), replacedSleepMs, (System.nanoTime() - start) / 1_000_000L);
+        return ok;
+    }
+
+    /** Runs {@code script} with the session's script timeout raised to {@code scriptTimeout}, then puts the old one back. */
+    static <T> T withScriptTimeout(WebDriver driver, Duration scriptTimeout, Supplier<T> script) {
+        WebDriver.Timeouts timeouts = driver.manage().timeouts();
+        Duration previous = timeouts.getScriptTimeout();
+        timeouts.scriptTimeout(scriptTimeout);
+        try {
+            return script.get();
+        } finally {
+            timeouts.scriptTimeout(previous);
+        }
+    }
+
+    private static String caller() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(f -> !f.getClassName().equals(PageWaits.class.getName()))
+                .findFirst()
+                .map(f -> simpleName(f.getClassName()) + "." + f.getMethodName())
+                .orElse("?"));
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+}
@@ -0,0 +1,47 @@
+package support;
+
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.support.hierarchical.ParallelExecutionConfiguration;
+import org.junit.platform.engine.support.hierarchical.ParallelExecutionConfigurationStrategy;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * JUnit parallel strategy that sizes the worker count from CPU cores and free physical memory, since every worker
+ * holds its own browser.
+ * <p>
+ * {@code workers = max(1, min(cores, freeMemoryMb / piloto.parallel.mbPerBrowser, piloto.parallel.maxWorkers))}
+ * <p>
+ * Registered in {@code junit-platform.properties}; only used when parallel execution is enabled
+ * ({@code mvn test -Pparallel}).
+ */
+public class ParallelismStrategy implements ParallelExecutionConfigurationStrategy {
+
+    private static final int KEEP_ALIVE_SECONDS = 30;
+
+    @Override
+    public ParallelExecutionConfiguration createConfiguration(ConfigurationParameters configurationParameters) {
+        int workers = workers();
+        System.out.println("[parallel] running with " + workers + " workers");
+        return new ParallelExecutionConfiguration() {
+            @Override public int getParallelism() { return workers; }
+            @Override public int getMinimumRunnable() { return workers; }
+            @Override public int getMaxPoolSize() { return workers; }
+            @Override public int getCorePoolSize() { return workers; }
+            @Override public int getKeepAliveSeconds() { return KEEP_ALIVE_SECONDS; }
+        };
+    }
+
+    public static int workers() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        long mbPerBrowser = Long.getLong("piloto.parallel.mbPerBrowser", 512);
+        int maxWorkers = Integer.getInteger("piloto.parallel.maxWorkers", Integer.MAX_VALUE);
+
+        long byMemory = Integer.MAX_VALUE;
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os) {
+            long freeMb = os.getFreeMemorySize() / (1024 * 1024);
+            byMemory = freeMb / Math.max(1, mbPerBrowser);
+        }
+        return (int) Math.max(1, Math.min(Math.min(cores, byMemory), maxWorkers));
+    }
+}
@@ -0,0 +1,52 @@
+package support;
+
+/**
+ * Tolerant pixel comparison of two images given as ARGB {@code int[]} (as returned by
+ * {@code BufferedImage.getRGB(0, 0, w, h, null, 0, w)}): one pass over the arrays, channels unpacked with shifts, no
+ * object per pixel.
+ * <p>
+ * A pixel differs when any channel (alpha included) moves by more than {@code tolerance} (0-255), which absorbs
+ * anti-aliasing and font smoothing noise; the caller decides how many differing pixels are acceptable.
+ */
+public final class PixelDiff {
+
+    private static final int MARK = 0xFFFF0000;
+
+    public record Result(int width, int height, long differing, int maxDelta) {
+
+        public double ratio() {
+            long total = (long) width * height;
+            return total == 0 ? 0 : (double) differing / total;
+        }
+    }
+
+    private PixelDiff() {
+    }
+
+    /**
+     * @param highlight optional array of the same length, filled with the actual image faded and differing pixels red
+     */
+    public static Result compare(int[] expected, int[] actual, int width, int height, int tolerance, int[] highlight) {
+        int n = width * height;
+        if (expected.length < n || actual.length < n) {
+            throw new IllegalArgumentException("Arrays smaller than " + width + "x" + height);
+        }
+        long differing = 0;
+        int maxDelta = 0;
+        for (int i = 0; i < n; i++) {
+            int a = expected[i], b = actual[i];
+            int delta = 0;
+            if (a != b) {
+                delta = Math.max(
+                        Math.max(Math.abs((a >>> 24) - (b >>> 24)), Math.abs(((a >> 16) & 0xFF) - ((b >> 16) & 0xFF))),
+                        Math.max(Math.abs(((a >> 8) & 0xFF) - ((b >> 8) & 0xFF)), Math.abs((a & 0xFF) - (b & 0xFF))));
+                if (delta > maxDelta) maxDelta = delta;
+                if (delta > tolerance) differing++;
+            }
+            if (highlight != null) {
+                highlight[i] = delta > tolerance ? MARK : 0xFF000000 | (((b >> 1) & 0x7F7F7F) + 0x808080);
+            }
+        }
+        return new Result(width, height, differing, maxDelta);
+    }
+}
@@ -0,0 +1,95 @@
+package support;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PixelDiffTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void identicalArraysHaveNoDifference() {
+        int[] a = filled(100, 0xFF336699);
+
+        PixelDiff.Result r = PixelDiff.compare(a, a.clone(), 10, 10, 0, null);
+
+        assertEquals(0, r.differing());
+        assertEquals(0, r.maxDelta());
+    }
+
+    @Test
+    public void toleranceAbsorbsSmallChannelChanges() {
+        int[] expected = filled(100, 0xFF336699);
+        int[] actual = expected.clone();
+        actual[0] = 0xFF38669A; // red +5, blue +1
+        actual[1] = 0x80336699; // alpha -127
+        int[] highlight = new int[100];
+
+        PixelDiff.Result r = PixelDiff.compare(expected, actual, 10, 10, 8, highlight);
+
+        assertEquals(1, r.differing());
+        assertEquals(127, r.maxDelta());
+        assertEquals(0.01, r.ratio(), 1e-9);
+        assertNotEquals(0xFFFF0000, highlight[0]);
+        assertEquals(0xFFFF0000, highlight[1]);
+    }
+
+    @Test
+    public void newBaselineThenMatchThenMismatch() throws Exception {
+        // one differing pixel of 1600 is 0.06%: over a 0.05% limit
+        VisualCheckpoint.Baselines baselines = new VisualCheckpoint.Baselines(dir.resolve("visual"), dir.resolve("out"), 16, 0.0005, false);
+        byte[] original = png(0xFF336699, -1);
+
+        VisualCheckpoint.Result first = baselines.check("form", original);
+        VisualCheckpoint.Result same = baselines.check("form", original);
+        VisualCheckpoint.Result changed = baselines.check("form", png(0xFF336699, 0xFFFFFF00));
+
+        assertEquals(VisualCheckpoint.Status.NEW_BASELINE, first.status());
+        assertTrue(Files.exists(baselines.object(first.sha256())));
+        assertTrue(Files.readString(dir.resolve("visual/index.properties")).contains("form=" + first.sha256()));
+        assertEquals(VisualCheckpoint.Status.MATCH, same.status());
+        assertNull(same.diff(), "same hash, nothing decoded");
+        assertEquals(VisualCheckpoint.Status.MISMATCH, changed.status());
+        assertEquals(1, changed.diff().differing());
+        assertTrue(Files.exists(changed.diffImage()));
+    }
+
+    @Test
+    public void identicalImagesAreStoredOnce() throws Exception {
+        VisualCheckpoint.Baselines baselines = new VisualCheckpoint.Baselines(dir.resolve("visual"), dir.resolve("out"), 16, 0.001, false);
+        byte[] image = png(0xFF000000, -1);
+
+        baselines.check("a", image);
+        baselines.check("b", image);
+
+        try (var files = Files.walk(dir.resolve("visual/objects"))) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    private static int[] filled(int n, int argb) {
+        int[] pixels = new int[n];
+        Arrays.fill(pixels, argb);
+        return pixels;
+    }
+
+    // 40x40 image of one colour; a non-negative spot paints pixel (3, 3)
+    private static byte[] png(int argb, int spot) throws Exception {
+        BufferedImage image = new BufferedImage(40, 40, BufferedImage.TYPE_INT_ARGB);
+        image.setRGB(0, 0, 40, 40, filled(1600, argb), 0, 40);
+        if (spot != -1) image.setRGB(3, 3, spot);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,84 @@
+package support;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-test checkout and reset latency of the {@link DriverPool}.
+ * <p>
+ * Written to {@code target/driver-pool/latency.csv} when the JVM exits, together with a one line summary
+ * estimating the wall-clock saved by reusing warm sessions (warm checkouts x average cold launch - reset cost).
+ */
+public final class PoolLatencyReport {
+
+    private static final Path OUT = Path.of("target", "driver-pool", "latency.csv");
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final List<Entry> finished = new ArrayList<>();
+
+    void checkedOut(String testName, long nanos, boolean warm) {
+        entries.put(testName, new Entry(testName, nanos, warm));
+    }
+
+    void released(String testName, long resetNanos) {
+        Entry e = entries.remove(testName);
+        if (e == null) return;
+        e.resetNanos = resetNanos;
+        synchronized (finished) {
+            finished.add(e);
+        }
+    }
+
+    public synchronized void write() {
+        List<Entry> snapshot;
+        synchronized (finished) {
+            snapshot = new ArrayList<>(finished);
+        }
+        if (snapshot.isEmpty()) return;
+
+        long coldCount = 0, coldNanos = 0, warmCount = 0, resetNanos = 0;
+        StringBuilder csv = new StringBuilder("test,warm,checkoutMs,resetMs\n");
+        for (Entry e : snapshot) {
+            csv.append(e.test.replace(',', ';')).append(',')
+                    .append(e.warm).append(',')
+                    .append(millis(e.checkoutNanos)).append(',')
+                    .append(millis(e.resetNanos)).append('\n');
+            if (e.warm) warmCount++; else { coldCount++; coldNanos += e.checkoutNanos; }
+            resetNanos += e.resetNanos;
+        }
+        long avgCold = coldCount == 0 ? 0 : coldNanos / coldCount;
+        long saved = warmCount * avgCold - resetNanos;
+
+        try {
+            Files.createDirectories(OUT.getParent());
+            Files.writeString(OUT, csv.toString());
+        } catch (IOException ioe) {
+            System.out.println("Could not write driver pool report: " + ioe.getMessage());
+        }
+        System.out.println("[driver-pool] " + snapshot.size() + " tests, " + warmCount + " warm / " + coldCount
+                + " cold checkouts, avg cold launch " + millis(avgCold) + " ms, total reset " + millis(resetNanos)
+                + " ms, estimated saving " + millis(saved) + " ms. Details: " + OUT.toAbsolutePath());
+    }
+
+    private static String millis(long nanos) {
+        return String.valueOf(nanos / 1_000_000L);
+    }
+
+    private static final class Entry {
+        final String test;
+        final long checkoutNanos;
+        final boolean warm;
+        long resetNanos;
+
+        Entry(String test, long checkoutNanos, boolean warm) {
+            this.test = test;
+            this.checkoutNanos = checkoutNanos;
+            this.warm = warm;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package support;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Memory and CPU of a process and all its descendants (e.g. chromedriver, Chrome and its renderers), read from
+ * {@code /proc}. On systems without {@code /proc} every figure is zero.
+ * <p>
+ * {@link #pssBytes()} (proportional set size) splits pages shared between processes, so summing it over the many
+ * Chrome processes does not count the shared libraries once per process as {@link #rssBytes()} does; it falls back to
+ * RSS where {@code smaps_rollup} is unreadable.
+ */
+public final class ProcessTree {
+
+    private static final Path PROC = Path.of("/proc");
+
+    private final long root;
+    private final List<Long> pids;
+    private final long rssBytes;
+    private final long pssBytes;
+    private final long cpuTicks;
+
+    private ProcessTree(long root, List<Long> pids, long rssBytes, long pssBytes, long cpuTicks) {
+        this.root = root;
+        this.pids = pids;
+        this.rssBytes = rssBytes;
+        this.pssBytes = pssBytes;
+        this.cpuTicks = cpuTicks;
+    }
+
+    /** Snapshot of {@code pid} and its descendants; empty once the process is gone. */
+    public static Optional<ProcessTree> of(long pid) {
+        Optional<ProcessHandle> handle = ProcessHandle.of(pid);
+        if (handle.isEmpty() || !handle.get().isAlive()) return Optional.empty();
+        List<Long> pids = new ArrayList<>();
+        pids.add(pid);
+        handle.get().descendants().forEach(p -> pids.add(p.pid()));
+        long rss = 0, pss = 0, cpu = 0;
+        for (long p : pids) {
+            long r = read(p, "status").map(s -> kbField(s, "VmRSS:")).orElse(0L) * 1024;
+            long proportional = read(p, "smaps_rollup").map(s -> kbField(s, "Pss:")).orElse(0L) * 1024;
+            rss += r;
+            pss += proportional > 0 ? proportional : r;
+            cpu += read(p, "stat").map(ProcessTree::cpuTicks).orElse(0L);
+        }
+        return Optional.of(new ProcessTree(pid, List.copyOf(pids), rss, pss, cpu));
+    }
+
+    public long root() {
+        return root;
+    }
+
+    public List<Long> pids() {
+        return pids;
+    }
+
+    public long rssBytes() {
+        return rssBytes;
+    }
+
+    public long pssBytes() {
+        return pssBytes;
+    }
+
+    /** User + system CPU time of the live processes, in clock ticks (usually 1/100 s). */
+    public long cpuTicks() {
+        return cpuTicks;
+    }
+
+    private static Optional<String> read(long pid, String file) {
+        try {
+            return Optional.of(Files.readString(PROC.resolve(Long.toString(pid)).resolve(file), StandardCharsets.ISO_8859_1));
+        } catch (IOException | SecurityException e) {
+            return Optional.empty();
+        }
+    }
+
+    /** Value in kB of a {@code Name:   1234 kB} line of /proc/pid/status or smaps_rollup, 0 when absent. */
+    static long kbField(String content, String name) {
+        for (String line : content.split("\n")) {
+            if (!line.startsWith(name)) continue;
+            String[] cols = line.substring(name.length()).trim().split("\\s+");
+            try {
+                return Long.parseLong(cols[0]);
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+
+    /** utime + stime of /proc/pid/stat; fields are counted after the {@code (comm)}, which may contain spaces. */
+    static long cpuTicks(String stat) {
+        int close = stat.lastIndexOf(')');
+        if (close < 0) return 0;
+        String[] f = stat.substring(close + 2).trim().split("\\s+");
+        // f[0] is field 3 (state): utime is field 14, stime field 15
+        try {
+            return Long.parseLong(f[11]) + Long.parseLong(f[12]);
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+}
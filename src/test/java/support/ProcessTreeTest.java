@@ -0,0 +1,62 @@
+package support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProcessTreeTest {
+
+    @Test
+    public void readsKilobyteFields() {
+        String status = "Name:\tchrome\nVmPeak:\t  900 kB\nVmRSS:\t  123456 kB\nThreads:\t12\n";
+
+        assertEquals(123456, ProcessTree.kbField(status, "VmRSS:"));
+        assertEquals(0, ProcessTree.kbField(status, "Pss:"));
+    }
+
+    @Test
+    public void cpuTicksSkipTheCommandName() {
+        // the command name has spaces and a ')' of its own
+        String stat = "4242 (chrome (renderer) x) S 1 2 3 4 5 6 7 8 9 10 150 25 0 0 20 0";
+
+        assertEquals(175, ProcessTree.cpuTicks(stat));
+        assertEquals(0, ProcessTree.cpuTicks("garbage"));
+    }
+
+    @Test
+    public void includesChildProcesses() throws Exception {
+        long self = ProcessHandle.current().pid();
+        Process child = new ProcessBuilder("sleep", "30").start();
+        try {
+            ProcessTree tree = ProcessTree.of(self).orElseThrow();
+
+            assertEquals(self, tree.root());
+            assertTrue(tree.pids().contains(child.pid()), tree.pids().toString());
+            if (System.getProperty("os.name").startsWith("Linux")) {
+                assertTrue(tree.rssBytes() > 0);
+                assertTrue(tree.pssBytes() > 0);
+            }
+        } finally {
+            child.destroy();
+            child.waitFor(5, TimeUnit.SECONDS);
+        }
+        assertTrue(ProcessTree.of(child.pid()).isEmpty(), "gone once it exited");
+    }
+
+    @Test
+    public void summaryComparesWithTheOtherMode() {
+        List<SessionMemory.Sample> samples = List.of(
+                new SessionMemory.Sample("a", 4, 1, 400L << 20, 900L << 20),
+                new SessionMemory.Sample("b", 2, 1, 300L << 20, 700L << 20));
+        Properties history = new Properties();
+        history.setProperty("process", Long.toString(250L << 20));
+
+        assertEquals(125L << 20, SessionMemory.averagePerTest(samples));
+        assertEquals("[memory] contexts mode: 125 MB per concurrent test (2 samples, up to 4 tests at once)"
+                + "; process mode last run: 250 MB (-50%)", SessionMemory.summary("contexts", samples, history));
+    }
+}
@@ -0,0 +1,284 @@
+package support;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Stops third-party assets (consent SDKs, chat widgets, analytics) from loading at all, through DevTools
+ * {@code Network.setBlockedURLs}, instead of removing their overlays after they rendered.
+ * <p>
+ * Block lists are resources: {@code /blocklists/default.txt} for every site plus {@code /blocklists/<host>.txt}, looked
+ * up from the full host down to the registrable domain ({@code www.jetbrains.com}, then {@code jetbrains.com}). One
+ * URL pattern per line, {@code *} as wildcard, {@code #} for comments. The list of a site is applied before each
+ * {@code get}/{@code navigate().to}.
+ * <p>
+ * Blocked requests are counted per test and page; the bytes saved are estimated from the sizes seen for the same host
+ * when blocking was off ({@code -Dpiloto.block.enabled=false} only observes, and learns those sizes into
+ * {@code .piloto-cache/blocked-sizes.properties}). Summary in {@code target/blocked-requests.json} at exit.
+ * Chrome only; other browsers are left alone.
+ */
+public final class RequestBlocker {
+
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("piloto.block.enabled", "true"));
+    private static final Path SIZES = Path.of(".piloto-cache", "blocked-sizes.properties");
+    private static final Path OUT = Path.of("target", "blocked-requests.json");
+
+    private static final Map<WebDriver, Attached> ATTACHED = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final Map<String, List<String>> LISTS = new ConcurrentHashMap<>();
+    private static final Map<String, Pattern> GLOBS = new ConcurrentHashMap<>();
+    private static final Map<PageKey, PageStats> PAGES = new ConcurrentHashMap<>();
+    private static final Map<String, Size> LEARNED = new ConcurrentHashMap<>(loadSizes());
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(RequestBlocker::write, "request-blocker"));
+        Cdp.onRetarget(ATTACHED::remove);
+    }
+
+    private RequestBlocker() {
+    }
+
+    /** Returns a driver that applies the block list of each site it navigates to (or {@code driver} without DevTools). */
+    public static WebDriver instrument(WebDriver driver) {
+        Optional<Attached> attached = attach(driver);
+        return attached.isPresent() ? new EventFiringDecorator<>(attached.get()).decorate(driver) : driver;
+    }
+
+    /** True when third-party overlays are being blocked for {@code driver}, so callers can skip waiting for them. */
+    public static boolean blocking(WebDriver driver) {
+        for (WebDriver d = driver; d != null; d = d instanceof WrapsDriver wraps ? wraps.getWrappedDriver() : null) {
+            Attached attached = ATTACHED.get(d);
+            if (attached != null) return attached.blocking;
+        }
+        return false;
+    }
+
+    private static Optional<Attached> attach(WebDriver driver) {
+        synchronized (ATTACHED) {
+            Attached existing = ATTACHED.get(driver);
+            if (existing != null) return Optional.of(existing);
+            Optional<DevTools> devTools = Cdp.session(driver);
+            if (devTools.isEmpty()) return Optional.empty();
+            try {
+                Attached attached = new Attached(devTools.get());
+                ATTACHED.put(driver, attached);
+                return Optional.of(attached);
+            } catch (Exception e) {
+                System.out.println("[blocker] DevTools network domain unavailable: " + e.getMessage());
+                return Optional.empty();
+            }
+        }
+    }
+
+    /** Patterns for a URL's site: the default list plus the host's own, from the full host to the domain. */
+    static List<String> patternsFor(String url) {
+        Set<String> patterns = new LinkedHashSet<>(list("default"));
+        String host = host(url);
+        while (host.contains(".")) {
+            patterns.addAll(list(host));
+            host = host.substring(host.indexOf('.') + 1);
+        }
+        return new ArrayList<>(patterns);
+    }
+
+    private static List<String> list(String name) {
+        return LISTS.computeIfAbsent(name, n -> {
+            try (InputStream in = RequestBlocker.class.getResourceAsStream("/blocklists/" + n + ".txt")) {
+                if (in == null) return List.of();
+                return new String(in.readAllBytes(), StandardCharsets.UTF_8).lines()
+                        .map(String::strip)
+                        .filter(l -> !l.isEmpty() && !l.startsWith("#"))
+                        .collect(Collectors.toList());
+            } catch (IOException ioe) {
+                return List.of();
+            }
+        });
+    }
+
+    static boolean matches(String url, List<String> patterns) {
+        return patterns.stream().anyMatch(p -> glob(p).matcher(url).matches());
+    }
+
+    private static Pattern glob(String pattern) {
+        return GLOBS.computeIfAbsent(pattern, p -> Pattern.compile(
+                Pattern.quote(p).replace("*", "\\E.*\\Q"), Pattern.CASE_INSENSITIVE));
+    }
+
+    static String host(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host == null ? "" : host.toLowerCase(Locale.ROOT);
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
+    }
+
+    /** DevTools wiring of one (pooled) driver; also the navigation listener of its session decorators. */
+    private static final class Attached implements WebDriverListener {
+        private final DevTools devTools;
+        private final Map<String, String[]> requests = new ConcurrentHashMap<>();
+        private volatile List<String> patterns = List.of();
+        private volatile String test = "";
+        private volatile boolean blocking;
+
+        Attached(DevTools devTools) {
+            this.devTools = devTools;
+            Cdp.send(devTools, "Network.enable", Map.of());
+            Cdp.on(devTools, "Network.requestWillBeSent", e -> {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> request = (Map<String, Object>) e.getOrDefault("request", Map.of());
+                String url = Cdp.string(request, "url");
+                if (matches(url, patterns)) {
+                    requests.put(Cdp.string(e, "requestId"), new String[]{url, Cdp.string(e, "documentURL"), test});
+                }
+            });
+            Cdp.on(devTools, "Network.loadingFailed", e -> {
+                String[] r = requests.remove(Cdp.string(e, "requestId"));
+                if (r == null || !e.containsKey("blockedReason")) return;
+                PageStats stats = PAGES.computeIfAbsent(new PageKey(r[2], r[1]), k -> new PageStats());
+                stats.blocked.incrementAndGet();
+                Size size = LEARNED.get(host(r[0]));
+                if (size != null) stats.bytes.addAndGet(size.average());
+            });
+            Cdp.on(devTools, "Network.loadingFinished", e -> {
+                // only reached for matching requests when blocking is off: learn what they would have cost
+                String[] r = requests.remove(Cdp.string(e, "requestId"));
+                if (r != null) LEARNED.computeIfAbsent(host(r[0]), h -> new Size()).add(Cdp.number(e, "encodedDataLength"));
+            });
+        }
+
+        @Override
+        public void beforeGet(WebDriver driver, String url) {
+            apply(url);
+        }
+
+        @Override
+        public void beforeTo(WebDriver.Navigation navigation, String url) {
+            apply(url);
+        }
+
+        private void apply(String url) {
+            test = BrowserSession.currentTestName();
+            requests.clear();
+            List<String> site = patternsFor(url);
+            if (site.equals(patterns)) return;
+            patterns = site;
+            try {
+                Cdp.send(devTools, "Network.setBlockedURLs", Map.of("urls", ENABLED ? site : List.of()));
+                blocking = ENABLED && !site.isEmpty();
+            } catch (Exception e) {
+                blocking = false;
+                System.out.println("[blocker] could not set blocked URLs: " + e.getMessage());
+            }
+        }
+    }
+
+    record PageKey(String test, String page) {
+    }
+
+    private static final class PageStats {
+        final AtomicLong blocked = new AtomicLong();
+        final AtomicLong bytes = new AtomicLong();
+    }
+
+    private static final class Size {
+        final AtomicLong count = new AtomicLong();
+        final AtomicLong total = new AtomicLong();
+
+        Size() {
+        }
+
+        Size(long count, long total) {
+            this.count.set(count);
+            this.total.set(total);
+        }
+
+        void add(long bytes) {
+            count.incrementAndGet();
+            total.addAndGet(bytes);
+        }
+
+        long average() {
+            long c = count.get();
+            return c == 0 ? 0 : total.get() / c;
+        }
+    }
+
+    private static Map<String, Size> loadSizes() {
+        Map<String, Size> sizes = new TreeMap<>();
+        if (!Files.exists(SIZES)) return sizes;
+        Properties p = new Properties();
+        try (Reader in = Files.newBufferedReader(SIZES)) {
+            p.load(in);
+        } catch (IOException ioe) {
+            return sizes;
+        }
+        // host=requests,bytes
+        p.forEach((host, v) -> {
+            String[] cols = ((String) v).split(",");
+            try {
+                sizes.put((String) host, new Size(Long.parseLong(cols[0]), Long.parseLong(cols[1])));
+            } catch (RuntimeException ignored) {
+                // hand-edited entry
+            }
+        });
+        return sizes;
+    }
+
+    static synchronized void write() {
+        if (!LEARNED.isEmpty()) {
+            StringBuilder sizes = new StringBuilder("# host=requests,bytes of would-be-blocked requests, written by support.RequestBlocker\n");
+            new TreeMap<>(LEARNED).forEach((h, s) -> sizes.append(h).append('=').append(s.count.get()).append(',').append(s.total.get()).append('\n'));
+            try {
+                Files.createDirectories(SIZES.getParent());
+                Files.writeString(SIZES, sizes);
+            } catch (IOException ignored) {
+                // only used for estimates
+            }
+        }
+        if (PAGES.isEmpty()) return;
+        long blocked = PAGES.values().stream().mapToLong(s -> s.blocked.get()).sum();
+        long bytes = PAGES.values().stream().mapToLong(s -> s.bytes.get()).sum();
+        System.out.printf(Locale.ROOT, "[blocker] %d request(s) blocked on %d page(s), ~%.1f KB saved%n", blocked, PAGES.size(), bytes / 1024.0);
+        String json = PAGES.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey((a, b) -> (a.test() + a.page()).compareTo(b.test() + b.page())))
+                .map(e -> "{\"test\":" + quote(e.getKey().test()) + ",\"page\":" + quote(e.getKey().page())
+                        + ",\"blocked\":" + e.getValue().blocked.get() + ",\"estimatedBytesSaved\":" + e.getValue().bytes.get() + "}")
+                .collect(Collectors.joining(",\n  ", "[\n  ", "\n]\n"));
+        try {
+            Files.createDirectories(OUT.getParent());
+            Files.writeString(OUT, json);
+        } catch (IOException ioe) {
+            System.out.println("Could not write blocked request summary: " + ioe.getMessage());
+        }
+    }
+
+    private static String quote(String s) {
+        return "\"" + s.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+}
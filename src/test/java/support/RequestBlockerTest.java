@@ -0,0 +1,28 @@
+package support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestBlockerTest {
+
+    @Test
+    public void siteListIsFoundFromTheFullHost() {
+        List<String> patterns = RequestBlocker.patternsFor("https://www.jetbrains.com/idea/");
+
+        assertTrue(RequestBlocker.matches("https://cdn.cookielaw.org/scripttemplates/otSDKStub.js", patterns));
+        assertTrue(RequestBlocker.matches("https://www.googletagmanager.com/gtm.js?id=GTM-1", patterns));
+        assertFalse(RequestBlocker.matches("https://resources.jetbrains.com/storage/logo.svg", patterns));
+    }
+
+    @Test
+    public void otherSitesOnlyGetTheDefaultList() {
+        List<String> patterns = RequestBlocker.patternsFor("https://vaadin-bookstore-example.demo.vaadin.com/");
+
+        assertTrue(RequestBlocker.matches("https://www.google-analytics.com/analytics.js", patterns));
+        assertFalse(RequestBlocker.matches("https://cdn.cookielaw.org/scripttemplates/otSDKStub.js", patterns));
+        assertTrue(RequestBlocker.patternsFor("file:///tmp/testpage.html").stream().allMatch(p -> !p.contains("cookielaw")));
+    }
+}
@@ -0,0 +1,26 @@
+package support;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Per-class browser settings, read by {@link DriverPoolExtension} to build the test's {@link BrowserConfig}.
+ * Use this instead of assigning {@code Configuration.timeout}, {@code Configuration.browserSize}, ...
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface SelenideSettings {
+
+    /** {@code chrome} (falls back to Firefox when Chrome cannot start) or {@code firefox}. */
+    String browser() default "chrome";
+
+    /** {@code WIDTHxHEIGHT}; anything else (e.g. {@code 100%x100%}) maximizes the window. */
+    String browserSize() default "1366x768";
+
+    /** {@code XxY}, empty to leave the window where it is. */
+    String browserPosition() default "";
+
+    long timeout() default 4000;
+}
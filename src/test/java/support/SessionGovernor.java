@@ -0,0 +1,242 @@
+package support;
+
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestPlan;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps an eye on every browser {@link BrowserFactory} launched: samples the RSS and CPU of its process tree from
+ * {@code /proc} ({@link ProcessTree}), tells {@link DriverPool} to replace sessions that grew too big or ran too many
+ * commands, and at the end of the suite kills whatever browser is still running ({@link Reaper}).
+ * <p>
+ * System properties:
+ * <ul>
+ *     <li>{@code piloto.governor.maxRssMb} - recycle a pooled browser whose tree is above this RSS (default 1536, 0 = off)</li>
+ *     <li>{@code piloto.governor.maxCommands} - recycle it after this many WebDriver commands (default 5000, 0 = off)</li>
+ *     <li>{@code piloto.governor.sampleMs} - sampling interval (default 1000)</li>
+ * </ul>
+ * One row per browser goes to {@code target/session-governor.csv}, plus a summary with the recycled and leaked
+ * counts and the peak memory.
+ */
+public final class SessionGovernor {
+
+    private static final Path OUT = Path.of("target", "session-governor.csv");
+    private static final long MB = 1024 * 1024;
+
+    private static final SessionGovernor SHARED = new SessionGovernor(
+            Long.getLong("piloto.governor.maxRssMb", 1536) * MB,
+            Integer.getInteger("piloto.governor.maxCommands", 5000),
+            Long.getLong("piloto.governor.sampleMs", 1000));
+
+    enum Outcome { RUNNING, QUIT, RECYCLED, LEAKED }
+
+    private final long maxRssBytes;
+    private final int maxCommands;
+    private final long sampleMs;
+    private final List<Browser> browsers = new CopyOnWriteArrayList<>();
+    private final Map<WebDriver, Browser> byDriver = Collections.synchronizedMap(new WeakHashMap<>());
+    private volatile ScheduledExecutorService sampler;
+    private volatile long peakTotalRss;
+    private boolean reaped;
+
+    SessionGovernor(long maxRssBytes, int maxCommands, long sampleMs) {
+        this.maxRssBytes = maxRssBytes;
+        this.maxCommands = maxCommands;
+        this.sampleMs = Math.max(100, sampleMs);
+    }
+
+    public static SessionGovernor shared() {
+        return SHARED;
+    }
+
+    /** Starts watching a browser; {@code driverPid} is the root of its process tree. */
+    void track(WebDriver driver, long driverPid) {
+        Browser browser = new Browser(driverPid, driver);
+        browsers.add(browser);
+        if (driver != null) byDriver.put(Cdp.unwrap(driver), browser);
+        startSampling();
+    }
+
+    /** Counts the commands {@code testName} sends through {@code driver} towards the browser's command budget. */
+    WebDriver instrument(WebDriver pooled, WebDriver driver, String testName) {
+        Browser browser = byDriver.get(Cdp.unwrap(pooled));
+        if (browser == null) return driver;
+        browser.lastTest = testName;
+        return browser.commands.decorate(driver);
+    }
+
+    /**
+     * Whether the pool should quit this browser instead of keeping it: its tree is above the RSS limit or it ran more
+     * commands than allowed. Samples it first, so the decision uses the current size.
+     */
+    boolean recycle(WebDriver driver) {
+        Browser browser = byDriver.get(Cdp.unwrap(driver));
+        if (browser == null) return false;
+        sample(browser);
+        String reason = recycleReason(browser.rssBytes, browser.commands.count(), maxRssBytes, maxCommands);
+        if (reason == null) return false;
+        browser.outcome = Outcome.RECYCLED;
+        System.out.println("[governor] recycling browser " + browser.pid + " after " + browser.lastTest + ": " + reason);
+        return true;
+    }
+
+    /** Why a browser with that RSS and command count should be replaced, or null to keep it. */
+    static String recycleReason(long rssBytes, int commands, long maxRssBytes, int maxCommands) {
+        if (maxRssBytes > 0 && rssBytes > maxRssBytes) {
+            return String.format(Locale.ROOT, "RSS %d MB > %d MB", rssBytes / MB, maxRssBytes / MB);
+        }
+        if (maxCommands > 0 && commands > maxCommands) {
+            return commands + " commands > " + maxCommands;
+        }
+        return null;
+    }
+
+    /** Samples every live browser and updates the peaks. */
+    void sample() {
+        long total = 0;
+        for (Browser browser : browsers) {
+            if (browser.outcome != Outcome.RUNNING) continue;
+            if (sample(browser)) total += browser.rssBytes;
+        }
+        if (total > peakTotalRss) peakTotalRss = total;
+    }
+
+    private boolean sample(Browser browser) {
+        Optional<ProcessTree> tree = ProcessTree.of(browser.pid);
+        if (tree.isEmpty()) {
+            if (browser.outcome == Outcome.RUNNING) browser.outcome = Outcome.QUIT;
+            return false;
+        }
+        browser.rssBytes = tree.get().rssBytes();
+        browser.cpuTicks = Math.max(browser.cpuTicks, tree.get().cpuTicks());
+        if (browser.rssBytes > browser.peakRss) browser.peakRss = browser.rssBytes;
+        return true;
+    }
+
+    /**
+     * Quits every browser still running and kills what is left of its process tree; they are counted as leaked.
+     * Browsers the pool keeps warm are quit by the pool first, so only the ones nobody gave back remain.
+     *
+     * @return the summary line
+     */
+    synchronized String reap() {
+        if (reaped) return null;
+        reaped = true;
+        if (sampler != null) sampler.shutdownNow();
+        sample();
+        for (Browser browser : browsers) {
+            if (browser.outcome != Outcome.RUNNING) continue;
+            if (ProcessHandle.of(browser.pid).map(ProcessHandle::isAlive).orElse(false)) {
+                browser.outcome = Outcome.LEAKED;
+                System.out.println("[governor] reaping leaked browser " + browser.pid + " (last used by " + browser.lastTest + ")");
+                kill(browser);
+            } else {
+                browser.outcome = Outcome.QUIT;
+            }
+        }
+        String summary = summary();
+        write();
+        System.out.println(summary);
+        return summary;
+    }
+
+    private static void kill(Browser browser) {
+        WebDriver driver = browser.driver.get();
+        if (driver != null) {
+            try {
+                driver.quit();
+            } catch (RuntimeException ignored) {
+                // killed below
+            }
+        }
+        ProcessHandle.of(browser.pid).ifPresent(root -> {
+            root.descendants().forEach(ProcessHandle::destroyForcibly);
+            root.destroyForcibly();
+            root.onExit().orTimeout(5, TimeUnit.SECONDS).exceptionally(e -> null).join();
+        });
+    }
+
+    long count(Outcome outcome) {
+        return browsers.stream().filter(b -> b.outcome == outcome).count();
+    }
+
+    String summary() {
+        long peakOne = browsers.stream().mapToLong(b -> b.peakRss).max().orElse(0);
+        return String.format(Locale.ROOT, "[governor] %d browser(s): %d recycled, %d leaked and reaped; peak RSS %d MB"
+                        + " across browsers, %d MB in one. Details: %s",
+                browsers.size(), count(Outcome.RECYCLED), count(Outcome.LEAKED), peakTotalRss / MB, peakOne / MB,
+                OUT.toAbsolutePath());
+    }
+
+    private void write() {
+        if (browsers.isEmpty()) return;
+        StringBuilder csv = new StringBuilder("driverPid,lastTest,outcome,commands,peakRssMb,cpuSeconds\n");
+        for (Browser b : browsers) {
+            // clock ticks are 1/100 s on Linux
+            csv.append(String.format(Locale.ROOT, "%d,%s,%s,%d,%d,%.2f%n", b.pid,
+                    String.valueOf(b.lastTest).replace(',', ' '), b.outcome.name().toLowerCase(Locale.ROOT),
+                    b.commands.count(), b.peakRss / MB, b.cpuTicks / 100.0));
+        }
+        try {
+            Files.createDirectories(OUT.getParent());
+            Files.writeString(OUT, csv);
+        } catch (IOException ioe) {
+            System.out.println("Could not write session governor report: " + ioe.getMessage());
+        }
+    }
+
+    private void startSampling() {
+        if (sampler != null) return;
+        synchronized (this) {
+            if (sampler != null || reaped) return;
+            ScheduledExecutorService s = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "session-governor");
+                t.setDaemon(true);
+                return t;
+            });
+            s.scheduleWithFixedDelay(this::sample, sampleMs, sampleMs, TimeUnit.MILLISECONDS);
+            sampler = s;
+        }
+    }
+
+    private static final class Browser {
+        final long pid;
+        final WeakReference<WebDriver> driver;
+        final CommandCounter commands = new CommandCounter();
+        volatile String lastTest = "-";
+        volatile Outcome outcome = Outcome.RUNNING;
+        volatile long rssBytes;
+        volatile long peakRss;
+        volatile long cpuTicks;
+
+        Browser(long pid, WebDriver driver) {
+            this.pid = pid;
+            this.driver = new WeakReference<>(driver);
+        }
+    }
+
+    /** Reaps leaked browsers once the whole test plan (JUnit and TestNG) finished; registered in META-INF/services. */
+    public static final class Reaper implements TestExecutionListener {
+        @Override
+        public void testPlanExecutionFinished(TestPlan testPlan) {
+            if (SHARED.browsers.isEmpty()) return;
+            DriverPool.shared().quitIdle();
+            SHARED.reap();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SessionGovernorTest {
+
+    private static final long MB = 1024 * 1024;
+
+    @Test
+    public void recyclesOverMemoryOrCommands() {
+        assertNull(SessionGovernor.recycleReason(100 * MB, 10, 1536 * MB, 5000));
+        assertEquals("RSS 2000 MB > 1536 MB", SessionGovernor.recycleReason(2000 * MB, 10, 1536 * MB, 5000));
+        assertEquals("5001 commands > 5000", SessionGovernor.recycleReason(100 * MB, 5001, 1536 * MB, 5000));
+        assertNull(SessionGovernor.recycleReason(2000 * MB, 5001, 0, 0), "0 turns a limit off");
+    }
+
+    @Test
+    public void reapsProcessesStillRunningAtTheEnd() throws Exception {
+        Process leaked = new ProcessBuilder("sleep", "60").start();
+        Process quit = new ProcessBuilder("sleep", "60").start();
+        SessionGovernor governor = new SessionGovernor(0, 0, 60_000);
+        governor.track(null, leaked.pid());
+        governor.track(null, quit.pid());
+
+        governor.sample();
+        quit.destroy();
+        quit.waitFor(5, TimeUnit.SECONDS);
+        String summary = governor.reap();
+
+        assertTrue(leaked.waitFor(5, TimeUnit.SECONDS), "leaked process was killed");
+        assertEquals(1, governor.count(SessionGovernor.Outcome.LEAKED));
+        assertEquals(1, governor.count(SessionGovernor.Outcome.QUIT));
+        assertTrue(summary.startsWith("[governor] 2 browser(s): 0 recycled, 1 leaked and reaped"), summary);
+        assertNull(governor.reap(), "reaps only once");
+    }
+}
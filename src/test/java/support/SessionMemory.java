@@ -0,0 +1,127 @@
+package support;
+
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Memory of the browsers per concurrent test, to compare {@link BrowserContexts} with one process per test.
+ * <p>
+ * When a test ends, the process trees of every browser in use ({@link ProcessTree}, PSS) are summed and divided by the
+ * number of tests running at that moment. Rows go to {@code target/session-memory.csv}; at exit the average per test
+ * is printed next to the last run of the other mode, remembered in {@code .piloto-cache/session-memory.properties}.
+ */
+public final class SessionMemory {
+
+    private static final Path OUT = Path.of("target", "session-memory.csv");
+    private static final Path HISTORY = Path.of(".piloto-cache", "session-memory.properties");
+
+    // browsers in use -> tests running in them
+    private static final Map<WebDriver, Integer> OPEN = new ConcurrentHashMap<>();
+    private static final List<Sample> SAMPLES = new ArrayList<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(SessionMemory::write, "session-memory"));
+    }
+
+    record Sample(String test, int concurrentTests, int browsers, long pssBytes, long rssBytes) {
+
+        long pssPerTest() {
+            return concurrentTests == 0 ? 0 : pssBytes / concurrentTests;
+        }
+    }
+
+    private SessionMemory() {
+    }
+
+    static void opened(WebDriver driver) {
+        OPEN.merge(Cdp.unwrap(driver), 1, Integer::sum);
+    }
+
+    /** Samples the browsers while the finishing test still counts as running. */
+    static void closing(String testName, WebDriver driver) {
+        long pss = 0, rss = 0;
+        int tests = 0, browsers = 0;
+        for (Map.Entry<WebDriver, Integer> e : OPEN.entrySet()) {
+            OptionalLong pid = BrowserFactory.driverPid(e.getKey());
+            if (pid.isEmpty()) continue;
+            var tree = ProcessTree.of(pid.getAsLong());
+            if (tree.isEmpty()) continue;
+            pss += tree.get().pssBytes();
+            rss += tree.get().rssBytes();
+            tests += e.getValue();
+            browsers++;
+        }
+        OPEN.computeIfPresent(Cdp.unwrap(driver), (d, n) -> n > 1 ? n - 1 : null);
+        if (browsers == 0) return;
+        synchronized (SAMPLES) {
+            SAMPLES.add(new Sample(testName, tests, browsers, pss, rss));
+        }
+    }
+
+    /** Mean PSS per concurrent test over the samples, in bytes. */
+    static long averagePerTest(List<Sample> samples) {
+        return samples.isEmpty() ? 0 : (long) samples.stream().mapToLong(Sample::pssPerTest).average().orElse(0);
+    }
+
+    static String summary(String mode, List<Sample> samples, Properties history) {
+        long average = averagePerTest(samples);
+        int peak = samples.stream().mapToInt(Sample::concurrentTests).max().orElse(0);
+        StringBuilder line = new StringBuilder(String.format(Locale.ROOT,
+                "[memory] %s mode: %.0f MB per concurrent test (%d samples, up to %d tests at once)",
+                mode, average / 1048576.0, samples.size(), peak));
+        String other = "contexts".equals(mode) ? "process" : "contexts";
+        String previous = history.getProperty(other);
+        if (previous != null) {
+            long before = Long.parseLong(previous);
+            line.append(String.format(Locale.ROOT, "; %s mode last run: %.0f MB", other, before / 1048576.0));
+            if (before > 0) line.append(String.format(Locale.ROOT, " (%+.0f%%)", (average - before) * 100.0 / before));
+        }
+        return line.toString();
+    }
+
+    private static void write() {
+        List<Sample> samples;
+        synchronized (SAMPLES) {
+            samples = List.copyOf(SAMPLES);
+        }
+        if (samples.isEmpty()) return;
+        String mode = BrowserContexts.mode();
+        StringBuilder csv = new StringBuilder("mode,test,concurrentTests,browsers,pssMb,rssMb,pssPerTestMb\n");
+        for (Sample s : samples) {
+            csv.append(String.format(Locale.ROOT, "%s,%s,%d,%d,%.1f,%.1f,%.1f%n", mode, s.test().replace(',', ' '),
+                    s.concurrentTests(), s.browsers(), s.pssBytes() / 1048576.0, s.rssBytes() / 1048576.0, s.pssPerTest() / 1048576.0));
+        }
+        Properties history = new Properties();
+        if (Files.exists(HISTORY)) {
+            try (Reader in = Files.newBufferedReader(HISTORY)) {
+                history.load(in);
+            } catch (IOException | IllegalArgumentException ignored) {
+                // start a new history
+            }
+        }
+        System.out.println(summary(mode, samples, history));
+        history.setProperty(mode, Long.toString(averagePerTest(samples)));
+        try {
+            Files.createDirectories(OUT.getParent());
+            Files.writeString(OUT, csv);
+            Files.createDirectories(HISTORY.getParent());
+            try (Writer out = Files.newBufferedWriter(HISTORY)) {
+                history.store(out, "average PSS bytes per concurrent test, written by support.SessionMemory");
+            }
+        } catch (IOException ioe) {
+            System.out.println("Could not write session memory report: " + ioe.getMessage());
+        }
+    }
+}
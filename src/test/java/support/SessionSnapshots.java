@@ -0,0 +1,146 @@
+package support;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Logged-in browser state (cookies, localStorage, sessionStorage) captured once and restored into new sessions, so
+ * tests start straight in the authenticated view instead of repeating the login.
+ * <pre>
+ * SessionSnapshots.shared().open("bookstore-admin", driver, url, pagina::loginComoAdmin, d -&gt; menuVisible(d));
+ * </pre>
+ * A snapshot is used while younger than {@code piloto.snapshots.ttl} (ISO-8601, default {@code PT20M}) and only if
+ * {@code loggedIn} holds after restoring it; otherwise it is dropped and the login runs again (and is captured again).
+ * {@code -Dpiloto.snapshots.scope=worker} keeps one snapshot per worker thread instead of one per run;
+ * {@code -Dpiloto.snapshots.enabled=false} always logs in.
+ */
+public final class SessionSnapshots {
+
+    private static final SessionSnapshots SHARED = new SessionSnapshots(
+            Duration.parse(System.getProperty("piloto.snapshots.ttl", "PT20M")),
+            "worker".equalsIgnoreCase(System.getProperty("piloto.snapshots.scope", "suite")),
+            Boolean.parseBoolean(System.getProperty("piloto.snapshots.enabled", "true")));
+
+    private static final String READ_STORAGE =
+            "function dump(s) { var o = {}; for (var i = 0; i < s.length; i++) { var k = s.key(i); o[k] = s.getItem(k); } return o; }" +
+            "return {local: dump(window.localStorage), session: dump(window.sessionStorage)};";
+    private static final String WRITE_STORAGE =
+            "var local = arguments[0], session = arguments[1];" +
+            "Object.keys(local).forEach(function (k) { window.localStorage.setItem(k, local[k]); });" +
+            "Object.keys(session).forEach(function (k) { window.sessionStorage.setItem(k, session[k]); });";
+
+    private final Duration ttl;
+    private final boolean perWorker;
+    private final boolean enabled;
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+    private final LongAdder restored = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder logins = new LongAdder();
+
+    SessionSnapshots(Duration ttl, boolean perWorker, boolean enabled) {
+        this.ttl = ttl;
+        this.perWorker = perWorker;
+        this.enabled = enabled;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (restored.sum() + logins.sum() > 0) {
+                System.out.println("[snapshots] restored=" + restored.sum() + " rejected=" + rejected.sum() + " logins=" + logins.sum());
+            }
+        }, "session-snapshots"));
+    }
+
+    public static SessionSnapshots shared() {
+        return SHARED;
+    }
+
+    /**
+     * Opens {@code url} logged in: restores the snapshot stored under {@code key} when it is fresh and accepted,
+     * otherwise runs {@code login} on the page and captures a new snapshot.
+     *
+     * @param loggedIn checks (and may wait briefly) that the page shows the authenticated view
+     * @throws IllegalStateException when even a fresh login does not satisfy {@code loggedIn}
+     */
+    public void open(String key, WebDriver driver, String url, Runnable login, Predicate<WebDriver> loggedIn) {
+        String scopedKey = perWorker ? key + "@" + Thread.currentThread().getName() : key;
+        if (enabled && restore(scopedKey, driver, url, loggedIn)) return;
+
+        // one login per key at a time: parallel workers wait for the first one and then restore its snapshot
+        synchronized (locks.computeIfAbsent(scopedKey, k -> new Object())) {
+            if (enabled && snapshots.containsKey(scopedKey) && restore(scopedKey, driver, url, loggedIn)) return;
+            PageReadiness.of(driver).open(url, PageReadiness.Milestone.DOM_CONTENT_LOADED);
+            login.run();
+            logins.increment();
+            if (!loggedIn.test(driver)) {
+                throw new IllegalStateException("Login for '" + key + "' did not reach the authenticated view");
+            }
+            if (enabled) snapshots.put(scopedKey, capture(driver));
+        }
+    }
+
+    /** Forgets every snapshot (e.g. after a test changed the password or logged out on the server). */
+    public void invalidateAll() {
+        snapshots.clear();
+    }
+
+    private boolean restore(String key, WebDriver driver, String url, Predicate<WebDriver> loggedIn) {
+        Snapshot snapshot = snapshots.get(key);
+        if (snapshot == null) return false;
+        if (snapshot.expired(ttl) || !snapshot.origin().equals(origin(url))) {
+            snapshots.remove(key, snapshot);
+            return false;
+        }
+        try {
+            // cookies and storage can only be set on the origin: a cheap same-origin URL avoids loading the app twice
+            driver.get(snapshot.origin() + "/robots.txt");
+            driver.manage().deleteAllCookies();
+            Date now = new Date();
+            for (Cookie c : snapshot.cookies()) {
+                if (c.getExpiry() == null || c.getExpiry().after(now)) driver.manage().addCookie(c);
+            }
+            ((JavascriptExecutor) driver).executeScript(WRITE_STORAGE, snapshot.localStorage(), snapshot.sessionStorage());
+            PageReadiness.of(driver).open(url, PageReadiness.Milestone.DOM_CONTENT_LOADED);
+            if (loggedIn.test(driver)) {
+                restored.increment();
+                return true;
+            }
+        } catch (Exception e) {
+            System.out.println("[snapshots] restore of '" + key + "' failed: " + e.getMessage());
+        }
+        rejected.increment();
+        snapshots.remove(key, snapshot);
+        try { driver.manage().deleteAllCookies(); } catch (Exception ignored) {}
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Snapshot capture(WebDriver driver) {
+        Map<String, Object> storage = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(READ_STORAGE);
+        return new Snapshot(origin(driver.getCurrentUrl()), Set.copyOf(driver.manage().getCookies()),
+                Map.copyOf((Map<String, Object>) storage.get("local")), Map.copyOf((Map<String, Object>) storage.get("session")),
+                Instant.now());
+    }
+
+    static String origin(String url) {
+        URI uri = URI.create(url);
+        return uri.getScheme() + "://" + uri.getRawAuthority();
+    }
+
+    record Snapshot(String origin, Set<Cookie> cookies, Map<String, Object> localStorage,
+                    Map<String, Object> sessionStorage, Instant createdAt) {
+
+        boolean expired(Duration ttl) {
+            return createdAt.plus(ttl).isBefore(Instant.now());
+        }
+    }
+}
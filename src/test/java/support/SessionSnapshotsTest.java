@@ -0,0 +1,30 @@
+package support;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SessionSnapshotsTest {
+
+    @Test
+    public void originKeepsSchemeHostAndPort() {
+        assertEquals("https://vaadin-bookstore-example.demo.vaadin.com",
+                SessionSnapshots.origin("https://vaadin-bookstore-example.demo.vaadin.com/admin?x=1"));
+        assertEquals("http://localhost:8080", SessionSnapshots.origin("http://localhost:8080/"));
+    }
+
+    @Test
+    public void snapshotExpiresAfterTtl() {
+        SessionSnapshots.Snapshot fresh = new SessionSnapshots.Snapshot("http://localhost", Set.of(), Map.of(), Map.of(), Instant.now());
+        SessionSnapshots.Snapshot old = new SessionSnapshots.Snapshot("http://localhost", Set.of(), Map.of(), Map.of(),
+                Instant.now().minus(Duration.ofMinutes(30)));
+
+        assertFalse(fresh.expired(Duration.ofMinutes(20)));
+        assertTrue(old.expired(Duration.ofMinutes(20)));
+    }
+}
@@ -0,0 +1,82 @@
+package support;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * Test files of any size, from a few KB to several GB, without holding their content in memory.
+ * <p>
+ * {@link #create} only sets the length (a sparse file on ext4/xfs/APFS/NTFS, so no disk blocks for the zeros) and
+ * writes a small marker at every {@link #STRIDE} and at the end, so an upload that drops, reorders or truncates a chunk
+ * changes the checksum. {@link #sha256} reads the file through memory-mapped windows.
+ */
+public final class SparseFiles {
+
+    static final long STRIDE = 64L * 1024 * 1024;
+    private static final long WINDOW = 256L * 1024 * 1024;
+
+    private SparseFiles() {
+    }
+
+    /** Creates (or truncates) {@code file} with {@code size} bytes. */
+    public static Path create(Path file, long size) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.setLength(0);
+            raf.setLength(size);
+            FileChannel channel = raf.getChannel();
+            for (long offset = 0; offset < size; offset += STRIDE) {
+                writeMarker(channel, offset, size);
+            }
+            if (size > 0) writeMarker(channel, Math.max(0, size - 32), size);
+        }
+        return file;
+    }
+
+    private static void writeMarker(FileChannel channel, long offset, long size) throws IOException {
+        byte[] marker = String.format(Locale.ROOT, "\n@%d/%d\n", offset, size).getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer buffer = ByteBuffer.wrap(marker, 0, (int) Math.min(marker.length, size - offset));
+        while (buffer.hasRemaining()) channel.write(buffer, offset + buffer.position());
+    }
+
+    /** Hex SHA-256 of the file content. */
+    public static String sha256(Path file) throws IOException {
+        MessageDigest digest = sha256();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long offset = 0; offset < size; offset += WINDOW) {
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(WINDOW, size - offset));
+                digest.update(window);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    public static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required by every JRE", e);
+        }
+    }
+
+    /** Parses size classes like {@code 512}, {@code 64KB}, {@code 16MB} or {@code 2GB} (powers of 1024). */
+    public static long parseSize(String text) {
+        String s = text.strip().toUpperCase(Locale.ROOT);
+        long unit = 1;
+        if (s.endsWith("KB")) unit = 1L << 10;
+        else if (s.endsWith("MB")) unit = 1L << 20;
+        else if (s.endsWith("GB")) unit = 1L << 30;
+        String digits = unit == 1 ? s.replaceAll("B$", "") : s.substring(0, s.length() - 2);
+        return Long.parseLong(digits.strip()) * unit;
+    }
+}
@@ -0,0 +1,54 @@
+package support;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SparseFilesTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void createsTheRequestedSizeWithoutWritingIt() throws Exception {
+        Path file = SparseFiles.create(dir.resolve("big.bin"), 3L << 30);
+
+        assertEquals(3L << 30, Files.size(file));
+    }
+
+    @Test
+    public void mappedChecksumMatchesAStreamedOne() throws Exception {
+        Path file = SparseFiles.create(dir.resolve("small.bin"), SparseFiles.STRIDE + 100);
+        byte[] content = Files.readAllBytes(file);
+
+        assertEquals(HexFormat.of().formatHex(SparseFiles.sha256().digest(content)), SparseFiles.sha256(file));
+        assertEquals('@', content[1], "marker at the start");
+        assertEquals('@', content[(int) SparseFiles.STRIDE + 1], "marker at the stride");
+    }
+
+    @Test
+    public void differentSizesHaveDifferentChecksums() throws Exception {
+        // same zeros, but the markers carry offset and size
+        assertNotEquals(SparseFiles.sha256(SparseFiles.create(dir.resolve("a.bin"), 4096)),
+                SparseFiles.sha256(SparseFiles.create(dir.resolve("b.bin"), 4097)));
+    }
+
+    @Test
+    public void parsesSizeClasses() {
+        assertEquals(512, SparseFiles.parseSize("512"));
+        assertEquals(64 * 1024, SparseFiles.parseSize("64KB"));
+        assertEquals(16L << 20, SparseFiles.parseSize(" 16mb "));
+        assertEquals(2L << 30, SparseFiles.parseSize("2GB"));
+    }
+
+    @Test
+    public void tinyFilesKeepTheirSize() throws Exception {
+        assertEquals(5, Files.size(SparseFiles.create(dir.resolve("tiny.bin"), 5)));
+        assertEquals(0, Files.size(SparseFiles.create(dir.resolve("empty.bin"), 0)));
+    }
+}
@@ -0,0 +1,362 @@
+package support;
+
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Test impact analysis: which page-object methods, locators and URLs each UI test uses, and which tests a change can
+ * affect.
+ * <ul>
+ *   <li>{@code -Dpiloto.impact.record=true} - every session driver records, per test, the page-object methods on the
+ *   stack of each WebDriver command ({@code piloto.impact.packages}, default the page-object packages), the locators
+ *   and the URLs; with the test durations this is saved to {@code .piloto-cache/test-impact.tsv}.</li>
+ *   <li>{@code -Dpiloto.impact.since=<git rev>} - {@link Filter} keeps only the tests affected by
+ *   {@code git diff --name-only <rev>} (plus untracked files) and reports the estimated time saved in
+ *   {@code target/test-impact.txt}.</li>
+ * </ul>
+ * A test is kept when it has no recorded entry, when its class or a page-object class it used changed, or when a
+ * changed fixture matches one of its URLs. Changes to {@code support}, the pom or other resources run everything.
+ */
+public final class TestImpact {
+
+    static final Path MAP = Path.of(".piloto-cache", "test-impact.tsv");
+    private static final Path REPORT = Path.of("target", "test-impact.txt");
+    private static final boolean RECORD = Boolean.parseBoolean(System.getProperty("piloto.impact.record", "false"));
+    private static final List<String> PACKAGES = Arrays.asList(System.getProperty("piloto.impact.packages",
+            "pages.,AdicionarCategoria.,informacaofilmes.,org.example.piloto.,tests.").split(","));
+
+    private static final Map<String, Entry> RECORDED = new ConcurrentHashMap<>();
+
+    private TestImpact() {
+    }
+
+    /** Returns a driver that records what the current test uses (or {@code driver} itself when not recording). */
+    public static WebDriver instrument(WebDriver driver) {
+        return RECORD ? new EventFiringDecorator<>(new Recorder()).decorate(driver) : driver;
+    }
+
+    private static Entry current() {
+        return RECORDED.computeIfAbsent(BrowserSession.currentTestName(), k -> new Entry());
+    }
+
+    private static final class Recorder implements WebDriverListener {
+
+        @Override
+        public void beforeAnyCall(Object target, Method method, Object[] args) {
+            Set<String> methods = current().methods;
+            StackWalker.getInstance().forEach(f -> {
+                String cls = f.getClassName();
+                if (PACKAGES.stream().anyMatch(cls::startsWith)) methods.add(outerClass(cls) + "#" + f.getMethodName());
+            });
+        }
+
+        @Override
+        public void beforeFindElement(WebDriver driver, By locator) {
+            current().locators.add(locator.toString());
+        }
+
+        @Override
+        public void beforeFindElements(WebDriver driver, By locator) {
+            current().locators.add(locator.toString());
+        }
+
+        @Override
+        public void beforeFindElement(WebElement element, By locator) {
+            current().locators.add(locator.toString());
+        }
+
+        @Override
+        public void beforeFindElements(WebElement element, By locator) {
+            current().locators.add(locator.toString());
+        }
+
+        @Override
+        public void beforeGet(WebDriver driver, String url) {
+            current().urls.add(url);
+        }
+
+        @Override
+        public void beforeTo(WebDriver.Navigation navigation, String url) {
+            current().urls.add(url);
+        }
+    }
+
+    /** Records test durations and saves the impact map at the end of a recording run. */
+    public static final class Listener implements TestExecutionListener {
+
+        private final Map<String, Long> started = new ConcurrentHashMap<>();
+
+        @Override
+        public void executionStarted(TestIdentifier id) {
+            if (RECORD && id.isTest()) started.put(id.getUniqueId(), System.nanoTime());
+        }
+
+        @Override
+        public void executionFinished(TestIdentifier id, TestExecutionResult result) {
+            Long start = started.remove(id.getUniqueId());
+            if (start == null) return;
+            testId(id.getSource().orElse(null)).ifPresent(test -> RECORDED.computeIfAbsent(test, k -> new Entry())
+                    .durationMs += TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+
+        @Override
+        public void testPlanExecutionFinished(TestPlan testPlan) {
+            if (!RECORD || RECORDED.isEmpty()) return;
+            try {
+                Map<String, Entry> map = load(MAP);
+                map.putAll(RECORDED);
+                save(MAP, map);
+            } catch (IOException ioe) {
+                System.out.println("Could not write test impact map: " + ioe.getMessage());
+            }
+        }
+    }
+
+    /** Drops the tests that the changes since {@code piloto.impact.since} cannot affect. */
+    public static final class Filter implements PostDiscoveryFilter {
+
+        private static final String SINCE = System.getProperty("piloto.impact.since", "");
+        private static Selection selection;
+
+        @Override
+        public FilterResult apply(TestDescriptor descriptor) {
+            if (SINCE.isBlank()) return FilterResult.included("impact analysis off");
+            Optional<String> test = testId(descriptor.getSource().orElse(null));
+            if (test.isEmpty()) return FilterResult.included("not a test method");
+            return selection().decide(test.get());
+        }
+
+        private static synchronized Selection selection() {
+            if (selection == null) {
+                Map<String, Entry> map;
+                try {
+                    map = load(MAP);
+                } catch (IOException ioe) {
+                    map = Map.of();
+                }
+                selection = new Selection(map, Changes.since(SINCE));
+                Runtime.getRuntime().addShutdownHook(new Thread(selection::report, "test-impact"));
+            }
+            return selection;
+        }
+    }
+
+    private static final class Selection {
+        private final Map<String, Entry> map;
+        private final Changes changes;
+        private final Map<String, String> kept = new TreeMap<>();
+        private final Map<String, String> skipped = new TreeMap<>();
+        private long keptMs;
+        private long skippedMs;
+
+        Selection(Map<String, Entry> map, Changes changes) {
+            this.map = map;
+            this.changes = changes;
+        }
+
+        synchronized FilterResult decide(String test) {
+            if (kept.containsKey(test)) return FilterResult.included(kept.get(test));
+            if (skipped.containsKey(test)) return FilterResult.excluded(skipped.get(test));
+            long ms = Optional.ofNullable(map.get(test)).map(e -> e.durationMs).filter(d -> d > 0)
+                    .orElseGet(() -> DurationHistory.shared().known(test) ? DurationHistory.shared().millis(test) : 0L);
+            Optional<String> reason = reason(test, map, changes);
+            if (reason.isPresent()) {
+                kept.put(test, reason.get());
+                keptMs += ms;
+                return FilterResult.included(reason.get());
+            }
+            skipped.put(test, "not affected since " + changes.since());
+            skippedMs += ms;
+            return FilterResult.excluded("not affected since " + changes.since());
+        }
+
+        synchronized void report() {
+            long total = keptMs + skippedMs;
+            String summary = String.format(Locale.ROOT,
+                    "[impact] since %s: %d changed file(s); running %d of %d test(s); estimated %.1f s of %.1f s saved (%.0f%%)",
+                    changes.since(), changes.files().size(), kept.size(), kept.size() + skipped.size(),
+                    skippedMs / 1000.0, total / 1000.0, total == 0 ? 0.0 : 100.0 * skippedMs / total);
+            System.out.println(summary);
+            StringBuilder out = new StringBuilder(summary).append("\n\nchanged:\n");
+            changes.files().forEach(f -> out.append("  ").append(f).append('\n'));
+            out.append("\nrunning:\n");
+            kept.forEach((t, why) -> out.append("  ").append(t).append("  <- ").append(why).append('\n'));
+            out.append("\nskipped:\n");
+            skipped.keySet().forEach(t -> out.append("  ").append(t).append('\n'));
+            try {
+                Files.createDirectories(REPORT.getParent());
+                Files.writeString(REPORT, out);
+            } catch (IOException ignored) {
+                // summary already printed
+            }
+        }
+    }
+
+    /**
+     * Why {@code test} ({@code Class#method}) may be affected, or empty when it is not. Entries recorded per class
+     * (sessions opened in {@code @BeforeClass}) count for every method of the class.
+     */
+    static Optional<String> reason(String test, Map<String, Entry> map, Changes changes) {
+        if (changes.all() != null) return Optional.of(changes.all());
+        String testClass = test.contains("#") ? test.substring(0, test.indexOf('#')) : test;
+        Entry method = map.get(test);
+        Entry cls = map.get(testClass);
+        if (method == null && cls == null) return Optional.of("no recorded coverage");
+        if (changes.classes().contains(testClass)) return Optional.of("test class changed");
+        for (Entry e : new Entry[]{method, cls}) {
+            if (e == null) continue;
+            for (String m : e.methods) {
+                if (changes.classes().contains(m.substring(0, m.indexOf('#')))) return Optional.of("uses " + m);
+            }
+            for (String url : e.urls) {
+                for (String resource : changes.resources()) {
+                    if (urlMatches(url, resource)) return Optional.of("opens " + url + " (" + resource + ")");
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    // "the-internet/dynamic_loading_2.html" matches ".../dynamic_loading/2"; "uploaded.html" matches ".../upload"
+    static boolean urlMatches(String url, String resource) {
+        String name = normalize(resource.substring(resource.lastIndexOf('/') + 1).replaceFirst("\\.[^.]+$", ""));
+        String path = url.replaceFirst("[?#].*$", "").replaceFirst("/+$", "");
+        String last = normalize(path.substring(path.lastIndexOf('/') + 1));
+        return normalize(path).contains(name) || (last.length() > 2 && name.startsWith(last));
+    }
+
+    private static String normalize(String s) {
+        return s.replaceAll("[^A-Za-z0-9]+", "_").toLowerCase(Locale.ROOT);
+    }
+
+    /** Changed files since a revision, as test classes and fixture resources; {@code all} names a global change. */
+    record Changes(String since, List<String> files, Set<String> classes, Set<String> resources, String all) {
+
+        static Changes since(String rev) {
+            List<String> files = new ArrayList<>();
+            try {
+                files.addAll(git("diff", "--name-only", rev));
+                files.addAll(git("ls-files", "--others", "--exclude-standard"));
+            } catch (IOException | InterruptedException e) {
+                return new Changes(rev, List.of(), Set.of(), Set.of(), "git diff failed: " + e.getMessage());
+            }
+            return of(rev, files);
+        }
+
+        static Changes of(String rev, List<String> files) {
+            Set<String> classes = new LinkedHashSet<>();
+            Set<String> resources = new LinkedHashSet<>();
+            String all = null;
+            for (String f : files) {
+                if (f.startsWith("src/test/java/support/") || f.equals("pom.xml") || f.startsWith("src/main/")) {
+                    all = all != null ? all : "shared code changed (" + f + ")";
+                } else if (f.startsWith("src/test/java/") && f.endsWith(".java")) {
+                    classes.add(f.substring("src/test/java/".length(), f.length() - ".java".length()).replace('/', '.'));
+                } else if (f.startsWith("src/test/resources/") && (f.endsWith(".html") || f.contains("/fixtures/")
+                        || f.contains("/the-internet/"))) {
+                    resources.add(f.substring("src/test/resources/".length()));
+                } else if (f.startsWith("src/test/")) {
+                    all = all != null ? all : "test configuration changed (" + f + ")";
+                }
+                // anything else (docs, benchmarks/, ...) does not affect the UI tests
+            }
+            return new Changes(rev, List.copyOf(files), classes, resources, all);
+        }
+
+        private static List<String> git(String... args) throws IOException, InterruptedException {
+            List<String> command = new ArrayList<>(List.of("git"));
+            command.addAll(List.of(args));
+            Process p = new ProcessBuilder(command).redirectErrorStream(true).start();
+            String out;
+            try (InputStream in = p.getInputStream()) {
+                out = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            if (p.waitFor() != 0) throw new IOException("git " + String.join(" ", args) + ": " + out.strip());
+            return out.lines().filter(l -> !l.isBlank()).collect(Collectors.toList());
+        }
+    }
+
+    static final class Entry {
+        final Set<String> methods = ConcurrentHashMap.newKeySet();
+        final Set<String> locators = ConcurrentHashMap.newKeySet();
+        final Set<String> urls = ConcurrentHashMap.newKeySet();
+        long durationMs;
+    }
+
+    // test id as used by BrowserSession: "Class#method"
+    private static Optional<String> testId(Object source) {
+        if (source instanceof MethodSource m) return Optional.of(m.getClassName() + "#" + m.getMethodName());
+        return Optional.empty();
+    }
+
+    private static String outerClass(String className) {
+        int nested = className.indexOf('$');
+        return nested > 0 ? className.substring(0, nested) : className;
+    }
+
+    static Map<String, Entry> load(Path file) throws IOException {
+        Map<String, Entry> map = new TreeMap<>();
+        if (!Files.exists(file)) return map;
+        for (String line : Files.readAllLines(file)) {
+            if (line.startsWith("#") || line.isBlank()) continue;
+            String[] cols = line.split("\t", 3);
+            if (cols.length < 3) continue;
+            Entry e = map.computeIfAbsent(cols[0], k -> new Entry());
+            switch (cols[1]) {
+                case "duration" -> e.durationMs = Long.parseLong(cols[2]);
+                case "method" -> e.methods.add(cols[2]);
+                case "locator" -> e.locators.add(cols[2]);
+                case "url" -> e.urls.add(cols[2]);
+                default -> { }
+            }
+        }
+        return map;
+    }
+
+    static void save(Path file, Map<String, Entry> map) throws IOException {
+        StringBuilder out = new StringBuilder("# test\tkind\tvalue - recorded ").append(Instant.now()).append('\n');
+        new TreeMap<>(map).forEach((test, e) -> {
+            out.append(test).append("\tduration\t").append(e.durationMs).append('\n');
+            e.methods.stream().sorted().forEach(v -> out.append(test).append("\tmethod\t").append(v).append('\n'));
+            e.locators.stream().sorted().forEach(v -> out.append(test).append("\tlocator\t").append(oneLine(v)).append('\n'));
+            e.urls.stream().sorted().forEach(v -> out.append(test).append("\turl\t").append(oneLine(v)).append('\n'));
+        });
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, out);
+    }
+
+    private static String oneLine(String s) {
+        return s.replace('\n', ' ').replace('\t', ' ');
+    }
+}
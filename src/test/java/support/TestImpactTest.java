@@ -0,0 +1,60 @@
+package support;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestImpactTest {
+
+    private static Map<String, TestImpact.Entry> map() {
+        TestImpact.Entry form = new TestImpact.Entry();
+        form.methods.add("pages.FormPage#fill");
+        form.urls.add("http://localhost:4567/signup");
+        form.durationMs = 4000;
+        TestImpact.Entry dynamic = new TestImpact.Entry();
+        dynamic.methods.add("org.example.piloto.DynamicLoadingPage#start");
+        dynamic.urls.add("http://localhost:4567/dynamic_loading/2");
+        return Map.of("tests.FormTest", form, "org.example.piloto.DynamicLoadingTest#loads", dynamic);
+    }
+
+    @Test
+    public void pageObjectChangeSelectsOnlyItsTests() {
+        TestImpact.Changes changes = TestImpact.Changes.of("HEAD", List.of("src/test/java/pages/FormPage.java", "README.md"));
+
+        assertTrue(TestImpact.reason("tests.FormTest#fillsForm", map(), changes).isPresent());
+        assertTrue(TestImpact.reason("org.example.piloto.DynamicLoadingTest#loads", map(), changes).isEmpty());
+        assertEquals("no recorded coverage", TestImpact.reason("org.example.piloto.NewTest#x", map(), changes).orElseThrow());
+    }
+
+    @Test
+    public void fixtureChangeSelectsTestsOpeningIt() {
+        TestImpact.Changes changes = TestImpact.Changes.of("HEAD", List.of("src/test/resources/the-internet/dynamic_loading_2.html"));
+
+        assertTrue(TestImpact.reason("org.example.piloto.DynamicLoadingTest#loads", map(), changes).isPresent());
+        assertTrue(TestImpact.reason("tests.FormTest#fillsForm", map(), changes).isEmpty());
+        assertTrue(TestImpact.urlMatches("http://localhost:4567/upload", "the-internet/uploaded.html"));
+    }
+
+    @Test
+    public void sharedCodeChangeSelectsEverything() {
+        TestImpact.Changes changes = TestImpact.Changes.of("HEAD", List.of("src/test/java/support/DriverPool.java"));
+
+        assertTrue(TestImpact.reason("org.example.piloto.DynamicLoadingTest#loads", map(), changes).isPresent());
+    }
+
+    @Test
+    public void mapSurvivesSaveAndLoad(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("test-impact.tsv");
+        TestImpact.save(file, map());
+
+        Map<String, TestImpact.Entry> loaded = TestImpact.load(file);
+        assertEquals(4000, loaded.get("tests.FormTest").durationMs);
+        assertTrue(loaded.get("tests.FormTest").methods.contains("pages.FormPage#fill"));
+        assertTrue(loaded.get("org.example.piloto.DynamicLoadingTest#loads").urls.contains("http://localhost:4567/dynamic_loading/2"));
+    }
+}
@@ -0,0 +1,138 @@
+package support;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.FluentWait;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Finds elements by their text with one {@code TreeWalker} pass inside the page, instead of pulling every element
+ * over the wire ({@code $$("*").findBy(text(...))}) and checking them one by one from Java.
+ * <p>
+ * Walks the text nodes under the scope (document by default), optionally descending into open shadow roots, and
+ * returns the element holding the text - or its closest ancestor matching {@link #closest(String)}. Immutable: every
+ * {@code withX}-style call returns a copy.
+ * <pre>
+ * Optional&lt;WebElement&gt; cell = TextLocator.of(driver).within("vaadin-grid").closest("vaadin-grid-cell-content")
+ *         .await("Godfather", Duration.ofSeconds(7));
+ * </pre>
+ * Matching is "contains" on the whitespace-normalised text of a single text node; {@code null} or blank text matches
+ * any non-blank text.
+ */
+public final class TextLocator {
+
+    private static final Duration POLL = Duration.ofMillis(100);
+
+    private static final String SCRIPT = String.join("\n",
+            "var query = arguments[0], scopeCss = arguments[1], closestCss = arguments[2], visibleOnly = arguments[3],",
+            "    pierce = arguments[4], ignoreCase = arguments[5], limit = arguments[6];",
+            "function norm(s) { s = s.replace(/\\s+/g, ' ').trim(); return ignoreCase ? s.toLowerCase() : s; }",
+            "var q = query == null ? '' : norm(query);",
+            "function visible(e) { var r = e.getBoundingClientRect(); if (r.width === 0 || r.height === 0) return false;",
+            "  var cs = getComputedStyle(e); return cs.visibility !== 'hidden' && cs.display !== 'none'; }",
+            "var scope = scopeCss ? document.querySelector(scopeCss) : document;",
+            "if (!scope) return [];",
+            "var roots = [scope], found = [], seen = new Set();",
+            "var show = NodeFilter.SHOW_TEXT | (pierce ? NodeFilter.SHOW_ELEMENT : 0);",
+            "for (var r = 0; r < roots.length && found.length < limit; r++) {",
+            "  var walker = document.createTreeWalker(roots[r], show), node;",
+            "  while ((node = walker.nextNode()) && found.length < limit) {",
+            "    if (node.nodeType === 1) { if (node.shadowRoot) roots.push(node.shadowRoot); continue; }",
+            "    var t = norm(node.data);",
+            "    if (!t || t.indexOf(q) < 0) continue;",
+            "    var el = node.parentElement;",
+            "    if (el && closestCss) el = el.closest(closestCss);",
+            "    if (!el || seen.has(el)) continue;",
+            "    if (el.tagName === 'SCRIPT' || el.tagName === 'STYLE' || el.tagName === 'TEMPLATE') continue;",
+            "    if (visibleOnly && !visible(el)) continue;",
+            "    seen.add(el); found.push(el);",
+            "  }",
+            "}",
+            "return found;");
+
+    private final WebDriver driver;
+    private final String scopeCss;
+    private final String closestCss;
+    private final boolean visibleOnly;
+    private final boolean pierceShadowRoots;
+    private final boolean ignoreCase;
+
+    private TextLocator(WebDriver driver, String scopeCss, String closestCss, boolean visibleOnly,
+                        boolean pierceShadowRoots, boolean ignoreCase) {
+        this.driver = driver;
+        this.scopeCss = scopeCss;
+        this.closestCss = closestCss;
+        this.visibleOnly = visibleOnly;
+        this.pierceShadowRoots = pierceShadowRoots;
+        this.ignoreCase = ignoreCase;
+    }
+
+    /** Whole document, visible elements only, case-sensitive, shadow roots pierced. */
+    public static TextLocator of(WebDriver driver) {
+        return new TextLocator(driver, null, null, true, true, false);
+    }
+
+    /** Searches only under the first element matching {@code cssSelector} (nothing is found if there is none). */
+    public TextLocator within(String cssSelector) {
+        return new TextLocator(driver, cssSelector, closestCss, visibleOnly, pierceShadowRoots, ignoreCase);
+    }
+
+    /** Returns the closest ancestor matching {@code cssSelector} (e.g. the grid cell) instead of the text's parent. */
+    public TextLocator closest(String cssSelector) {
+        return new TextLocator(driver, scopeCss, cssSelector, visibleOnly, pierceShadowRoots, ignoreCase);
+    }
+
+    public TextLocator includingHidden() {
+        return new TextLocator(driver, scopeCss, closestCss, false, pierceShadowRoots, ignoreCase);
+    }
+
+    public TextLocator withoutShadowRoots() {
+        return new TextLocator(driver, scopeCss, closestCss, visibleOnly, false, ignoreCase);
+    }
+
+    public TextLocator ignoringCase() {
+        return new TextLocator(driver, scopeCss, closestCss, visibleOnly, pierceShadowRoots, true);
+    }
+
+    /** First match in document order (shadow content after the light DOM), checked once. */
+    public Optional<WebElement> first(String text) {
+        List<WebElement> found = top(text, 1);
+        return found.isEmpty() ? Optional.empty() : Optional.of(found.get(0));
+    }
+
+    /** Up to {@code limit} matches, checked once. */
+    public List<WebElement> top(String text, int limit) {
+        Object result = ((JavascriptExecutor) driver).executeScript(SCRIPT, text, scopeCss, closestCss, visibleOnly,
+                pierceShadowRoots, ignoreCase, limit);
+        List<WebElement> elements = new ArrayList<>();
+        if (result instanceof List<?> list) {
+            for (Object o : list) {
+                if (o instanceof WebElement e) elements.add(e);
+            }
+        }
+        return elements;
+    }
+
+    /** Polls {@link #first(String)} (one script per tick) until it matches or {@code timeout} expires. */
+    public Optional<WebElement> await(String text, Duration timeout) {
+        List<WebElement> match = new ArrayList<>(1);
+        try {
+            new FluentWait<>(driver)
+                    .withTimeout(timeout)
+                    .pollingEvery(POLL)
+                    .until(d -> {
+                        first(text).ifPresent(match::add);
+                        return !match.isEmpty();
+                    });
+        } catch (TimeoutException e) {
+            return Optional.empty();
+        }
+        return Optional.of(match.get(0));
+    }
+}
@@ -0,0 +1,82 @@
+package support;
+
+import com.codeborne.selenide.SelenideDriver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static com.codeborne.selenide.Condition.text;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Round trips and latency of a whole-DOM text scan ({@code $$("*").findBy(text(...))}) against {@link TextLocator},
+ * for growing DOM sizes. The scan is skipped above {@code piloto.benchmark.maxScanSize} elements (default 2000)
+ * because it costs one round trip per element. Results in {@code target/benchmarks/text-locator.csv};
+ * run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@ExtendWith(DriverPoolExtension.class)
+public class TextLocatorBenchmarkTest {
+
+    private static final int[] SIZES = {100, 1_000, 5_000, 20_000};
+    private static final int MAX_SCAN_SIZE = Integer.getInteger("piloto.benchmark.maxScanSize", 2_000);
+    private static final Path OUT = Path.of("target", "benchmarks", "text-locator.csv");
+
+    // N nested rows of text; the text being searched for is in the last one
+    private static final String BUILD_DOM = String.join("\n",
+            "var n = arguments[0]; document.body.innerHTML = '';",
+            "var grid = document.createElement('div'); grid.id = 'grid';",
+            "for (var i = 0; i < n; i++) {",
+            "  var row = document.createElement('div'), cell = document.createElement('span');",
+            "  cell.textContent = i === n - 1 ? 'The Godfather' : 'Movie ' + i;",
+            "  row.appendChild(cell); grid.appendChild(row);",
+            "}",
+            "document.body.appendChild(grid);");
+
+    private final CommandCounter commands = new CommandCounter();
+    private WebDriver driver;
+    private SelenideDriver browser;
+
+    @BeforeEach
+    public void setUp(WebDriver driver, BrowserConfig config) {
+        this.driver = commands.decorate(driver);
+        this.browser = new SelenideDriver(config.withTimeout(1000).toSelenideConfig(), this.driver, null);
+    }
+
+    @Test
+    public void wholeDomScanVersusTextLocator() throws IOException {
+        List<String> rows = new ArrayList<>();
+        driver.get("about:blank");
+        for (int size : SIZES) {
+            browser.executeJavaScript(BUILD_DOM, size);
+            if (size <= MAX_SCAN_SIZE) {
+                rows.add(measure("selenide-scan", size, () -> browser.$$("*").findBy(text("The Godfather")).toWebElement()));
+            }
+            rows.add(measure("text-locator", size, () -> TextLocator.of(driver).first("The Godfather").orElseThrow()));
+        }
+        Files.createDirectories(OUT.getParent());
+        Files.writeString(OUT, "mode,domSize,roundTrips,ms\n" + String.join("\n", rows) + "\n");
+        rows.forEach(r -> System.out.println("[text-locator] " + r));
+    }
+
+    private String measure(String mode, int size, Supplier<WebElement> find) {
+        commands.reset();
+        long start = System.nanoTime();
+        WebElement found = find.get();
+        long ms = (System.nanoTime() - start) / 1_000_000L;
+        int roundTrips = commands.count();
+        // $$("*") returns the outermost element containing the text, the locator the innermost
+        assertTrue(found.getText().contains("The Godfather"), mode);
+        return mode + "," + size + "," + roundTrips + "," + ms;
+    }
+}
@@ -0,0 +1,266 @@
+package support;
+
+import io.qameta.allure.Allure;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.WebElement;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Visual checkpoint of one element, compared with its baseline off the test thread.
+ * <pre>
+ * VisualCheckpoint.capture(formPage.formLayout(), "form-page.signup-form");
+ * ...
+ * VisualCheckpoint.assertAllMatch(); // end of the test: waits for this test's diffs
+ * </pre>
+ * The test thread only takes the element screenshot (the driver is not thread-safe); hashing, decoding and the
+ * {@link PixelDiff} run on a small background pool. A screenshot whose SHA-256 equals the baseline's is a match without
+ * decoding anything.
+ * <p>
+ * Baselines are content-addressed under {@code src/test/visual} ({@code piloto.visual.baselines}):
+ * {@code index.properties} maps checkpoint names to hashes and {@code objects/ab/<sha256>.png} holds each distinct image
+ * once. A checkpoint without a baseline records one and passes; {@code -Dpiloto.visual.update=true} re-records them.
+ * A pixel differs above {@code piloto.visual.tolerance} per channel (default 16) and a checkpoint fails above
+ * {@code piloto.visual.maxDiffPercent} differing pixels (default 0.1); the actual and highlighted diff images then go
+ * to {@code target/visual} and the Allure report.
+ */
+public final class VisualCheckpoint {
+
+    public enum Status { MATCH, WITHIN_TOLERANCE, NEW_BASELINE, UPDATED, MISMATCH }
+
+    public record Result(String name, Status status, String sha256, PixelDiff.Result diff, Path actual, Path diffImage) {
+
+        public boolean passed() {
+            return status != Status.MISMATCH;
+        }
+
+        public String describe() {
+            if (diff == null) return name + ": " + status;
+            return String.format(Locale.ROOT, "%s: %s, %d of %dx%d pixels differ (%.3f%%, max channel delta %d)%s",
+                    name, status, diff.differing(), diff.width(), diff.height(), diff.ratio() * 100, diff.maxDelta(),
+                    diffImage == null ? "" : " - see " + diffImage.toAbsolutePath());
+        }
+    }
+
+    private static final Baselines SHARED = new Baselines(
+            Path.of(System.getProperty("piloto.visual.baselines", "src/test/visual")),
+            Path.of("target", "visual"),
+            Integer.getInteger("piloto.visual.tolerance", 16),
+            Double.parseDouble(System.getProperty("piloto.visual.maxDiffPercent", "0.1")) / 100,
+            Boolean.getBoolean("piloto.visual.update"));
+
+    private static final ExecutorService DIFFS = Executors.newFixedThreadPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2), r -> {
+                Thread t = new Thread(r, "visual-diff");
+                t.setDaemon(true);
+                return t;
+            });
+
+    // checkpoints taken by each test and not asserted yet
+    private static final Map<String, List<VisualCheckpoint>> PENDING = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final String test;
+    private final CompletableFuture<Result> result;
+
+    private VisualCheckpoint(String name, String test, CompletableFuture<Result> result) {
+        this.name = name;
+        this.test = test;
+        this.result = result;
+    }
+
+    /** Screenshots {@code element} now and compares it with the baseline {@code name} in the background. */
+    public static VisualCheckpoint capture(WebElement element, String name) {
+        byte[] png = element.getScreenshotAs(OutputType.BYTES);
+        String test = BrowserSession.currentTestName();
+        VisualCheckpoint checkpoint = new VisualCheckpoint(name, test, CompletableFuture.supplyAsync(() -> SHARED.check(name, png), DIFFS));
+        PENDING.computeIfAbsent(test, k -> new ArrayList<>()).add(checkpoint);
+        return checkpoint;
+    }
+
+    /** Waits for every checkpoint the current test captured and fails with all mismatches at once. */
+    public static void assertAllMatch() {
+        List<VisualCheckpoint> checkpoints = PENDING.remove(BrowserSession.currentTestName());
+        if (checkpoints == null) return;
+        List<Result> failed = checkpoints.stream().map(VisualCheckpoint::result).filter(r -> !r.passed()).toList();
+        if (failed.isEmpty()) return;
+        failed.forEach(VisualCheckpoint::attach);
+        throw new AssertionError("Visual checkpoints differ from their baselines:\n"
+                + failed.stream().map(Result::describe).collect(Collectors.joining("\n")));
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /** Waits for the comparison. */
+    public Result result() {
+        return result.join();
+    }
+
+    /** Fails if this checkpoint differs from its baseline; it is then no longer pending for {@link #assertAllMatch()}. */
+    public void assertMatches() {
+        PENDING.computeIfPresent(test, (k, list) -> {
+            list.remove(this);
+            return list.isEmpty() ? null : list;
+        });
+        Result r = result();
+        if (r.passed()) return;
+        attach(r);
+        throw new AssertionError("Visual checkpoint differs from its baseline: " + r.describe());
+    }
+
+    private static void attach(Result r) {
+        try {
+            for (Path image : new Path[]{r.actual(), r.diffImage()}) {
+                if (image == null) continue;
+                try (InputStream in = Files.newInputStream(image)) {
+                    Allure.addAttachment("visual: " + image.getFileName(), "image/png", in, "png");
+                }
+            }
+        } catch (Exception ignored) {
+            // no Allure lifecycle
+        }
+    }
+
+    /** Content-addressed baseline store and comparison; one instance per baseline directory. */
+    static final class Baselines {
+        private final Path dir;
+        private final Path out;
+        private final int tolerance;
+        private final double maxRatio;
+        private final boolean update;
+        private Map<String, String> index;
+
+        Baselines(Path dir, Path out, int tolerance, double maxRatio, boolean update) {
+            this.dir = dir;
+            this.out = out;
+            this.tolerance = tolerance;
+            this.maxRatio = maxRatio;
+            this.update = update;
+        }
+
+        Result check(String name, byte[] png) {
+            try {
+                String hash = sha256(png);
+                String baseline = baseline(name);
+                if (baseline != null && !update && baseline.equals(hash)) {
+                    return new Result(name, Status.MATCH, hash, null, null, null);
+                }
+                if (baseline == null || update || !Files.exists(object(baseline))) {
+                    record(name, hash, png);
+                    return new Result(name, baseline == null ? Status.NEW_BASELINE : Status.UPDATED, hash, null, null, null);
+                }
+                return compare(name, hash, Files.readAllBytes(object(baseline)), png);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Visual checkpoint " + name, e);
+            }
+        }
+
+        private Result compare(String name, String hash, byte[] expectedPng, byte[] actualPng) throws IOException {
+            BufferedImage expected = decode(expectedPng), actual = decode(actualPng);
+            int w = actual.getWidth(), h = actual.getHeight();
+            PixelDiff.Result diff;
+            int[] highlight = null;
+            if (expected.getWidth() != w || expected.getHeight() != h) {
+                diff = new PixelDiff.Result(w, h, (long) w * h, 255);
+            } else {
+                highlight = new int[w * h];
+                diff = PixelDiff.compare(expected.getRGB(0, 0, w, h, null, 0, w), actual.getRGB(0, 0, w, h, null, 0, w),
+                        w, h, tolerance, highlight);
+                if (diff.ratio() <= maxRatio) return new Result(name, Status.WITHIN_TOLERANCE, hash, diff, null, null);
+            }
+            Files.createDirectories(out);
+            Path actualFile = out.resolve(fileName(name) + ".actual.png");
+            Files.write(actualFile, actualPng);
+            Path diffFile = null;
+            if (highlight != null) {
+                BufferedImage image = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+                image.setRGB(0, 0, w, h, highlight, 0, w);
+                diffFile = out.resolve(fileName(name) + ".diff.png");
+                ImageIO.write(image, "png", diffFile.toFile());
+            }
+            return new Result(name, Status.MISMATCH, hash, diff, actualFile, diffFile);
+        }
+
+        private synchronized String baseline(String name) throws IOException {
+            return index().get(name);
+        }
+
+        private synchronized void record(String name, String hash, byte[] png) throws IOException {
+            Path object = object(hash);
+            if (!Files.exists(object)) {
+                Files.createDirectories(object.getParent());
+                Path tmp = Files.createTempFile(object.getParent(), "tmp-", ".part");
+                Files.write(tmp, png);
+                Files.move(tmp, object, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+            index().put(name, hash);
+            // sorted, so baseline changes show up as small diffs in review
+            StringBuilder lines = new StringBuilder("# checkpoint name = sha256 of its baseline in objects/, written by support.VisualCheckpoint\n");
+            index.forEach((k, v) -> lines.append(k).append('=').append(v).append('\n'));
+            Files.createDirectories(dir);
+            Files.writeString(dir.resolve("index.properties"), lines);
+        }
+
+        private Map<String, String> index() throws IOException {
+            if (index == null) {
+                index = new TreeMap<>();
+                Path file = dir.resolve("index.properties");
+                if (Files.exists(file)) {
+                    Properties p = new Properties();
+                    try (Reader in = Files.newBufferedReader(file)) {
+                        p.load(in);
+                    }
+                    p.stringPropertyNames().forEach(k -> index.put(k, p.getProperty(k)));
+                }
+            }
+            return index;
+        }
+
+        Path object(String hash) {
+            return dir.resolve("objects").resolve(hash.substring(0, 2)).resolve(hash + ".png");
+        }
+
+        private static BufferedImage decode(byte[] png) throws IOException {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+            if (image == null) throw new IOException("Not an image (" + png.length + " bytes)");
+            return image;
+        }
+
+        private static String fileName(String name) {
+            return name.replaceAll("[^A-Za-z0-9._-]", "_");
+        }
+
+        private static String sha256(byte[] bytes) {
+            try {
+                return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package support;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Idle time removed by replacing fixed sleeps with {@link PageWaits}, per test and call site.
+ * <p>
+ * For every wait: removed = replaced sleep - actual wait (can be negative when the page was slower than the old
+ * sleep assumed, which the sleep would have turned into a flaky failure). Written to
+ * {@code target/waits/idle-time.csv} when the JVM exits.
+ */
+public final class WaitReport {
+
+    private static final Path OUT = Path.of("target", "waits", "idle-time.csv");
+    private static final Map<String, Totals> TOTALS = new ConcurrentHashMap<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(WaitReport::write, "wait-report"));
+    }
+
+    private WaitReport() {
+    }
+
+    static void record(String site, long replacedSleepMs, long waitedMs) {
+        Totals t = TOTALS.computeIfAbsent(BrowserSession.currentTestName() + "," + site, k -> new Totals());
+        t.waits.increment();
+        t.replacedMs.add(replacedSleepMs);
+        t.waitedMs.add(waitedMs);
+    }
+
+    static void write() {
+        if (TOTALS.isEmpty()) return;
+        Map<String, long[]> perTest = new TreeMap<>();
+        StringBuilder csv = new StringBuilder("test,site,waits,replacedSleepMs,waitedMs,removedMs\n");
+        new TreeMap<>(TOTALS).forEach((key, t) -> {
+            long replaced = t.replacedMs.sum(), waited = t.waitedMs.sum();
+            csv.append(key).append(',').append(t.waits.sum()).append(',').append(replaced).append(',')
+                    .append(waited).append(',').append(replaced - waited).append('\n');
+            long[] sums = perTest.computeIfAbsent(key.substring(0, key.indexOf(',')), k -> new long[2]);
+            sums[0] += replaced;
+            sums[1] += waited;
+        });
+        try {
+            Files.createDirectories(OUT.getParent());
+            Files.writeString(OUT, csv.toString());
+        } catch (IOException ioe) {
+            System.out.println("Could not write wait report: " + ioe.getMessage());
+        }
+        perTest.forEach((test, sums) -> System.out.println("[waits] " + test + ": slept " + sums[0] + " ms before, waited "
+                + sums[1] + " ms now, removed " + (sums[0] - sums[1]) + " ms"));
+    }
+
+    private static final class Totals {
+        final LongAdder waits = new LongAdder();
+        final LongAdder replacedMs = new LongAdder();
+        final LongAdder waitedMs = new LongAdder();
+    }
+}
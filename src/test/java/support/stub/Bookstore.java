@@ -0,0 +1,113 @@
+package support.stub;
+
+import com.sun.net.httpserver.HttpExchange;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Local stand-in of the Bookstore backend: the admin view the page object drives plus a small REST API to seed and
+ * clean up test data without the UI.
+ * <p>
+ * {@code /} serves src/test/resources/fixtures/bookstore-admin.html, which lists the stored categories and saves new
+ * ones through the API. Both collections, {@code /api/categories} and {@code /api/books}, answer:
+ * <ul>
+ *     <li>{@code GET} - every entity, ordered by id</li>
+ *     <li>{@code POST} - one JSON object or an array of them; returns them with their new {@code id}</li>
+ *     <li>{@code DELETE ?ids=1,2,3} - removes those ids in one call; returns how many existed</li>
+ * </ul>
+ * A category needs a {@code name}; a book needs a {@code title} and may list {@code categories} ids.
+ */
+public final class Bookstore {
+
+    private static final Json JSON = new Json();
+    private static final AtomicLong IDS = new AtomicLong();
+    private static final Map<Long, Map<String, Object>> CATEGORIES = new ConcurrentSkipListMap<>();
+    private static final Map<Long, Map<String, Object>> BOOKS = new ConcurrentSkipListMap<>();
+
+    private Bookstore() {
+    }
+
+    public static String baseUrl() {
+        return standIn().baseUrl();
+    }
+
+    static StandInServer standIn() {
+        return StandInServer.shared(Bookstore.class, () -> new StandInServer()
+                .page("/", "/fixtures/bookstore-admin.html", Map.of("API", "/api"))
+                .route("/api/categories", exchange -> collection(exchange, CATEGORIES, "name"))
+                .route("/api/books", exchange -> collection(exchange, BOOKS, "title")));
+    }
+
+    private static void collection(HttpExchange exchange, Map<Long, Map<String, Object>> store, String required)
+            throws IOException {
+        switch (exchange.getRequestMethod().toUpperCase()) {
+            case "GET" -> json(exchange, 200, new ArrayList<>(store.values()));
+            case "POST" -> create(exchange, store, required);
+            case "DELETE" -> {
+                Set<Long> ids = ids(exchange.getRequestURI().getQuery());
+                long removed = ids.stream().filter(id -> store.remove(id) != null).count();
+                json(exchange, 200, Map.of("deleted", removed));
+            }
+            default -> StandInServer.send(exchange, 405, "text/plain", "Method Not Allowed");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void create(HttpExchange exchange, Map<Long, Map<String, Object>> store, String required)
+            throws IOException {
+        Object body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = JSON.toType(new String(in.readAllBytes(), StandardCharsets.UTF_8), Object.class);
+        } catch (JsonException e) {
+            StandInServer.send(exchange, 400, "text/plain", "Invalid JSON: " + e.getMessage());
+            return;
+        }
+        boolean bulk = body instanceof List;
+        List<Object> items = bulk ? (List<Object>) body : Arrays.asList(body);
+        for (Object item : items) {
+            if (!(item instanceof Map<?, ?> m) || !(m.get(required) instanceof String s) || s.isBlank()) {
+                StandInServer.send(exchange, 400, "text/plain", "Every item needs a '" + required + "'");
+                return;
+            }
+        }
+        // all or nothing: validated first, stored after
+        List<Map<String, Object>> created = new ArrayList<>();
+        for (Object item : items) {
+            Map<String, Object> entity = new LinkedHashMap<>();
+            long id = IDS.incrementAndGet();
+            entity.put("id", id);
+            ((Map<String, Object>) item).forEach((k, v) -> {
+                if (!k.equals("id")) entity.put(k, v);
+            });
+            store.put(id, entity);
+            created.add(entity);
+        }
+        json(exchange, 201, bulk ? created : created.get(0));
+    }
+
+    private static Set<Long> ids(String query) {
+        if (query == null || !query.startsWith("ids=")) return Set.of();
+        return Arrays.stream(query.substring("ids=".length()).split(","))
+                .map(String::strip)
+                .filter(s -> s.matches("\\d+"))
+                .map(Long::valueOf)
+                .collect(Collectors.toSet());
+    }
+
+    private static void json(HttpExchange exchange, int status, Object body) throws IOException {
+        StandInServer.send(exchange, status, "application/json; charset=utf-8", JSON.toJson(body));
+    }
+}
@@ -0,0 +1,150 @@
+package support.stub;
+
+import support.SparseFiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Streams the file part of a {@code multipart/form-data} body to disk while hashing it, so the upload stand-in takes
+ * files of any size with a fixed buffer. Other parts are read and dropped.
+ */
+final class MultipartReceiver {
+
+    private static final Pattern BOUNDARY = Pattern.compile("boundary=\"?([^\";]+)\"?");
+    private static final Pattern FILENAME = Pattern.compile("filename=\"([^\"]*)\"");
+    private static final byte[] HEADERS_END = "\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1);
+    private static final int BUFFER = 256 * 1024;
+    private static final int MAX_HEADERS = 16 * 1024;
+
+    record Received(String filename, long bytes, String sha256, Path file, long millis) {
+    }
+
+    private final InputStream in;
+    private final byte[] buf = new byte[BUFFER];
+    private int pos;
+    private int limit;
+
+    private MultipartReceiver(InputStream in) {
+        this.in = in;
+    }
+
+    static String boundary(String contentType) {
+        Matcher m = BOUNDARY.matcher(contentType == null ? "" : contentType);
+        return m.find() ? m.group(1) : null;
+    }
+
+    /**
+     * Reads the whole body and stores the first file part under {@code dir}.
+     *
+     * @return the stored file, or {@code null} when the body has no part with a filename
+     */
+    static Received receive(InputStream body, String boundary, Path dir) throws IOException {
+        long start = System.nanoTime();
+        MultipartReceiver r = new MultipartReceiver(body);
+        byte[] first = ("--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        byte[] delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        Received received = null;
+        if (r.copyUntil(first, OutputStream.nullOutputStream(), Long.MAX_VALUE) < 0) return null;
+        while (!r.closing()) {
+            ByteArrayOutputStream headers = new ByteArrayOutputStream();
+            if (r.copyUntil(HEADERS_END, headers, MAX_HEADERS) < 0) break;
+            Matcher m = FILENAME.matcher(headers.toString(StandardCharsets.ISO_8859_1));
+            if (received == null && m.find() && !m.group(1).isEmpty()) {
+                String filename = new String(m.group(1).getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.UTF_8);
+                Files.createDirectories(dir);
+                Path file = Files.createTempFile(dir, "upload-", ".bin");
+                MessageDigest digest = SparseFiles.sha256();
+                long bytes;
+                try (OutputStream out = new DigestOutputStream(Files.newOutputStream(file), digest)) {
+                    bytes = r.copyUntil(delimiter, out, Long.MAX_VALUE);
+                }
+                if (bytes < 0) {
+                    Files.deleteIfExists(file);
+                    throw new IOException("Upload of " + filename + " ended before its closing boundary");
+                }
+                received = new Received(filename, bytes, HexFormat.of().formatHex(digest.digest()), file,
+                        (System.nanoTime() - start) / 1_000_000L);
+            } else if (r.copyUntil(delimiter, OutputStream.nullOutputStream(), Long.MAX_VALUE) < 0) {
+                break;
+            }
+        }
+        drain(body);
+        return received;
+    }
+
+    // drains the epilogue so the connection can be reused
+    private static void drain(InputStream body) throws IOException {
+        body.transferTo(OutputStream.nullOutputStream());
+    }
+
+    /** After a boundary: {@code --} ends the body, {@code CRLF} starts the next part. */
+    private boolean closing() throws IOException {
+        if (!fill(2)) return true;
+        boolean end = buf[pos] == '-' && buf[pos + 1] == '-';
+        pos += 2;
+        return end;
+    }
+
+    /**
+     * Copies bytes to {@code out} up to {@code delimiter} and consumes it.
+     *
+     * @return bytes copied, or -1 at end of input (or past {@code max}) without the delimiter
+     */
+    private long copyUntil(byte[] delimiter, OutputStream out, long max) throws IOException {
+        long copied = 0;
+        while (true) {
+            int found = indexOf(delimiter);
+            if (found >= 0) {
+                out.write(buf, pos, found - pos);
+                copied += found - pos;
+                pos = found + delimiter.length;
+                return copied;
+            }
+            // everything except a possible partial delimiter at the end is content
+            int safe = Math.max(pos, limit - delimiter.length + 1);
+            out.write(buf, pos, safe - pos);
+            copied += safe - pos;
+            pos = safe;
+            if (copied > max || !fill(limit - pos + 1)) return -1;
+        }
+    }
+
+    private int indexOf(byte[] delimiter) {
+        byte head = delimiter[0];
+        int last = limit - delimiter.length;
+        outer:
+        for (int i = pos; i <= last; i++) {
+            if (buf[i] != head) continue;
+            for (int j = 1; j < delimiter.length; j++) {
+                if (buf[i + j] != delimiter[j]) continue outer;
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    // compacts and reads until at least n bytes are buffered; false at end of input
+    private boolean fill(int n) throws IOException {
+        if (limit - pos >= n) return true;
+        System.arraycopy(buf, pos, buf, 0, limit - pos);
+        limit -= pos;
+        pos = 0;
+        while (limit < n) {
+            int read = in.read(buf, limit, buf.length - limit);
+            if (read < 0) return false;
+            limit += read;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,69 @@
+package support.stub;
+
+import com.sun.net.httpserver.HttpExchange;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in of the Vaadin "Signup form" with a real submit round trip, for load runs that must not hit the public
+ * demo.
+ * <p>
+ * {@code /} serves src/test/resources/fixtures/signup-form.html with its endpoint set to {@code /api/signup}, which takes
+ * the JSON the page posts and answers with the demo's "Data saved, welcome ..." notification text (400 when a field is
+ * missing). Server-side latency comes from {@code -Dpiloto.stub.latencyMs} / {@code -Dpiloto.stub.jitterMs} like every
+ * {@link StandInServer}.
+ */
+public final class SignupSite {
+
+    private static final AtomicLong ACCEPTED = new AtomicLong();
+    private static final AtomicLong REJECTED = new AtomicLong();
+
+    private SignupSite() {
+    }
+
+    public static String url() {
+        return standIn().baseUrl() + "/";
+    }
+
+    /** Signups accepted since the stand-in started. */
+    public static long accepted() {
+        return ACCEPTED.get();
+    }
+
+    public static long rejected() {
+        return REJECTED.get();
+    }
+
+    static StandInServer standIn() {
+        return StandInServer.shared(SignupSite.class, () -> new StandInServer()
+                .page("/", "/fixtures/signup-form.html", Map.of("ENDPOINT", "/api/signup"))
+                .route("/api/signup", SignupSite::signup));
+    }
+
+    private static void signup(HttpExchange exchange) throws IOException {
+        if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+            StandInServer.send(exchange, 405, "text/plain", "Method Not Allowed");
+            return;
+        }
+        Map<String, Object> form;
+        try (InputStream body = exchange.getRequestBody()) {
+            form = new Json().toType(new String(body.readAllBytes(), StandardCharsets.UTF_8), Json.MAP_TYPE);
+        } catch (RuntimeException e) {
+            form = Map.of();
+        }
+        for (String field : new String[]{"firstName", "lastName", "handle", "password"}) {
+            if (form == null || !(form.get(field) instanceof String s) || s.isBlank()) {
+                REJECTED.incrementAndGet();
+                StandInServer.send(exchange, 400, "text/plain; charset=utf-8", "Please fill in all fields correctly");
+                return;
+            }
+        }
+        ACCEPTED.incrementAndGet();
+        StandInServer.send(exchange, 200, "text/plain; charset=utf-8", "Data saved, welcome " + form.get("firstName"));
+    }
+}
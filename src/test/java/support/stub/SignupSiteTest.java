@@ -0,0 +1,41 @@
+package support.stub;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SignupSiteTest {
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @Test
+    public void servesTheFormPostingToTheApi() throws Exception {
+        String html = http.send(HttpRequest.newBuilder(URI.create(SignupSite.url())).build(), HttpResponse.BodyHandlers.ofString()).body();
+
+        assertTrue(html.contains("data-endpoint=\"/api/signup\""));
+        assertTrue(html.contains("<h2>Signup form</h2>"));
+    }
+
+    @Test
+    public void acceptsCompleteSignupsOnly() throws Exception {
+        long accepted = SignupSite.accepted();
+        HttpResponse<String> ok = post("{\"firstName\":\"João\",\"lastName\":\"Silva\",\"handle\":\"js\",\"password\":\"x\",\"marketing\":true}");
+        HttpResponse<String> missing = post("{\"firstName\":\"João\"}");
+
+        assertEquals(200, ok.statusCode());
+        assertEquals("Data saved, welcome João", ok.body());
+        assertEquals(400, missing.statusCode());
+        assertEquals(accepted + 1, SignupSite.accepted());
+    }
+
+    private HttpResponse<String> post(String json) throws Exception {
+        return http.send(HttpRequest.newBuilder(URI.create(SignupSite.url() + "api/signup"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,178 @@
+package support.stub;
+
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestPlan;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Small in-JVM HTTP server used to serve local stand-ins of the external sites the tests talk to.
+ * <p>
+ * Binds to 127.0.0.1 on a free port. Latency can be injected for every request to mimic the real site:
+ * {@code -Dpiloto.stub.latencyMs=150 -Dpiloto.stub.jitterMs=50}.
+ * <p>
+ * The stand-ins of the sites ({@code TheInternet}, {@code SignupSite}, {@code Bookstore}) are {@link #shared} servers:
+ * started on first use and stopped by {@link Shutdown} when the test plan finishes, after the other listeners (e.g. the
+ * seeder clean-up). The server's dispatcher thread is not a daemon, so a JVM with a running stand-in would never exit
+ * (and never get to run a shutdown hook).
+ */
+public class StandInServer {
+
+    private static final Map<Class<?>, StandInServer> SHARED = new ConcurrentHashMap<>();
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final long latencyMs;
+    private final long jitterMs;
+
+    public StandInServer() {
+        this(Long.getLong("piloto.stub.latencyMs", 0), Long.getLong("piloto.stub.jitterMs", 0));
+    }
+
+    public StandInServer(long latencyMs, long jitterMs) {
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start stand-in server", e);
+        }
+        executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "stand-in-" + server.getAddress().getPort());
+            t.setDaemon(true);
+            return t;
+        });
+        server.setExecutor(executor);
+    }
+
+    /** The server of {@code owner}, built by {@code routes} and started on first use. */
+    public static StandInServer shared(Class<?> owner, Supplier<StandInServer> routes) {
+        return SHARED.computeIfAbsent(owner, k -> routes.get().start());
+    }
+
+    /** Stops every shared server; a later {@link #shared} call starts a new one. */
+    public static void stopShared() {
+        SHARED.values().removeIf(s -> {
+            s.stop();
+            return true;
+        });
+    }
+
+    public StandInServer start() {
+        server.start();
+        return this;
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /** Registers a handler for an exact path (anything else under the same prefix gets a 404). */
+    public StandInServer route(String path, HttpHandler handler) {
+        server.createContext(path, exchange -> {
+            try {
+                if (!path.equals("/") && !exchange.getRequestURI().getPath().equals(path)) {
+                    send(exchange, 404, "text/plain", "Not Found");
+                    return;
+                }
+                handler.handle(exchange);
+            } finally {
+                exchange.close();
+            }
+        }).getFilters().add(latencyFilter());
+        return this;
+    }
+
+    /** Serves a classpath resource, replacing {@code {{key}}} placeholders. */
+    public StandInServer page(String path, String resource, Map<String, String> placeholders) {
+        String html = resource(resource);
+        for (Map.Entry<String, String> e : placeholders.entrySet()) {
+            html = html.replace("{{" + e.getKey() + "}}", e.getValue());
+        }
+        String body = html;
+        return route(path, exchange -> send(exchange, 200, "text/html; charset=utf-8", body));
+    }
+
+    public StandInServer page(String path, String resource) {
+        return page(path, resource, Map.of());
+    }
+
+    public static String resource(String resource) {
+        try (InputStream is = StandInServer.class.getResourceAsStream(resource)) {
+            if (is == null) throw new IllegalArgumentException("Missing test resource " + resource);
+            return new String(is.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        }
+    }
+
+    public static void redirect(HttpExchange exchange, String location) throws IOException {
+        exchange.getResponseHeaders().set("Location", location);
+        exchange.sendResponseHeaders(302, -1);
+    }
+
+    private Filter latencyFilter() {
+        return new Filter() {
+            @Override
+            public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+                long delay = latencyMs + (jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs + 1) : 0);
+                if (delay > 0) {
+                    try {
+                        Thread.sleep(delay);
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                chain.doFilter(exchange);
+            }
+
+            @Override
+            public String description() {
+                return "latency injection " + latencyMs + "ms +/- " + jitterMs + "ms";
+            }
+        };
+    }
+
+    /**
+     * Stops the shared stand-ins once the whole test plan finished. Registered first in META-INF/services: finish events
+     * reach the listeners in reverse order, so this one runs last.
+     */
+    public static final class Shutdown implements TestExecutionListener {
+        @Override
+        public void testPlanExecutionFinished(TestPlan testPlan) {
+            stopShared();
+        }
+    }
+}
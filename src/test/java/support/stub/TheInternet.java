@@ -0,0 +1,111 @@
+package support.stub;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Base URL of "the-internet" pages used by the tests, served by default from an offline stand-in.
+ * <p>
+ * The stand-in ({@link StandInServer}) is started once per test JVM on first use and serves local copies of
+ * {@code /inputs}, {@code /checkboxes}, {@code /dropdown}, {@code /upload}, {@code /dynamic_loading/2} and
+ * {@code /notification_message_rendered}. To run against the public site instead:
+ * {@code -Dpiloto.theInternet.baseUrl=https://the-internet.herokuapp.com}.
+ * <p>
+ * {@code -Dpiloto.theInternet.loadingMs} controls how long {@code /dynamic_loading/2} shows its spinner
+ * (default 300 ms; the real site takes ~5 s).
+ * <p>
+ * {@code /upload} streams the file to {@code target/uploads} ({@code -Dpiloto.theInternet.uploadDir}) while hashing it
+ * and shows its size, SHA-256 and receive time as {@code data-*} attributes of {@code #uploaded-files}; the stored file is
+ * deleted right away unless {@code -Dpiloto.theInternet.keepUploads=true}.
+ */
+public final class TheInternet {
+
+    private static final String[] NOTIFICATIONS = {
+            "Action successful",
+            "Action unsuccesful, please try again"
+    };
+    private static final Path UPLOADS = Path.of(System.getProperty("piloto.theInternet.uploadDir", "target/uploads"));
+    private static final boolean KEEP_UPLOADS = Boolean.getBoolean("piloto.theInternet.keepUploads");
+
+    private TheInternet() {
+    }
+
+    public static String baseUrl() {
+        String configured = System.getProperty("piloto.theInternet.baseUrl");
+        if (configured != null && !configured.isBlank()) {
+            return configured.replaceAll("/$", "");
+        }
+        return standIn().baseUrl();
+    }
+
+    public static String url(String path) {
+        return baseUrl() + path;
+    }
+
+    static StandInServer standIn() {
+        return StandInServer.shared(TheInternet.class, () -> {
+            StandInServer s = new StandInServer();
+            register(s);
+            return s;
+        });
+    }
+
+    private static void register(StandInServer s) {
+        String loadingMs = String.valueOf(Long.getLong("piloto.theInternet.loadingMs", 300));
+        s.page("/inputs", "/the-internet/inputs.html")
+                .page("/checkboxes", "/the-internet/checkboxes.html")
+                .page("/dropdown", "/the-internet/dropdown.html")
+                .page("/dynamic_loading/2", "/the-internet/dynamic_loading_2.html", Map.of("LOADING_MS", loadingMs))
+                .route("/upload", TheInternet::upload)
+                .route("/notification_message", exchange -> StandInServer.redirect(exchange, "/notification_message_rendered?flash="
+                        + ThreadLocalRandom.current().nextInt(NOTIFICATIONS.length)))
+                .route("/notification_message_rendered", TheInternet::notificationMessage);
+    }
+
+    private static void upload(HttpExchange exchange) throws IOException {
+        if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+            StandInServer.send(exchange, 200, "text/html; charset=utf-8", StandInServer.resource("/the-internet/upload.html"));
+            return;
+        }
+        String boundary = MultipartReceiver.boundary(exchange.getRequestHeaders().getFirst("Content-Type"));
+        MultipartReceiver.Received received = null;
+        if (boundary != null) {
+            try (InputStream body = exchange.getRequestBody()) {
+                received = MultipartReceiver.receive(body, boundary, UPLOADS);
+            }
+        }
+        if (received == null) {
+            StandInServer.send(exchange, 500, "text/html; charset=utf-8", "<h1>Internal Server Error</h1>");
+            return;
+        }
+        if (!KEEP_UPLOADS) Files.deleteIfExists(received.file());
+        String html = StandInServer.resource("/the-internet/uploaded.html")
+                .replace("{{FILENAME}}", escape(received.filename()))
+                .replace("{{BYTES}}", String.valueOf(received.bytes()))
+                .replace("{{SHA256}}", received.sha256())
+                .replace("{{MILLIS}}", String.valueOf(received.millis()));
+        StandInServer.send(exchange, 200, "text/html; charset=utf-8", html);
+    }
+
+    private static void notificationMessage(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getQuery();
+        String flash = "";
+        if (query != null && query.startsWith("flash=")) {
+            int i = Integer.parseInt(query.substring("flash=".length()));
+            flash = "<div class=\"flash notice\" id=\"flash\">\n" + NOTIFICATIONS[i % NOTIFICATIONS.length]
+                    + "\n<a href=\"#\" class=\"close\">×</a>\n</div>";
+        }
+        String html = StandInServer.resource("/the-internet/notification_message_rendered.html").replace("{{FLASH}}", flash);
+        StandInServer.send(exchange, 200, "text/html; charset=utf-8", html);
+    }
+
+    private static String escape(String s) {
+        return s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
@@ -0,0 +1,106 @@
+package support.stub;
+
+import org.junit.jupiter.api.Test;
+import support.SparseFiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TheInternetStandInTest {
+
+    private final HttpClient http = HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NORMAL).build();
+
+    @Test
+    public void servesTheStaticPages() throws Exception {
+        assertTrue(get("/inputs").body().contains("<input type=\"number\">"));
+        assertTrue(get("/checkboxes").body().contains("id=\"checkboxes\""));
+        assertTrue(get("/dropdown").body().contains("<option value=\"2\">Option 2</option>"));
+        assertTrue(get("/upload").body().contains("id=\"file-upload\""));
+        assertTrue(get("/dynamic_loading/2").body().contains("#start button"));
+        assertEquals(404, get("/does-not-exist").statusCode());
+    }
+
+    @Test
+    public void notificationLinkRedirectsToARenderedFlash() throws Exception {
+        HttpResponse<String> response = get("/notification_message");
+        assertTrue(response.uri().getPath().endsWith("/notification_message_rendered"));
+        assertTrue(response.body().contains("id=\"flash\""), "flash message should be rendered after the redirect");
+    }
+
+    @Test
+    public void uploadEchoesTheFilename() throws Exception {
+        String boundary = "----piloto" + System.nanoTime();
+        String body = "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"upload-test.txt\"\r\n"
+                + "Content-Type: text/plain\r\n\r\n"
+                + "conteudo\r\n"
+                + "--" + boundary + "--\r\n";
+        HttpRequest request = HttpRequest.newBuilder(URI.create(TheInternet.url("/upload")))
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8))
+                .build();
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().contains(">upload-test.txt</div>"));
+    }
+
+    @Test
+    public void uploadStreamsLargeFilesAndReportsTheirChecksum() throws Exception {
+        Path file = SparseFiles.create(Files.createTempFile("upload-stream-", ".bin"), 3 * 1024 * 1024 + 17);
+        // content that looks like the start of a boundary must not end the part
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap("\r\n--piloto\r\n--".getBytes(StandardCharsets.US_ASCII)), 256 * 1024 - 5);
+        }
+        try {
+            String boundary = "piloto" + System.nanoTime();
+            byte[] head = ("--" + boundary + "\r\n"
+                    + "Content-Disposition: form-data; name=\"note\"\r\n\r\nignored\r\n"
+                    + "--" + boundary + "\r\n"
+                    + "Content-Disposition: form-data; name=\"file\"; filename=\"large.bin\"\r\n"
+                    + "Content-Type: application/octet-stream\r\n\r\n").getBytes(StandardCharsets.UTF_8);
+            byte[] tail = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(TheInternet.url("/upload")))
+                    .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                    .POST(HttpRequest.BodyPublishers.ofInputStream(() -> new SequenceInputStream(Collections.enumeration(List.of(
+                            new ByteArrayInputStream(head), newInputStream(file), new ByteArrayInputStream(tail))))))
+                    .build();
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(200, response.statusCode());
+            assertTrue(response.body().contains(">large.bin</div>"));
+            assertTrue(response.body().contains("data-bytes=\"" + Files.size(file) + "\""), "byte count of the file part");
+            assertTrue(response.body().contains("data-sha256=\"" + SparseFiles.sha256(file) + "\""), "checksum of the file part");
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static InputStream newInputStream(Path file) {
+        try {
+            return Files.newInputStream(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return http.send(HttpRequest.newBuilder(URI.create(TheInternet.url(path))).build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
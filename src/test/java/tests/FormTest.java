@@ -1,41 +1,67 @@
 
 package tests;
 
-import com.codeborne.selenide.Configuration;
-import com.codeborne.selenide.Selenide;
 import io.qameta.allure.Description;
+import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 import pages.FormPage;
+import support.BrowserConfig;
+import support.BrowserSession;
+import support.CommandLatency;
+import support.PageWaits;
+import support.VisualCheckpoint;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
 
 import static org.testng.Assert.assertTrue;
 
 public class FormTest {
 
     private FormPage formPage;
+    private BrowserSession session;
 
     @BeforeClass
     public void setup() {
-        Configuration.browserSize = "1920x1080";
-        Configuration.timeout = 8000; // tempo para animações/Shadow DOM
-        formPage = new FormPage();
+        // TestNG não usa extensões JUnit: pede a sessão ao pool diretamente
+        BrowserConfig config = BrowserConfig.defaults()
+                .withBrowserSize("1920x1080")
+                .withTimeout(8000); // tempo para animações/Shadow DOM
+        session = BrowserSession.open(FormTest.class.getName(), config);
+        formPage = new FormPage(session.selenide());
         formPage.openUrl("https://vaadin-form-example.demo.vaadin.com/");
     }
 
+    @AfterClass(alwaysRun = true)
+    public void tearDown() {
+        if (session != null) {
+            CommandLatency.attachToAllure(session.testName());
+            session.close();
+        }
+    }
+
     @Test(description = "Verifica se o formulário envia dados corretamente")
     @Description("Teste de aceitação: preencher o formulário e submeter")
     public void testSubmitForm() {
-        // Preenche os campos
-        formPage.setFirstName("João");
-        formPage.setLastName("Silva");
-        formPage.setUserHandle("joaosilva");
-        formPage.setWantedPassword("SenhaFort3!");
-        formPage.setPasswordAgain("SenhaFort3!");
-
-        // Submete com dois cliques (a demo por vezes valida no 1º clique)
-        formPage.submit();
-        Selenide.sleep(300);
+        // Preenche os campos (um só executeJavaScript)
+        Map<FormPage.Field, String> values = new EnumMap<>(FormPage.Field.class);
+        values.put(FormPage.Field.FIRST_NAME, "João");
+        values.put(FormPage.Field.LAST_NAME, "Silva");
+        values.put(FormPage.Field.USER_HANDLE, "joaosilva");
+        values.put(FormPage.Field.WANTED_PASSWORD, "SenhaFort3!");
+        values.put(FormPage.Field.PASSWORD_AGAIN, "SenhaFort3!");
+        formPage.fill(values);
+        // Formulário preenchido comparado com o baseline em segundo plano; o resultado é verificado no fim
+        VisualCheckpoint form = formPage.checkpointForm();
+
+        // A demo por vezes só valida no 1º clique: se a notificação não aparecer, submete outra vez
         formPage.submit();
+        boolean notified = PageWaits.of(session.driver()).insteadOf(300).untilNotification(Duration.ofSeconds(2));
+        if (!notified) {
+            formPage.submit();
+        }
 
         // Lê a notificação
         String notification = formPage.waitAndGetNotificationText();
@@ -49,5 +75,6 @@ public class FormTest {
                         n.contains("joined");
 
         assertTrue(ok, "Texto da notificação inesperado: " + notification);
+        form.assertMatches();
     }
 }